@@ -0,0 +1,89 @@
+package com.example;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.StreamHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures what logging a game event costs the thread that logs it: through a
+ * synchronous {@link StreamHandler} that formats and writes on the caller's
+ * thread, and through the {@link AsyncLogHandler}, both writing
+ * {@link LogfmtFormatter} lines to a stream that discards them. The disabled
+ * benchmarks log below the logger's level, the old way with the message built
+ * first and the new way with a parameter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+  @Param({"sync", "async"})
+  String handler;
+
+  private final Logger logger = Logger.getLogger(LoggingBenchmark.class.getName());
+  private Handler installed;
+  private int secret = 1_000;
+
+  @Setup
+  public void setup() {
+    final OutputStream discard = new OutputStream() {
+      @Override
+      public void write(final int b) {
+      }
+
+      @Override
+      public void write(final byte[] b, final int off, final int len) {
+      }
+    };
+    installed = "sync".equals(handler)
+        ? new StreamHandler(discard, new LogfmtFormatter())
+        : new AsyncLogHandler(discard, AsyncLogHandler.DEFAULT_CAPACITY);
+    installed.setFormatter(new LogfmtFormatter());
+    logger.setUseParentHandlers(false);
+    logger.addHandler(installed);
+    logger.setLevel(Level.INFO);
+  }
+
+  @TearDown
+  public void tearDown() {
+    logger.removeHandler(installed);
+    installed.close();
+  }
+
+  @Benchmark
+  public void enabled() {
+    logger.log(Level.INFO, "event=game_created secret={0,number,#}", secret++);
+  }
+
+  @Benchmark
+  public void disabledConcatenated() {
+    logger.fine("Game created " + secret++);
+  }
+
+  @Benchmark
+  public void disabledParameterized() {
+    if (logger.isLoggable(Level.FINE)) {
+      logger.log(Level.FINE, "event=game_created secret={0,number,#}", secret);
+    }
+    secret++;
+  }
+}
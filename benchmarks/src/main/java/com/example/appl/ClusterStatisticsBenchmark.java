@@ -0,0 +1,96 @@
+package com.example.appl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs a cluster of in-process nodes that share their statistics through a
+ * temporary directory. Measures one gossip round of one node, and the cost the
+ * cluster adds to reading the stats version on the request path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class ClusterStatisticsBenchmark {
+
+  @Param({"2", "8"})
+  int nodes;
+
+  private Path directory;
+  private GameCenter[] centers;
+  private StatisticsGossip[] gossips;
+  private final GameCenter single = new GameCenter();
+
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("cluster");
+    centers = new GameCenter[nodes];
+    gossips = new StatisticsGossip[nodes];
+    for (int i = 0; i < nodes; i++) {
+      final ClusterStatistics cluster = new ClusterStatistics("node" + i);
+      centers[i] = new GameCenter(new GameCenter.Settings().sessionReaper(new SessionReaper()).cluster(cluster));
+      gossips[i] = new StatisticsGossip(cluster, centers[i]::getLocalGameStats, directory, 1000);
+      centers[i].gameFinished(i % 2 == 0);
+    }
+    // two rounds so every node has heard from every other
+    for (int round = 0; round < 2; round++) {
+      for (StatisticsGossip gossip : gossips) {
+        gossip.round();
+      }
+    }
+    for (GameCenter center : centers) {
+      if (center.getGameStats().getTotalGames() != nodes) {
+        throw new IllegalStateException("The nodes did not agree on the cluster totals.");
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * One node writes its counts and merges those of every other node.
+   */
+  @Benchmark
+  public void round() throws IOException {
+    gossips[0].round();
+  }
+
+  @Benchmark
+  public long clusterVersion() {
+    return centers[0].getGameStatsVersion();
+  }
+
+  @Benchmark
+  public long singleVersion() {
+    return single.getGameStatsVersion();
+  }
+}
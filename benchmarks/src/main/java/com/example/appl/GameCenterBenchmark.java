@@ -0,0 +1,71 @@
+package com.example.appl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Application tier benchmarks for the sitewide services of {@link GameCenter}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameCenterBenchmark {
+
+  private final GameCenter gameCenter = new GameCenter();
+
+  @Benchmark
+  @Threads(1)
+  public void gameFinished_01() {
+    gameCenter.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void gameFinished_04() {
+    gameCenter.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String getGameStatsMessage_01() {
+    return gameCenter.getGameStatsMessage();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String getGameStatsMessage_04() {
+    return gameCenter.getGameStatsMessage();
+  }
+
+  /**
+   * Home page renders racing finished games; three readers for every writer.
+   */
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public String mixedReader() {
+    return gameCenter.getGameStatsMessage();
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void mixedWriter() {
+    gameCenter.gameFinished(false);
+  }
+}
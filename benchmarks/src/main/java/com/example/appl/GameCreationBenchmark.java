@@ -0,0 +1,95 @@
+package com.example.appl;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.model.GuessGame;
+import com.example.model.NumberSource;
+import com.example.model.SecureNumberSource;
+
+/**
+ * Game creation through {@link GameCenter#getGame()} with each {@link NumberSource}.
+ * {@code shared} is one {@link Random} for every thread, as games were created
+ * before the sources; its seed is a single atomic that every thread updates. The
+ * {@code _max} variant runs a thread per core: the per-thread sources should
+ * scale with the cores where the shared one flattens out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameCreationBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Site {
+    @Param({"shared", "threadLocal", "secure"})
+    String source;
+
+    SessionReaper sessionReaper;
+    GameCenter gameCenter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      sessionReaper = new SessionReaper();
+      sessionReaper.start();
+      gameCenter = new GameCenter(new GameCenter.Settings()
+          .sessionReaper(sessionReaper)
+          .numbers(numberSource(source)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      sessionReaper.stop();
+    }
+
+    private static NumberSource numberSource(final String name) {
+      switch (name) {
+        case "shared":
+          return new Random()::nextInt;
+        case "threadLocal":
+          return NumberSource.THREAD_LOCAL;
+        case "secure":
+          return new SecureNumberSource();
+        default:
+          throw new IllegalArgumentException("Unknown number source " + name);
+      }
+    }
+  }
+
+  /**
+   * Create a game.
+   */
+  @Benchmark
+  @Threads(1)
+  public GuessGame getGame_01(final Site site) {
+    return site.gameCenter.getGame();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GuessGame getGame_04(final Site site) {
+    return site.gameCenter.getGame();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public GuessGame getGame_max(final Site site) {
+    return site.gameCenter.getGame();
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.appl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.model.BinarySearchSolver;
+import com.example.model.GameRules;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The capacity of the game engine, in games per second: each benchmark thread
+ * is a {@link BinarySearchSolver} bot that plays complete hint-mode games
+ * through {@link PlayerServices}, with the statistics, leaderboard and rolling
+ * windows of a real {@link GameCenter} updated for every game. The bot is given
+ * just enough guesses to always win.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameThroughputBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Site {
+    @Param({"10", "1000000"})
+    int upperBound;
+
+    SessionReaper sessionReaper;
+    GameCenter gameCenter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      sessionReaper = new SessionReaper();
+      sessionReaper.start();
+      gameCenter = new GameCenter(new GameCenter.Settings()
+          .sessionReaper(sessionReaper)
+          .rules(GameRules.of(upperBound, BinarySearchSolver.guessesNeeded(upperBound), true)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      sessionReaper.stop();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Bot {
+    final BinarySearchSolver solver = new BinarySearchSolver();
+    PlayerServices playerServices;
+
+    @Setup
+    public void setup(final Site site) {
+      playerServices = site.gameCenter.newPlayerServices();
+    }
+  }
+
+  /**
+   * Play one complete game.
+   */
+  @Benchmark
+  @Threads(1)
+  public GuessResult playGame_01(final Bot bot) {
+    return playGame(bot);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GuessResult playGame_04(final Bot bot) {
+    return playGame(bot);
+  }
+
+  private static GuessResult playGame(final Bot bot) {
+    final PlayerServices playerServices = bot.playerServices;
+    final BinarySearchSolver solver = bot.solver;
+    playerServices.startGame();
+    solver.newGame(playerServices.getRules());
+    GuessResult result;
+    do {
+      result = playerServices.makeGuess(solver.nextGuess());
+      solver.learn(result);
+    } while (result != GuessResult.WON && result != GuessResult.LOST);
+    playerServices.finishedGame();
+    return result;
+  }
+}
@@ -0,0 +1,90 @@
+package com.example.appl;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link Leaderboard} with many players on it: players finishing
+ * games while other threads read the top of the board and ask for ranks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class LeaderboardBenchmark {
+
+  @Param({"1000", "100000"})
+  int players;
+
+  private final Leaderboard leaderboard = new Leaderboard();
+  private Leaderboard.Entry[] entries;
+  private PlayerStatistics[] stats;
+
+  @Setup
+  public void setup() {
+    entries = new Leaderboard.Entry[players];
+    stats = new PlayerStatistics[players];
+    for (int i = 0; i < players; i++) {
+      stats[i] = finishGame(PlayerStatistics.NONE);
+      entries[i] = leaderboard.update(null, stats[i]);
+    }
+  }
+
+  /**
+   * A random player finishes a game.
+   */
+  @Benchmark
+  @Group("board")
+  @GroupThreads(1)
+  public Leaderboard.Entry update() {
+    final int player = ThreadLocalRandom.current().nextInt(players);
+    final PlayerStatistics next = finishGame(stats[player]);
+    stats[player] = next;
+    final Leaderboard.Entry entry = leaderboard.update(entries[player], next);
+    entries[player] = entry;
+    return entry;
+  }
+
+  /**
+   * The home page reads the top of the board.
+   */
+  @Benchmark
+  @Group("board")
+  @GroupThreads(2)
+  public List<String> top() {
+    return leaderboard.getTop();
+  }
+
+  /**
+   * A player reads its rank.
+   */
+  @Benchmark
+  @Group("board")
+  @GroupThreads(1)
+  public int rank() {
+    final Leaderboard.Entry entry = entries[ThreadLocalRandom.current().nextInt(players)];
+    return leaderboard.rankOf(entry);
+  }
+
+  private static PlayerStatistics finishGame(final PlayerStatistics stats) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    return random.nextInt(3) == 0 ? stats.won(1 + random.nextInt(3)) : stats.lost();
+  }
+}
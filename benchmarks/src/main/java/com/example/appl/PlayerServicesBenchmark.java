@@ -0,0 +1,87 @@
+package com.example.appl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.model.GuessGame;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * Application tier benchmarks for {@link PlayerServices}. Every benchmark thread
+ * is its own player; all players share one {@link GameCenter}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerServicesBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Site {
+    final GameCenter gameCenter = new GameCenter();
+  }
+
+  @State(Scope.Thread)
+  public static class Player {
+    PlayerServices playerServices;
+
+    @Setup
+    public void setup(final Site site) {
+      playerServices = site.gameCenter.newPlayerServices();
+    }
+  }
+
+  /**
+   * Play a complete game through the player services, the way the routes do.
+   */
+  @Benchmark
+  @Threads(1)
+  public GuessResult playGame_01(final Player player) {
+    return playGame(player.playerServices);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GuessResult playGame_04(final Player player) {
+    return playGame(player.playerServices);
+  }
+
+  /**
+   * Look up the game in progress.
+   */
+  @Benchmark
+  @Threads(1)
+  public GuessGame currentGame_01(final Player player) {
+    return player.playerServices.currentGame();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GuessGame currentGame_04(final Player player) {
+    return player.playerServices.currentGame();
+  }
+
+  private static GuessResult playGame(final PlayerServices playerServices) {
+    // the game returned is a copy, so the results tell when the game is over
+    playerServices.startGame();
+    GuessResult result;
+    int guess = 0;
+    do {
+      result = playerServices.makeGuess(guess++);
+    } while (result != GuessResult.WON && result != GuessResult.LOST);
+    playerServices.finishedGame();
+    return result;
+  }
+}
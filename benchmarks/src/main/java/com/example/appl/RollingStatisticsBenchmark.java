@@ -0,0 +1,55 @@
+package com.example.appl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * Measures recording guesses into the {@link RollingStatistics} windows as the
+ * thread count grows, and summing a window while guesses are recorded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RollingStatisticsBenchmark {
+
+  private final RollingStatistics recent = new RollingStatistics();
+
+  @Benchmark
+  @Threads(1)
+  public void guessMade_01() {
+    recent.guessMade(GuessResult.WON);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void guessMade_04() {
+    recent.guessMade(GuessResult.WON);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public RollingStatistics.Totals totalsMinute_01() {
+    return recent.totals(RollingStatistics.Window.MINUTE);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public RollingStatistics.Totals totalsDay_01() {
+    return recent.totals(RollingStatistics.Window.DAY);
+  }
+}
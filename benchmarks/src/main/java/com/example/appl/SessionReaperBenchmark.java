@@ -0,0 +1,115 @@
+package com.example.appl;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spark.StubHttpSession;
+
+/**
+ * Compares the whole life of a player session under the {@link SessionReaper}
+ * with the per-session watchdog listener it replaced. Each operation starts a
+ * player in a new HTTP session and later ends it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class SessionReaperBenchmark {
+
+  private static final int SESSIONS = 1024;
+  private static final String PLAYERSERVICES_KEY = "playerServices";
+  private static final String TIMEOUT_SESSION_KEY = "timeoutWatchdog";
+
+  private final SessionReaper reaper = new SessionReaper();
+  private final GameCenter reaperCenter = new GameCenter(new GameCenter.Settings().sessionReaper(reaper));
+  private final GameCenter watchdogCenter = new GameCenter();
+  private final GameStore watchdogStore = new SlabGameStore();
+  private final StubHttpSession[] sessions = new StubHttpSession[SESSIONS];
+  private final long timeoutNanos = TimeUnit.SECONDS.toNanos(SessionReaper.DEFAULT_TIMEOUT_SECONDS);
+  private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(SessionReaper.DEFAULT_TICK_MILLIS);
+  // How far the reaper's clock runs ahead of the real one.
+  private long clockOffset = 0;
+
+  /**
+   * Start a batch of players, then advance the wheel past their timeout.
+   */
+  @Benchmark
+  @OperationsPerInvocation(SESSIONS)
+  public long reaper() {
+    for (int i = 0; i < SESSIONS; i++) {
+      final StubHttpSession session = new StubHttpSession();
+      session.setAttribute(PLAYERSERVICES_KEY, reaperCenter.newPlayerServices());
+      sessions[i] = session;
+    }
+    clockOffset += tickNanos;
+    reaper.advanceTo(System.nanoTime() + timeoutNanos + clockOffset);
+    for (int i = 0; i < SESSIONS; i++) {
+      sessions[i].invalidate();
+    }
+    return reaper.getExpiredSessions();
+  }
+
+  /**
+   * Start a batch of players each watched by its own listener, then invalidate
+   * their sessions the way the servlet container does on timeout.
+   */
+  @Benchmark
+  @OperationsPerInvocation(SESSIONS)
+  public int watchdog() {
+    for (int i = 0; i < SESSIONS; i++) {
+      final StubHttpSession session = new StubHttpSession();
+      final PlayerServices playerServices = new PlayerServices(watchdogCenter, watchdogStore);
+      session.setAttribute(PLAYERSERVICES_KEY, playerServices);
+      session.setAttribute(TIMEOUT_SESSION_KEY, new SessionTimeoutWatchdog(playerServices));
+      sessions[i] = session;
+    }
+    for (int i = 0; i < SESSIONS; i++) {
+      sessions[i].invalidate();
+    }
+    return watchdogStore.size();
+  }
+
+  /**
+   * The session listener that ended each player before the {@link SessionReaper}.
+   */
+  static final class SessionTimeoutWatchdog implements HttpSessionBindingListener {
+    private static final Logger LOG = Logger.getLogger(SessionTimeoutWatchdog.class.getName());
+
+    private final PlayerServices playerServices;
+
+    SessionTimeoutWatchdog(final PlayerServices playerServices) {
+      LOG.fine("Watch dog created.");
+      this.playerServices = Objects.requireNonNull(playerServices);
+    }
+
+    @Override
+    public void valueBound(HttpSessionBindingEvent event) {
+      LOG.fine("Player session started.");
+    }
+
+    @Override
+    public void valueUnbound(HttpSessionBindingEvent event) {
+      playerServices.endSession();
+      LOG.fine("Player session ended.");
+    }
+  }
+}
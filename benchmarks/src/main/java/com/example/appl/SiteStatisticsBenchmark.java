@@ -0,0 +1,98 @@
+package com.example.appl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the striped {@link SiteStatistics} with the single-monitor counters
+ * it replaced, at increasing thread counts. Throughput of the striped recorder
+ * should grow with the thread count while the monitor version stays flat.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SiteStatisticsBenchmark {
+
+  private final SiteStatistics striped = new SiteStatistics();
+  private final MonitorStatistics monitor = new MonitorStatistics();
+
+  @Benchmark
+  @Threads(1)
+  public void striped_01() {
+    striped.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void striped_04() {
+    striped.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void striped_max() {
+    striped.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void monitor_01() {
+    monitor.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void monitor_04() {
+    monitor.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void monitor_max() {
+    monitor.gameFinished(true);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public SiteStatistics.Snapshot stripedSnapshot_max() {
+    return striped.snapshot();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public long monitorSnapshot_max() {
+    return monitor.snapshot();
+  }
+
+  /**
+   * The counters as {@link GameCenter} kept them before striping.
+   */
+  static final class MonitorStatistics {
+    private int totalGames = 0;
+    private int gamesWon = 0;
+
+    synchronized void gameFinished(final boolean won) {
+      totalGames++;
+      if (won) {
+        gamesWon++;
+      }
+    }
+
+    synchronized long snapshot() {
+      return ((long) totalGames << 32) | gamesWon;
+    }
+  }
+}
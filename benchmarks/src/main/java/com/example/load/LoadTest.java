@@ -0,0 +1,145 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A closed-loop HTTP load generator for comparing the server execution modes.
+ * Every client thread holds one connection and sends requests back to back, so
+ * the concurrency level is the number of connections the server must serve at once.
+ *
+ * <pre>
+ *   java -cp benchmarks/target/benchmarks.jar com.example.load.LoadTest \
+ *       http://localhost:4567/api/v1/stats 50,200,1000,4000 20
+ * </pre>
+ *
+ * For each concurrency level it prints the throughput, the p50, p99 and maximum
+ * latency, and the number of failed requests.
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(final String[] args) throws Exception {
+    if (args.length != 3) {
+      System.err.println("usage: LoadTest <url> <concurrency,...> <seconds per level>");
+      System.exit(2);
+    }
+    final URL url = new URL(args[0]);
+    final long seconds = Long.parseLong(args[2]);
+
+    System.out.printf("%11s %12s %10s %10s %10s %8s%n",
+        "connections", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+    for (String level : args[1].split(",")) {
+      run(url, Integer.parseInt(level.trim()), seconds);
+    }
+  }
+
+  private static void run(final URL url, final int concurrency, final long seconds) throws InterruptedException {
+    final long endNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    final CountDownLatch done = new CountDownLatch(concurrency);
+    final List<Client> clients = new ArrayList<>();
+    for (int i = 0; i < concurrency; i++) {
+      final Client client = new Client(url, endNanos, done);
+      clients.add(client);
+      final Thread thread = new Thread(client, "load-" + i);
+      thread.setDaemon(true);
+      thread.start();
+    }
+    done.await();
+
+    int count = 0;
+    long errors = 0;
+    for (Client client : clients) {
+      count += client.count;
+      errors += client.errors;
+    }
+    final long[] latencies = new long[count];
+    int at = 0;
+    for (Client client : clients) {
+      System.arraycopy(client.latencies, 0, latencies, at, client.count);
+      at += client.count;
+    }
+    Arrays.sort(latencies);
+    System.out.printf("%11d %12.0f %10.2f %10.2f %10.2f %8d%n",
+        concurrency,
+        count / (double) seconds,
+        percentile(latencies, 0.50),
+        percentile(latencies, 0.99),
+        count == 0 ? 0.0 : latencies[count - 1] / 1e6,
+        errors);
+  }
+
+  private static double percentile(final long[] sorted, final double fraction) {
+    if (sorted.length == 0) {
+      return 0.0;
+    }
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+  }
+
+  /**
+   * One connection sending requests until the end of the level.
+   */
+  private static final class Client implements Runnable {
+    private final URL url;
+    private final long endNanos;
+    private final CountDownLatch done;
+    private final byte[] buffer = new byte[8192];
+    private long[] latencies = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+
+    Client(final URL url, final long endNanos, final CountDownLatch done) {
+      this.url = url;
+      this.endNanos = endNanos;
+      this.done = done;
+    }
+
+    @Override
+    public void run() {
+      try {
+        long start;
+        while ((start = System.nanoTime()) < endNanos) {
+          if (request()) {
+            if (count == latencies.length) {
+              latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+          } else {
+            errors++;
+          }
+        }
+      } finally {
+        done.countDown();
+      }
+    }
+
+    private boolean request() {
+      try {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(10_000);
+        connection.setReadTimeout(10_000);
+        final int status = connection.getResponseCode();
+        final InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+          try (InputStream body = in) {
+            while (body.read(buffer) >= 0) {
+              // drain so the connection is kept alive
+            }
+          }
+        }
+        return status < 400;
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.model;
+
+import java.util.Objects;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * A bot that plays a game as well as it can be played. With hints it guesses
+ * the middle of the numbers that are still possible, so it needs at most
+ * {@code ceil(log2(upperBound + 1))} guesses; without hints every guess can
+ * only rule itself out, so it tries the numbers in turn.
+ *
+ * <p>
+ * A solver plays one game at a time and is reused with {@link #newGame(GameRules)};
+ * it never allocates.
+ * </p>
+ */
+public final class BinarySearchSolver {
+
+  //
+  // Attributes
+  //
+
+  private boolean hints;
+  // The lowest and highest numbers that are still possible.
+  private int low;
+  private int high;
+  private int lastGuess;
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Get the number of guesses that always finds the number with hints.
+   *
+   * @param upperBound
+   *    The number of numbers the number to guess is drawn from.
+   *
+   * @return the number of guesses binary search needs at most
+   */
+  public static int guessesNeeded(final int upperBound) {
+    return 32 - Integer.numberOfLeadingZeros(upperBound);
+  }
+
+  /**
+   * Start on a new game.
+   *
+   * @param rules
+   *    The rules the game is played by.
+   *
+   * @throws NullPointerException
+   *    when the {@code rules} parameter is null
+   */
+  public void newGame(final GameRules rules) {
+    // validation
+    Objects.requireNonNull(rules, "rules must not be null");
+    //
+    this.hints = rules.hasHints();
+    this.low = 0;
+    this.high = rules.getHighestNumber();
+  }
+
+  /**
+   * @return the next guess to make
+   */
+  public int nextGuess() {
+    // the middle, without overflowing for ranges near Integer.MAX_VALUE
+    lastGuess = hints ? (low + high) >>> 1 : low;
+    return lastGuess;
+  }
+
+  /**
+   * Narrow the numbers that are still possible by the result of the last guess.
+   *
+   * @param result
+   *    The result of the guess returned by {@link #nextGuess()}.
+   */
+  public void learn(final GuessResult result) {
+    switch (result) {
+      case TOO_LOW:
+      case WRONG:
+        low = lastGuess + 1;
+        break;
+      case TOO_HIGH:
+        high = lastGuess - 1;
+        break;
+      default:
+        // the game is over, or the guess was not counted
+        break;
+    }
+  }
+}
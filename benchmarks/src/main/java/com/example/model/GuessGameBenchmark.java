@@ -0,0 +1,92 @@
+package com.example.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * Model tier benchmarks for {@link GuessGame}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuessGameBenchmark {
+
+  /**
+   * One game shared by every benchmark thread; only ever sees invalid guesses
+   * and queries so that it never runs out of guesses.
+   */
+  @State(Scope.Benchmark)
+  public static class SharedGame {
+    final GuessGame game = new GuessGame(5);
+  }
+
+  /**
+   * Play a complete game: create it and guess from zero upward until it is over.
+   */
+  @Benchmark
+  @Threads(1)
+  public GuessResult playGame_01() {
+    return playGame();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public GuessResult playGame_04() {
+    return playGame();
+  }
+
+  /**
+   * The accessors a page render calls in a row, against a game shared by all threads.
+   */
+  @Benchmark
+  @Threads(1)
+  public void queries_01(final SharedGame state, final Blackhole bh) {
+    queries(state.game, bh);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void queries_04(final SharedGame state, final Blackhole bh) {
+    queries(state.game, bh);
+  }
+
+  /**
+   * An out-of-range guess against a game shared by all threads.
+   */
+  @Benchmark
+  @Threads(4)
+  public GuessResult invalidGuess_04(final SharedGame state) {
+    return state.game.makeGuess(-1);
+  }
+
+  private static GuessResult playGame() {
+    final GuessGame game = new GuessGame(2);
+    GuessResult result = null;
+    for (int guess = 0; !game.isFinished(); guess++) {
+      result = game.makeGuess(guess);
+    }
+    return result;
+  }
+
+  private static void queries(final GuessGame game, final Blackhole bh) {
+    bh.consume(game.isGameBeginning());
+    bh.consume(game.hasMoreGuesses());
+    bh.consume(game.guessesLeft());
+    bh.consume(game.isFinished());
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.ui;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of recording a latency into a {@link LatencyHistogram},
+ * which every timed request pays, alone and from several threads at once.
+ * Run with {@code -prof gc} to check that recording does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Benchmark
+  @Threads(1)
+  public void record_01() {
+    histogram.record(latency());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void record_04() {
+    histogram.record(latency());
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long snapshot_01() {
+    return histogram.snapshot().valueAt(0.99);
+  }
+
+  /**
+   * A latency between a microsecond and a few milliseconds.
+   */
+  private static long latency() {
+    return 1_000 + ThreadLocalRandom.current().nextInt(4_000_000);
+  }
+}
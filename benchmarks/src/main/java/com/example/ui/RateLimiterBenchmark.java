@@ -0,0 +1,64 @@
+package com.example.ui;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost the {@link RateLimiter} adds to every request on the game
+ * routes: one busy client whose bucket stays empty, and many clients, more than
+ * the table holds, so that buckets are also thrown out and created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+  private static final int CLIENTS = 1 << 14;
+
+  private final RateLimiter limiter = new RateLimiter(20, 40, CLIENTS / 4);
+  private final String[] clients = new String[CLIENTS];
+
+  public RateLimiterBenchmark() {
+    for (int i = 0; i < CLIENTS; i++) {
+      clients[i] = "10.0." + (i >>> 8) + '.' + (i & 0xFF);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean oneClient_01() {
+    return limiter.tryAcquire(clients[0]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean oneClient_04() {
+    return limiter.tryAcquire(clients[0]);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean manyClients_01() {
+    return limiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean manyClients_04() {
+    return limiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+  }
+}
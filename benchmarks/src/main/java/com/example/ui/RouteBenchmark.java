@@ -0,0 +1,166 @@
+package com.example.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spark.Route;
+import spark.StubRequest;
+import spark.StubResponse;
+import spark.StubTemplateEngine;
+
+import com.example.appl.GameCenter;
+import com.example.appl.SessionReaper;
+
+/**
+ * UI tier benchmarks running the route handlers against stub requests and a
+ * {@link StubTemplateEngine}, so the numbers exclude Jetty and FreeMarker. Each
+ * runs with players kept in the HTTP session and in an encrypted cookie.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Site {
+    // a short session timeout so that abandoned benchmark players are reaped promptly
+    final SessionReaper sessionReaper = new SessionReaper(100, 10);
+    final GameCenter gameCenter = new GameCenter(new GameCenter.Settings().sessionReaper(sessionReaper));
+    final StubTemplateEngine templateEngine = new StubTemplateEngine();
+
+    @Param({"server", "token"})
+    String sessionMode;
+
+    PlayerSessionStore sessions;
+    GetHomeRoute homeRoute;
+    GetGameRoute gameRoute;
+    PostGuessRoute guessRoute;
+
+    @Setup
+    public void setup() {
+      sessions = "token".equals(sessionMode)
+          ? new TokenPlayerSessionStore(gameCenter, TokenPlayerSessionStore.randomKey())
+          : new HttpPlayerSessionStore(gameCenter);
+      homeRoute = new GetHomeRoute(gameCenter, templateEngine, sessions);
+      gameRoute = new GetGameRoute(templateEngine, sessions);
+      guessRoute = new PostGuessRoute(gameCenter, templateEngine, sessions);
+      sessionReaper.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+      sessionReaper.stop();
+    }
+  }
+
+  /**
+   * A browser that has already started to play.
+   */
+  @State(Scope.Thread)
+  public static class Browser {
+    final StubResponse response = new StubResponse();
+    StubRequest request;
+
+    @Setup
+    public void setup(final Site site) throws Exception {
+      request = new StubRequest();
+      handle(site.gameRoute);
+    }
+
+    /**
+     * Start over if the reaper ended the session during a pause.
+     */
+    void ensurePlayer(final Site site) throws Exception {
+      if (site.sessions.find(request) == null) {
+        setup(site);
+      }
+    }
+
+    /**
+     * Run a route and send back the player cookie it set, as a browser would.
+     */
+    Object handle(final Route route) throws Exception {
+      final Object view = route.handle(request, response);
+      request.cookie(TokenPlayerSessionStore.COOKIE_NAME, response.cookie(TokenPlayerSessionStore.COOKIE_NAME));
+      return view;
+    }
+  }
+
+  /**
+   * A first visit to the home page; creates no player, and is served the cached page.
+   */
+  @Benchmark
+  @Threads(1)
+  public Object home_01(final Site site) {
+    return home(site);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object home_04(final Site site) {
+    return home(site);
+  }
+
+  /**
+   * Show the game form for the game in progress.
+   */
+  @Benchmark
+  @Threads(1)
+  public Object game_01(final Site site, final Browser browser) throws Exception {
+    browser.ensurePlayer(site);
+    return browser.handle(site.gameRoute);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object game_04(final Site site, final Browser browser) throws Exception {
+    browser.ensurePlayer(site);
+    return browser.handle(site.gameRoute);
+  }
+
+  /**
+   * Play a complete game: show the game form, then post guesses until the home
+   * view comes back.
+   */
+  @Benchmark
+  @Threads(1)
+  public Object playGame_01(final Site site, final Browser browser) throws Exception {
+    return playGame(site, browser);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object playGame_04(final Site site, final Browser browser) throws Exception {
+    return playGame(site, browser);
+  }
+
+  private static Object home(final Site site) {
+    return site.homeRoute.handle(new StubRequest(), new StubResponse());
+  }
+
+  private static Object playGame(final Site site, final Browser browser) throws Exception {
+    browser.ensurePlayer(site);
+    browser.handle(site.gameRoute);
+    Object view = null;
+    for (int guess = 0; !GetHomeRoute.VIEW_NAME.equals(view); guess++) {
+      browser.request.queryParam(PostGuessRoute.GUESS_PARAM, Integer.toString(guess));
+      view = browser.handle(site.guessRoute);
+    }
+    return view;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.ui;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spark.ModelAndView;
+import spark.TemplateEngine;
+import spark.template.freemarker.FreeMarkerEngine;
+
+import com.example.model.GameRules;
+
+/**
+ * Compares rendering the game's views with FreeMarker and with the
+ * {@link PrecompiledTemplateEngine}. Setup fails if the two disagree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class TemplateEngineBenchmark {
+
+  private final TemplateEngine freeMarker = new FreeMarkerEngine();
+  private final TemplateEngine precompiled = new PrecompiledTemplateEngine();
+  private ModelAndView home;
+  private ModelAndView gameForm;
+
+  @Setup
+  public void setup() {
+    final Map<String, Object> homeVm = new HashMap<>();
+    homeVm.put(GetHomeRoute.TITLE_ATTR, GetHomeRoute.TITLE);
+    homeVm.put(GetHomeRoute.GAME_STATS_MSG_ATTR, "There have been 2 games played. Players have won 50% of those games.");
+    homeVm.put(GetHomeRoute.NEW_PLAYER_ATTR, true);
+    home = new ModelAndView(homeVm, GetHomeRoute.VIEW_NAME);
+
+    final Map<String, Object> gameVm = new HashMap<>();
+    gameVm.put(GetHomeRoute.TITLE_ATTR, GetGameRoute.TITLE);
+    gameVm.put(GetGameRoute.GAME_BEGINS_ATTR, false);
+    gameVm.put(GetGameRoute.GUESSES_LEFT_ATTR, 2);
+    gameVm.put(GetGameRoute.HIGHEST_NUMBER_ATTR, GameRules.CLASSIC.getHighestNumber());
+    gameVm.put(PostGuessRoute.MESSAGE_ATTR, PostGuessRoute.BAD_GUESS);
+    gameVm.put(PostGuessRoute.MESSAGE_TYPE_ATTR, PostGuessRoute.ERROR_TYPE);
+    gameForm = new ModelAndView(gameVm, GetGameRoute.VIEW_NAME);
+
+    for (ModelAndView view : new ModelAndView[] {home, gameForm}) {
+      if (!freeMarker.render(view).equals(precompiled.render(view))) {
+        throw new IllegalStateException(view.getViewName() + " renders differently");
+      }
+    }
+  }
+
+  @Benchmark
+  public String freeMarkerHome() {
+    return freeMarker.render(home);
+  }
+
+  @Benchmark
+  public String precompiledHome() {
+    return precompiled.render(home);
+  }
+
+  @Benchmark
+  public String freeMarkerGameForm() {
+    return freeMarker.render(gameForm);
+  }
+
+  @Benchmark
+  public String precompiledGameForm() {
+    return precompiled.render(gameForm);
+  }
+}
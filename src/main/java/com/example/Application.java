@@ -1,14 +1,37 @@
 package com.example;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
+import spark.Spark;
 import spark.TemplateEngine;
 import spark.template.freemarker.FreeMarkerEngine;
 
+import com.example.appl.ClusterStatistics;
 import com.example.appl.GameCenter;
+import com.example.appl.MappedStatisticsLog;
+import com.example.appl.SessionReaper;
+import com.example.appl.StatisticsGossip;
+import com.example.appl.StatisticsStore;
+import com.example.appl.TransientStatisticsStore;
+import com.example.model.GameRules;
+import com.example.model.NumberSource;
+import com.example.model.SecureNumberSource;
+import com.example.ui.AdmissionControl;
+import com.example.ui.HttpPlayerSessionStore;
+import com.example.ui.PlayerSessionStore;
+import com.example.ui.PrecompiledTemplateEngine;
+import com.example.ui.ServerExecution;
+import com.example.ui.TokenPlayerSessionStore;
 import com.example.ui.WebServer;
 
 /**
@@ -19,6 +42,109 @@ import com.example.ui.WebServer;
 public final class Application {
   private static final Logger LOG = Logger.getLogger(Application.class.getName());
 
+  //
+  // Constants
+  //
+
+  /**
+   * System property holding the longest time, in milliseconds, the sitewide stats
+   * message may be served without checking for newer games. Defaults to zero.
+   */
+  public static final String STATS_MAX_STALENESS_PROPERTY = "guessing.stats.maxStalenessMillis";
+
+  /**
+   * System property naming the file the sitewide statistics are kept in across
+   * restarts. When it is not set the statistics start from zero with every run.
+   */
+  public static final String STATS_FILE_PROPERTY = "guessing.stats.file";
+
+  /**
+   * System properties tuning how the statistics log is written; see {@link MappedStatisticsLog}.
+   */
+  public static final String STATS_FSYNC_PROPERTY = "guessing.stats.fsync";
+  public static final String STATS_FLUSH_INTERVAL_PROPERTY = "guessing.stats.flushIntervalMillis";
+  public static final String STATS_FSYNC_INTERVAL_PROPERTY = "guessing.stats.fsyncIntervalMillis";
+
+  /**
+   * System property naming a directory shared by every node of a cluster, through
+   * which the nodes merge their sitewide statistics. When it is not set the node
+   * reports only its own games.
+   */
+  public static final String CLUSTER_DIR_PROPERTY = "guessing.cluster.dir";
+
+  /**
+   * System property holding this node's id in the cluster; it must not change
+   * across restarts. Defaults to the host name and server port. The other nodes
+   * keep the larger counts of an id, so a node in a cluster must also keep its
+   * counts in a {@link #STATS_FILE_PROPERTY statistics file}: starting again
+   * from zero, its games would be ignored until it caught up with its last run.
+   */
+  public static final String CLUSTER_NODE_ID_PROPERTY = "guessing.cluster.nodeId";
+
+  /**
+   * System property holding the time, in milliseconds, between merges with the cluster.
+   */
+  public static final String CLUSTER_INTERVAL_PROPERTY = "guessing.cluster.intervalMillis";
+
+  /**
+   * System properties holding the rules of every new game; see {@link GameRules}.
+   * They default to the classic game: a number from zero to nine, three guesses
+   * and no hints. Servers that share {@code token} sessions must use the same rules.
+   */
+  public static final String GAME_UPPER_BOUND_PROPERTY = "guessing.game.upperBound";
+  public static final String GAME_GUESSES_PROPERTY = "guessing.game.guesses";
+  public static final String GAME_HINTS_PROPERTY = "guessing.game.hints";
+
+  /**
+   * System property selecting where the numbers to guess are drawn from:
+   * {@code threadLocal} (the default), a generator per thread, or {@code secure},
+   * numbers players cannot predict; see {@link NumberSource}.
+   */
+  public static final String GAME_NUMBERS_PROPERTY = "guessing.game.numbers";
+
+  /**
+   * System property holding the HTTP port. Defaults to Spark's port, 4567.
+   */
+  public static final String SERVER_PORT_PROPERTY = "guessing.server.port";
+
+  /**
+   * System property selecting the template engine: {@code freemarker} (the default)
+   * or {@code precompiled}.
+   */
+  public static final String TEMPLATE_ENGINE_PROPERTY = "guessing.templateEngine";
+
+  /**
+   * System properties selecting how request handlers are run; see {@link ServerExecution}.
+   */
+  public static final String SERVER_MODE_PROPERTY = "guessing.server.mode";
+  public static final String SERVER_MAX_THREADS_PROPERTY = "guessing.server.maxThreads";
+  public static final String SERVER_MIN_THREADS_PROPERTY = "guessing.server.minThreads";
+  public static final String SERVER_IDLE_TIMEOUT_PROPERTY = "guessing.server.idleTimeoutMillis";
+  public static final String SERVER_QUEUE_CAPACITY_PROPERTY = "guessing.server.queueCapacity";
+
+  /**
+   * System properties holding the limits of {@link AdmissionControl}: the requests
+   * per second and the burst each client may make on the game routes (a rate of
+   * zero turns it off), the number of clients tracked, and the largest number of
+   * requests in progress (zero for no limit).
+   */
+  public static final String LIMIT_REQUESTS_PER_SECOND_PROPERTY = "guessing.limit.requestsPerSecond";
+  public static final String LIMIT_BURST_PROPERTY = "guessing.limit.burst";
+  public static final String LIMIT_MAX_CLIENTS_PROPERTY = "guessing.limit.maxClients";
+  public static final String LIMIT_MAX_CONCURRENT_PROPERTY = "guessing.limit.maxConcurrent";
+
+  /**
+   * System property selecting where players are kept between requests: {@code server}
+   * (the default) in the HTTP session, or {@code token} in an encrypted cookie.
+   */
+  public static final String SESSION_MODE_PROPERTY = "guessing.session.mode";
+
+  /**
+   * System property holding the Base64 AES key that {@code token} sessions are
+   * sealed with. Every server behind the same site must be given the same key.
+   */
+  public static final String SESSION_TOKEN_KEY_PROPERTY = "guessing.session.tokenKey";
+
   //
   // Application Launch method
   //
@@ -40,29 +166,78 @@ public final class Application {
       ClassLoader classLoader = Application.class.getClassLoader();
       final InputStream logConfig = classLoader.getResourceAsStream("log.properties");
       LogManager.getLogManager().readConfiguration(logConfig);
+      // added here rather than listed in log.properties, which only sees the system class path
+      final Logger root = Logger.getLogger("");
+      if (root.getHandlers().length == 0) {
+        root.addHandler(new AsyncLogHandler());
+      }
     } catch (Exception e) {
       e.printStackTrace();
       System.err.println("Could not initialize log manager because: " + e.getMessage());
     }
 
+    // create the reaper that ends the sessions of idle players
+    final SessionReaper sessionReaper = new SessionReaper();
+    sessionReaper.start();
+
+    final int port = Integer.getInteger(SERVER_PORT_PROPERTY, 4567);
+
+    // continue the statistics of earlier runs when they are kept in a log
+    final String statsFile = System.getProperty(STATS_FILE_PROPERTY);
+    final String clusterDir = System.getProperty(CLUSTER_DIR_PROPERTY);
+    if (clusterDir != null && statsFile == null) {
+      throw new IllegalArgumentException(
+          "A node in a cluster must keep its statistics in " + STATS_FILE_PROPERTY);
+    }
+    final StatisticsStore statisticsStore;
+    if (statsFile == null) {
+      statisticsStore = new TransientStatisticsStore();
+    } else {
+      final MappedStatisticsLog statisticsLog = openStatisticsLog(statsFile);
+      statisticsLog.start();
+      Runtime.getRuntime().addShutdownHook(new Thread(statisticsLog::close, "statistics-log-close"));
+      statisticsStore = statisticsLog;
+    }
+
     // create the one and only game center
-    final GameCenter gameCenter = new GameCenter();
+    final String nodeId = System.getProperty(CLUSTER_NODE_ID_PROPERTY, defaultNodeId(port));
+    final ClusterStatistics cluster = new ClusterStatistics(nodeId);
+    final GameCenter gameCenter = new GameCenter(new GameCenter.Settings()
+        .maxStalenessMillis(Long.getLong(STATS_MAX_STALENESS_PROPERTY, 0))
+        .sessionReaper(sessionReaper)
+        .statisticsStore(statisticsStore)
+        .cluster(cluster)
+        .rules(createGameRules())
+        .numbers(createNumberSource(System.getProperty(GAME_NUMBERS_PROPERTY, "threadLocal"))));
+
+    // merge the statistics of the other nodes when running in a cluster
+    if (clusterDir != null) {
+      new StatisticsGossip(cluster, gameCenter::getLocalGameStats, Paths.get(clusterDir),
+          Long.getLong(CLUSTER_INTERVAL_PROPERTY, StatisticsGossip.DEFAULT_INTERVAL_MILLIS)).start();
+    }
 
     // The application uses FreeMarker templates to generate the HTML
     // responses sent back to the client. This will be the engine processing
-    // the templates and associated data.
-    final TemplateEngine templateEngine = new FreeMarkerEngine();
+    // the templates and associated data, unless the precompiled views that
+    // produce the same HTML without FreeMarker have been selected.
+    final TemplateEngine templateEngine = createTemplateEngine(
+        System.getProperty(TEMPLATE_ENGINE_PROPERTY, "freemarker"));
 
     // inject the game center and freemarker engine into web server
     // This is an example of the Dependency inversion principle where the
     // GameCenter and WebServer dependencies are injected into the object.
-    final WebServer webServer = new WebServer(gameCenter, templateEngine);
+    final WebServer webServer = new WebServer(gameCenter, templateEngine, createServerExecution(),
+        createPlayerSessionStore(gameCenter, System.getProperty(SESSION_MODE_PROPERTY, "server")),
+        createAdmissionControl());
 
     // inject web server into application
     // This is an example of the Dependency inversion principle where the
     // WebServer dependency is injected into the object.
     final Application app = new Application(webServer);
 
+    // listen on the configured port
+    Spark.port(port);
+
     // start the application up
     app.initialize();
   }
@@ -88,6 +263,92 @@ public final class Application {
   // Private methods
   //
 
+  private static String defaultNodeId(final int port) {
+    try {
+      return InetAddress.getLocalHost().getHostName() + '-' + port;
+    } catch (UnknownHostException e) {
+      return "localhost-" + port;
+    }
+  }
+
+  private static MappedStatisticsLog openStatisticsLog(final String file) {
+    final MappedStatisticsLog.FsyncPolicy fsyncPolicy = MappedStatisticsLog.FsyncPolicy.valueOf(
+        System.getProperty(STATS_FSYNC_PROPERTY, "periodic").toUpperCase(Locale.ROOT));
+    try {
+      return new MappedStatisticsLog(Paths.get(file), fsyncPolicy,
+          Long.getLong(STATS_FLUSH_INTERVAL_PROPERTY, MappedStatisticsLog.DEFAULT_FLUSH_INTERVAL_MILLIS),
+          Long.getLong(STATS_FSYNC_INTERVAL_PROPERTY, MappedStatisticsLog.DEFAULT_FSYNC_INTERVAL_MILLIS));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open the statistics log " + file, e);
+    }
+  }
+
+  private static GameRules createGameRules() {
+    final GameRules classic = GameRules.CLASSIC;
+    final GameRules rules = GameRules.of(
+        Integer.getInteger(GAME_UPPER_BOUND_PROPERTY, classic.getUpperBound()),
+        Integer.getInteger(GAME_GUESSES_PROPERTY, classic.getGuesses()),
+        Boolean.parseBoolean(System.getProperty(GAME_HINTS_PROPERTY, Boolean.toString(classic.hasHints()))));
+    LOG.config("Game rules: " + rules);
+    return rules;
+  }
+
+  private static NumberSource createNumberSource(final String name) {
+    switch (name) {
+      case "threadLocal":
+        return NumberSource.THREAD_LOCAL;
+      case "secure":
+        return new SecureNumberSource();
+      default:
+        throw new IllegalArgumentException("Unknown number source " + name);
+    }
+  }
+
+  private static AdmissionControl createAdmissionControl() {
+    return new AdmissionControl(
+        Integer.getInteger(LIMIT_REQUESTS_PER_SECOND_PROPERTY, AdmissionControl.DEFAULT_REQUESTS_PER_SECOND),
+        Integer.getInteger(LIMIT_BURST_PROPERTY, AdmissionControl.DEFAULT_BURST),
+        Integer.getInteger(LIMIT_MAX_CLIENTS_PROPERTY, AdmissionControl.DEFAULT_MAX_CLIENTS),
+        Integer.getInteger(LIMIT_MAX_CONCURRENT_PROPERTY, AdmissionControl.DEFAULT_MAX_CONCURRENT));
+  }
+
+  private static ServerExecution createServerExecution() {
+    final ServerExecution.Mode mode = ServerExecution.Mode.valueOf(
+        System.getProperty(SERVER_MODE_PROPERTY, "pooled").toUpperCase(Locale.ROOT));
+    return new ServerExecution(mode,
+        Integer.getInteger(SERVER_MAX_THREADS_PROPERTY, ServerExecution.DEFAULT_MAX_THREADS),
+        Integer.getInteger(SERVER_MIN_THREADS_PROPERTY, ServerExecution.DEFAULT_MIN_THREADS),
+        Integer.getInteger(SERVER_IDLE_TIMEOUT_PROPERTY, ServerExecution.DEFAULT_IDLE_TIMEOUT_MILLIS),
+        Integer.getInteger(SERVER_QUEUE_CAPACITY_PROPERTY, ServerExecution.DEFAULT_QUEUE_CAPACITY));
+  }
+
+  private static PlayerSessionStore createPlayerSessionStore(final GameCenter gameCenter, final String mode) {
+    switch (mode) {
+      case "server":
+        return new HttpPlayerSessionStore(gameCenter);
+      case "token":
+        final String key = System.getProperty(SESSION_TOKEN_KEY_PROPERTY);
+        if (key == null) {
+          LOG.warning("No " + SESSION_TOKEN_KEY_PROPERTY + " given; player cookies will not outlive this server.");
+          return new TokenPlayerSessionStore(gameCenter, TokenPlayerSessionStore.randomKey());
+        }
+        return new TokenPlayerSessionStore(gameCenter, Base64.getDecoder().decode(key));
+      default:
+        throw new IllegalArgumentException("Unknown session mode " + mode);
+    }
+  }
+
+  private static TemplateEngine createTemplateEngine(final String name) {
+    switch (name) {
+      case "freemarker":
+        return new FreeMarkerEngine();
+      case "precompiled":
+        return new PrecompiledTemplateEngine();
+      default:
+        throw new IllegalArgumentException("Unknown template engine " + name);
+    }
+  }
+
   private void initialize() {
     LOG.config("Application is initializing.");
 
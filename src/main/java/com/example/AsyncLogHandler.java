@@ -0,0 +1,259 @@
+package com.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * A {@link Handler} that takes formatting and output off the threads that log.
+ *
+ * <p>
+ * Publishing a record claims a slot in a bounded ring with one compare-and-set
+ * and stores the record in it; no lock is taken and nothing is formatted. A
+ * single daemon thread takes the records in order, formats them and writes them
+ * through a buffer that is flushed whenever the ring runs empty. When the ring
+ * is full the record is dropped rather than making a request wait on the log,
+ * and the number dropped is written once there is room again.
+ * </p>
+ *
+ * <p>
+ * Configured from the {@link LogManager} properties, like {@code ConsoleHandler}:
+ * </p>
+ * <ul>
+ *   <li>{@code com.example.AsyncLogHandler.level}: the lowest level written; defaults to {@code ALL}</li>
+ *   <li>{@code com.example.AsyncLogHandler.formatter}: the {@link Formatter} class; defaults to {@link SimpleFormatter}</li>
+ *   <li>{@code com.example.AsyncLogHandler.capacity}: the records the ring holds, rounded up to a power of two; defaults to 8192</li>
+ * </ul>
+ * <p>
+ * A handler created from those properties writes to {@code System.err}.
+ * </p>
+ */
+public class AsyncLogHandler extends Handler {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default number of records the ring holds.
+   */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  // How long the writer sleeps when the ring is empty if no one wakes it.
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  //
+  // Attributes
+  //
+
+  private final AtomicReferenceArray<LogRecord> ring;
+  private final int mask;
+  // The next position producers claim; only advanced by compare-and-set.
+  private final AtomicLong tail = new AtomicLong();
+  // The next position the writer takes; only written by the writer thread.
+  private volatile long head = 0;
+  // Records that found the ring full, and how many of those have been reported.
+  private final AtomicLong dropped = new AtomicLong();
+  private long droppedReported = 0;
+
+  private final Writer out;
+  private final Thread writer;
+  // Set by the writer before it parks so that producers know to wake it.
+  private volatile boolean writerWaiting = false;
+  private volatile boolean closed = false;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create the handler from the {@link LogManager} properties, writing to {@code System.err}.
+   */
+  public AsyncLogHandler() {
+    this(System.err, capacityProperty());
+    final LogManager manager = LogManager.getLogManager();
+    final String prefix = AsyncLogHandler.class.getName();
+    final String level = manager.getProperty(prefix + ".level");
+    setLevel(level == null ? Level.ALL : Level.parse(level.trim()));
+    setFormatter(formatterProperty(manager.getProperty(prefix + ".formatter")));
+  }
+
+  /**
+   * Create the handler.
+   *
+   * @param stream
+   *    The stream the records are written to, in UTF-8.
+   * @param capacity
+   *    The minimum number of records the ring holds; rounded up to a power of two.
+   *
+   * @throws NullPointerException
+   *    when the {@code stream} parameter is null
+   * @throws IllegalArgumentException
+   *    when {@code capacity} is not positive
+   */
+  public AsyncLogHandler(final OutputStream stream, final int capacity) {
+    // validation
+    Objects.requireNonNull(stream, "stream must not be null");
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    //
+    final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.ring = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    setFormatter(new SimpleFormatter());
+    this.writer = new Thread(this::drain, "async-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  //
+  // Handler methods
+  //
+
+  /**
+   * Queue a record for the writer thread. Drops it if the ring is full.
+   */
+  @Override
+  public void publish(final LogRecord record) {
+    if (closed || !isLoggable(record)) {
+      return;
+    }
+    long position;
+    do {
+      position = tail.get();
+      if (position - head >= ring.length()) {
+        dropped.incrementAndGet();
+        return;
+      }
+    } while (!tail.compareAndSet(position, position + 1));
+    ring.set((int) position & mask, record);
+    if (writerWaiting) {
+      LockSupport.unpark(writer);
+    }
+  }
+
+  /**
+   * Wake the writer; it flushes its buffer whenever it has written every queued record.
+   */
+  @Override
+  public void flush() {
+    LockSupport.unpark(writer);
+  }
+
+  /**
+   * Stop taking records, and wait for the writer to write those already queued.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * The writer thread: take records in order until closed and empty.
+   */
+  private void drain() {
+    while (true) {
+      final long position = head;
+      final int index = (int) position & mask;
+      final LogRecord record = ring.get(index);
+      if (record != null) {
+        // free the slot before moving on, so a producer that sees the new head finds it empty
+        ring.set(index, null);
+        head = position + 1;
+        write(record);
+        continue;
+      }
+      reportDropped();
+      flushBuffer();
+      // a producer may have claimed this position but not yet stored its record
+      if (closed && tail.get() == position) {
+        return;
+      }
+      writerWaiting = true;
+      if (ring.get(index) == null && !closed) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+      writerWaiting = false;
+    }
+  }
+
+  private void write(final LogRecord record) {
+    final String text;
+    try {
+      text = getFormatter().format(record);
+    } catch (RuntimeException e) {
+      reportError(null, e, ErrorManager.FORMAT_FAILURE);
+      return;
+    }
+    try {
+      out.write(text);
+    } catch (IOException e) {
+      reportError(null, e, ErrorManager.WRITE_FAILURE);
+    }
+  }
+
+  private void reportDropped() {
+    final long total = dropped.get();
+    if (total != droppedReported) {
+      final LogRecord record = new LogRecord(Level.WARNING,
+          "Dropped " + (total - droppedReported) + " log records because the log queue was full.");
+      record.setLoggerName(AsyncLogHandler.class.getName());
+      droppedReported = total;
+      write(record);
+    }
+  }
+
+  private void flushBuffer() {
+    try {
+      out.flush();
+    } catch (IOException e) {
+      reportError(null, e, ErrorManager.FLUSH_FAILURE);
+    }
+  }
+
+  private static int capacityProperty() {
+    final String capacity = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".capacity");
+    return capacity == null ? DEFAULT_CAPACITY : Integer.parseInt(capacity.trim());
+  }
+
+  private static Formatter formatterProperty(final String className) {
+    if (className == null) {
+      return new SimpleFormatter();
+    }
+    try {
+      return (Formatter) Class.forName(className.trim()).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalArgumentException("Could not create the log formatter " + className, e);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.example;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Formats each record as one line of {@code key=value} pairs, so that game
+ * events can be filtered and counted by field:
+ *
+ * <pre>
+ *   time=2018-03-07T15:11:02.117Z level=FINE logger=com.example.model.GuessGame event=game_created secret=4
+ * </pre>
+ *
+ * <p>
+ * A message that starts with {@code event=} is taken to be made of such pairs
+ * already and is written as it is. Any other message is quoted as {@code msg},
+ * and a thrown exception follows as {@code error} with its stack trace.
+ * </p>
+ */
+public class LogfmtFormatter extends Formatter {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The start of a message that is already made of {@code key=value} pairs.
+   */
+  public static final String EVENT_PREFIX = "event=";
+
+  //
+  // Formatter methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String format(final LogRecord record) {
+    final StringBuilder line = new StringBuilder(160)
+        .append("time=").append(Instant.ofEpochMilli(record.getMillis()))
+        .append(" level=").append(record.getLevel().getName())
+        .append(" logger=").append(record.getLoggerName())
+        .append(' ');
+    final String message = formatMessage(record);
+    if (message != null && message.startsWith(EVENT_PREFIX)) {
+      line.append(message);
+    } else {
+      quoted(line.append("msg="), message);
+    }
+    if (record.getThrown() != null) {
+      final StringWriter trace = new StringWriter();
+      record.getThrown().printStackTrace(new PrintWriter(trace));
+      quoted(line.append(" error="), trace.toString());
+    }
+    return line.append(System.lineSeparator()).toString();
+  }
+
+  //
+  // Private methods
+  //
+
+  private static void quoted(final StringBuilder line, final String value) {
+    line.append('"');
+    if (value != null) {
+      for (int i = 0; i < value.length(); i++) {
+        final char c = value.charAt(i);
+        switch (c) {
+          case '"':
+          case '\\':
+            line.append('\\').append(c);
+            break;
+          case '\n':
+            line.append("\\n");
+            break;
+          case '\r':
+            break;
+          case '\t':
+            line.append("\\t");
+            break;
+          default:
+            line.append(c);
+        }
+      }
+    }
+    line.append('"');
+  }
+}
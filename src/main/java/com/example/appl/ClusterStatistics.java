@@ -0,0 +1,147 @@
+package com.example.appl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * What this node knows of the sitewide statistics of the other nodes of a cluster.
+ *
+ * <p>
+ * The statistics of the cluster form a grow-only counter: every node only ever
+ * adds to its own games and wins, so the totals of a node seen at two times can
+ * be merged by taking the larger of each, in any order and any number of times,
+ * and all nodes that have seen the same counts agree on the totals. The counts
+ * of a node that leaves the cluster are kept, so the totals never go down.
+ * </p>
+ *
+ * <p>
+ * This node's own counts are not held here; the {@link GameCenter} adds its
+ * local statistics to {@link #remoteTotals()}.
+ * </p>
+ */
+public class ClusterStatistics {
+
+  //
+  // Attributes
+  //
+
+  private final String nodeId;
+  // The largest counts seen for each other node; only replaced while holding this.
+  private volatile Map<String, SiteStatistics.Snapshot> remoteCounts = Collections.emptyMap();
+  // The sum of remoteCounts, kept so that readers need not add them up.
+  private volatile SiteStatistics.Snapshot remoteTotals = new SiteStatistics.Snapshot(0, 0);
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create the statistics of a node that has not yet heard from any other.
+   *
+   * @param nodeId
+   *    The id of this node. It must stay the same when the node is restarted with
+   *    the statistics it had before, or its games would be counted twice.
+   *
+   * @throws NullPointerException
+   *    when the {@code nodeId} parameter is null
+   */
+  public ClusterStatistics(final String nodeId) {
+    // validation
+    Objects.requireNonNull(nodeId, "nodeId must not be null");
+    //
+    this.nodeId = nodeId;
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * @return the id of this node
+   */
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  /**
+   * Get the totals of every other node.
+   *
+   * @return the sum of the largest counts seen for each other node
+   */
+  public SiteStatistics.Snapshot remoteTotals() {
+    return remoteTotals;
+  }
+
+  /**
+   * Get the counts of every node, to be sent to the others.
+   *
+   * @param local
+   *    The counts of this node.
+   *
+   * @return the counts of every node known, by node id
+   */
+  public Map<String, SiteStatistics.Snapshot> counts(final SiteStatistics.Snapshot local) {
+    final Map<String, SiteStatistics.Snapshot> counts = new HashMap<>(remoteCounts);
+    counts.put(nodeId, local);
+    return counts;
+  }
+
+  /**
+   * Merge the counts received from another node. Counts for this node are ignored;
+   * this node always knows its own counts best.
+   *
+   * @param received
+   *    Counts by node id.
+   *
+   * @return true if any count grew
+   */
+  public synchronized boolean merge(final Map<String, SiteStatistics.Snapshot> received) {
+    Map<String, SiteStatistics.Snapshot> merged = null;
+    for (Map.Entry<String, SiteStatistics.Snapshot> entry : received.entrySet()) {
+      if (nodeId.equals(entry.getKey())) {
+        continue;
+      }
+      final SiteStatistics.Snapshot known = remoteCounts.get(entry.getKey());
+      final SiteStatistics.Snapshot larger = max(known, entry.getValue());
+      if (larger != known) {
+        if (merged == null) {
+          merged = new HashMap<>(remoteCounts);
+        }
+        merged.put(entry.getKey(), larger);
+      }
+    }
+    if (merged == null) {
+      return false;
+    }
+    long games = 0;
+    long wins = 0;
+    for (SiteStatistics.Snapshot counts : merged.values()) {
+      games += counts.getTotalGames();
+      wins += counts.getGamesWon();
+    }
+    remoteCounts = Collections.unmodifiableMap(merged);
+    remoteTotals = new SiteStatistics.Snapshot(games, wins);
+    return true;
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Take the larger of each count; returns {@code known} itself when nothing grew.
+   */
+  private static SiteStatistics.Snapshot max(final SiteStatistics.Snapshot known,
+                                             final SiteStatistics.Snapshot received) {
+    if (known == null) {
+      return received;
+    }
+    if (received.getTotalGames() <= known.getTotalGames() && received.getGamesWon() <= known.getGamesWon()) {
+      return known;
+    }
+    return new SiteStatistics.Snapshot(Math.max(known.getTotalGames(), received.getTotalGames()),
+        Math.max(known.getGamesWon(), received.getGamesWon()));
+  }
+}
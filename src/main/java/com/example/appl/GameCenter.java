@@ -1,8 +1,18 @@
 package com.example.appl;
 
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
+import com.example.model.GameRules;
 import com.example.model.GuessGame;
+import com.example.model.NumberSource;
+import com.example.model.GuessGame.GuessResult;
 
 /**
  * The object to coordinate the state of the Web Application and keep sitewide statistics.
@@ -24,41 +34,210 @@ public class GameCenter {
   public final static String ONE_GAME_MESSAGE = "One game has been played so far. Players have won %s of games.";
   public final static String GAMES_PLAYED_FORMAT = "There have been %d games played. Players have won %s of those games.";
 
+  public final static String RECENT_GAMES_FORMAT = " In the last minute, hour and day: %d, %d and %d %s, of which players won %s, %s and %s.";
+  public final static String NO_RECENT_WINS = "none";
+
+  public final static String RANK_FORMAT = "You are ranked %d of %d %s.";
+
+  // The number of random bytes in a player id.
+  private static final int PLAYER_ID_BYTES = 16;
+  // The number of games whose progress is remembered, so that no guess is made twice.
+  private static final int PLAYED_GAMES = 1 << 15;
+
   //
   // Attributes
   //
 
-  private int totalGames = 0;
-  private int gamesWon = 0;
+  // Sitewide win/loss counters; updated without locking.
+  private final SiteStatistics statistics;
+  // Keeps the counters beyond this run.
+  private final StatisticsStore statisticsStore;
+  // The counters of the other nodes of the cluster.
+  private final ClusterStatistics cluster;
+  // The games, wins and guesses of the last minute, hour and day on this node.
+  private final RollingStatistics recent = new RollingStatistics();
+  // The guesses made on this node, by result ordinal.
+  private final LongAdder[] guessResults = new LongAdder[GuessResult.values().length];
+
+  // The rules every new game is played by.
+  private final GameRules rules;
+  // Draws the number of every new game.
+  private final NumberSource numbers;
+  // One game per thread that players load their game into and start new games in, so that
+  // playing makes no garbage. It starts as a packed zero: the classic game with no guesses
+  // left, which is never played before it is loaded or reset. This pays off on pooled
+  // threads, which serve many requests each; a thread per request, as the virtual server
+  // mode runs, creates a game on its first request and saves nothing.
+  private final ThreadLocal<GuessGame> workingGames = ThreadLocal.withInitial(() -> GuessGame.fromPackedState(0));
+  // Keeps the game each player has in progress.
+  private final GameStore gameStore;
+  // Ends the sessions of idle players.
+  private final SessionReaper sessionReaper;
+  // How far the games played lately have got, so that no guess is made twice.
+  private final PlayedGames playedGames = new PlayedGames(PLAYED_GAMES);
+  // Ranks the players whose sessions are live.
+  private final Leaderboard leaderboard = new Leaderboard();
+  // Players that can be addressed by id; only those that have asked for an id.
+  private final Map<String, PlayerServices> playersById = new ConcurrentHashMap<>();
+  private final SecureRandom idGenerator = new SecureRandom();
+
+  // How long, in nanoseconds, a formatted stats message may be served without checking the counters.
+  private final long maxStalenessNanos;
+  // The last formatted stats message, and the statistics version and second it was built from.
+  private volatile StatsMessage statsMessage = new StatsMessage(0, 0, NO_GAMES_MESSAGE, System.nanoTime());
 
   //
   // Constructors
   //
 
+  /**
+   * Create a game center with the default {@link Settings}: its stats message
+   * always reflects the latest finished game, and it has its own running
+   * {@link SessionReaper} using the default session timeout.
+   */
+  public GameCenter() {
+    this(new Settings());
+  }
+
+  /**
+   * Create a game center.
+   *
+   * @param settings
+   *    The {@link Settings} of the game center; they are read here, and changing
+   *    them afterwards does not change the game center.
+   *
+   * @throws NullPointerException
+   *    when the {@code settings} parameter is null
+   */
+  public GameCenter(final Settings settings) {
+    // validation
+    Objects.requireNonNull(settings, "settings must not be null");
+    //
+    this.rules = settings.rules;
+    this.numbers = settings.numbers;
+    this.gameStore = settings.gameStore != null ? settings.gameStore : new SlabGameStore();
+    this.sessionReaper = settings.sessionReaper != null ? settings.sessionReaper : startedReaper();
+    this.statisticsStore = settings.statisticsStore != null ? settings.statisticsStore : new TransientStatisticsStore();
+    this.cluster = settings.cluster != null ? settings.cluster : new ClusterStatistics("local");
+    this.statistics = new SiteStatistics(statisticsStore.recover());
+    this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(settings.maxStalenessMillis);
+    for (int i = 0; i < guessResults.length; i++) {
+      guessResults[i] = new LongAdder();
+    }
+  }
+
   //
   // Public methods
   //
 
   /**
    * Get a new {@Linkplain PlayerServices} object to provide client-specific services to
-   * the client who just connected to this application.
+   * the client who just connected to this application. The player's session ends
+   * after it has been idle for the {@link SessionReaper} timeout.
    *
    * @return
    *   A new {@Link PlayerServices}
    */
   public PlayerServices newPlayerServices() {
-    LOG.fine("New player services instance created.");
-    return new PlayerServices(this);
+    LOG.fine("event=player_created");
+    final PlayerServices playerServices = new PlayerServices(this, gameStore);
+    sessionReaper.register(playerServices);
+    return playerServices;
+  }
+
+  /**
+   * Get a {@Linkplain PlayerServices} object for a player whose state is kept by
+   * the client rather than by this application. The player holds only the game
+   * given, is not watched for inactivity, cannot be found by id and is not put
+   * on the leaderboard; it lives for one request.
+   *
+   * <p>
+   * As the client keeps the state, it can send an earlier one again. A game
+   * that has made more guesses on this node than the copy given, which includes
+   * a game that has finished, is therefore dropped, and the player is restored
+   * without a game: a guess cannot be taken back by sending the game from
+   * before it.
+   * </p>
+   *
+   * @param game
+   *   The player's game in progress, or null if none.
+   * @param gameId
+   *   The id of the game, as returned by {@link PlayerServices#getGameId()}; ignored
+   *   when there is no game.
+   * @param stats
+   *   The player's statistics so far.
+   *
+   * @return
+   *   A new {@link PlayerServices} for the player
+   */
+  public PlayerServices restorePlayer(final GuessGame game, final long gameId, final PlayerStatistics stats) {
+    final GuessGame playable = game == null
+        || playedGames.isBehind(gameId, game.getRules().getGuesses() - game.guessesLeft()) ? null : game;
+    return new PlayerServices(this, new SingleGameStore(playable), SingleGameStore.SLOT, gameId, stats, false);
+  }
+
+  /**
+   * Find a player by the id returned from {@link PlayerServices#getId()}.
+   *
+   * @param id
+   *   The player's id.
+   *
+   * @return
+   *   The {@link PlayerServices} for the player, or null if there is no such
+   *   player or its session has ended.
+   */
+  public PlayerServices findPlayer(final String id) {
+    return playersById.get(id);
   }
 
   /**
-   * Create a new {@Linkplain GuessGame} game.
+   * Get the rules every new game is played by.
+   *
+   * @return
+   *   The {@link GameRules} of new games
+   */
+  public GameRules getRules() {
+    return rules;
+  }
+
+  /**
+   * Create a new {@Linkplain GuessGame} game, played by this game center's rules.
    *
    * @return
    *   A new {@link GuessGame}
    */
   public GuessGame getGame() {
-    return new GuessGame();
+    return new GuessGame(rules, numbers);
+  }
+
+  /**
+   * Get the number of players that hold a game slot.
+   *
+   * @return
+   *   The number of players in the {@link GameStore}.
+   */
+  public int getActivePlayers() {
+    return gameStore.size();
+  }
+
+  /**
+   * Get the number of player sessions that have not yet ended.
+   *
+   * @return
+   *   The number of live sessions watched by the {@link SessionReaper}.
+   */
+  public long getLiveSessions() {
+    return sessionReaper.getLiveSessions();
+  }
+
+  /**
+   * Get the number of player sessions ended because the player was idle.
+   *
+   * @return
+   *   The number of sessions expired by the {@link SessionReaper}.
+   */
+  public long getExpiredSessions() {
+    return sessionReaper.getExpiredSessions();
   }
 
   /**
@@ -66,21 +245,210 @@ public class GameCenter {
    */
   public void gameFinished(boolean result) {
     // do some application-wide book-keeping
-    synchronized (this) {  // protect the critical code
-      totalGames++;
-      if(result){
-        gamesWon++;
-      }
-    }
+    statistics.gameFinished(result);
+    statisticsStore.gameFinished(result);
+  }
+
+  /**
+   * Get the version of the sitewide statistics. The version changes every time a
+   * game is finished, here or on another node of the cluster, so it identifies
+   * the current stats message.
+   *
+   * @return
+   *   The current statistics version.
+   */
+  public long getGameStatsVersion() {
+    return statistics.version() + cluster.remoteTotals().getTotalGames();
+  }
+
+  /**
+   * Get the sitewide statistics of the whole cluster.
+   *
+   * @return
+   *   A consistent snapshot of the games played and won.
+   */
+  public SiteStatistics.Snapshot getGameStats() {
+    final SiteStatistics.Snapshot local = statistics.snapshot();
+    final SiteStatistics.Snapshot remote = cluster.remoteTotals();
+    return new SiteStatistics.Snapshot(local.getTotalGames() + remote.getTotalGames(),
+        local.getGamesWon() + remote.getGamesWon());
   }
 
   /**
-   * Get a user message about the sitewide statistics.
+   * Get the statistics of the games finished on this node only.
+   *
+   * @return
+   *   A consistent snapshot of the games played and won here.
+   */
+  public SiteStatistics.Snapshot getLocalGameStats() {
+    return statistics.snapshot();
+  }
+
+  /**
+   * Get the games, wins and guesses of a recent time window on this node.
+   *
+   * @param window
+   *   The window to sum.
+   *
+   * @return
+   *   The totals of the window, and their rates per second.
+   */
+  public RollingStatistics.Totals getRecentGameStats(final RollingStatistics.Window window) {
+    return recent.totals(window);
+  }
+
+  /**
+   * Get the number of guesses made on this node with a given result.
+   *
+   * @param result
+   *   The result of the guesses to count.
+   *
+   * @return
+   *   The number of guesses, since this node started, that had the result.
+   */
+  public long getGuessCount(final GuessResult result) {
+    return guessResults[result.ordinal()].sum();
+  }
+
+  /**
+   * Get the best players whose sessions are live. The list is a snapshot that is
+   * rebuilt only when it changes, so reading it never waits for players finishing games.
+   *
+   * @return
+   *   Descriptions of up to {@value Leaderboard#TOP_SIZE} players, best first.
+   */
+  public List<String> getLeaders() {
+    return leaderboard.getTop();
+  }
+
+  /**
+   * Get a user message about the sitewide statistics, and about the games of the
+   * last minute, hour and day on this node. The message is formatted once per
+   * change to the statistics, or per second while there have been recent games,
+   * and reused until the next change.
    *
    * @return
    *   The message to the user about global game statistics.
    */
-  public synchronized String getGameStatsMessage() {
+  public String getGameStatsMessage() {
+    final StatsMessage cached = statsMessage;
+    if (maxStalenessNanos > 0 && System.nanoTime() - cached.createdNanos < maxStalenessNanos) {
+      return cached.message;
+    }
+    // the recent windows move on every second, but only matter once a game has been played
+    final long second = recent.elapsedSeconds();
+    if (cached.version == getGameStatsVersion() && (cached.version == 0 || cached.second == second)) {
+      return cached.message;
+    }
+    // read both counters from one snapshot so the percentage is consistent
+    final SiteStatistics.Snapshot snapshot = getGameStats();
+    final StatsMessage fresh = new StatsMessage(snapshot.getTotalGames(), second,
+        formatStatsMessage(snapshot.getTotalGames(), snapshot.getGamesWon()) + formatRecentGames(),
+        System.nanoTime());
+    statsMessage = fresh;
+    return fresh.message;
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Get the calling thread's working game. A player may load its game into it
+   * or start a new game in it, but must save it back before returning, and
+   * must not hand it on: the next player served by the thread reuses it.
+   */
+  GuessGame workingGame() {
+    return workingGames.get();
+  }
+
+  /**
+   * Start a game over as a new game played by this game center's rules, as
+   * {@link #getGame()} creates one.
+   */
+  void resetGame(final GuessGame game) {
+    game.reset(rules, numbers.nextNumber(rules.getUpperBound()));
+  }
+
+  /**
+   * Record that a guess of a game is being made, before it is judged.
+   *
+   * @return true if the guess may be made; false if a copy of the game has made it already
+   */
+  boolean claimGuess(final long gameId, final int guessesMade) {
+    return playedGames.claim(gameId, guessesMade);
+  }
+
+  /**
+   * Count a guess by its result, and in the recent windows.
+   */
+  void guessMade(final GuessResult result) {
+    guessResults[result.ordinal()].increment();
+    recent.guessMade(result);
+  }
+
+  /**
+   * Give a player an unguessable id by which it can be found.
+   */
+  String publishPlayer(final PlayerServices playerServices) {
+    final byte[] bytes = new byte[PLAYER_ID_BYTES];
+    String id;
+    do {
+      idGenerator.nextBytes(bytes);
+      final StringBuilder hex = new StringBuilder(PLAYER_ID_BYTES * 2);
+      for (byte b : bytes) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      id = hex.toString();
+    } while (playersById.putIfAbsent(id, playerServices) != null);
+    return id;
+  }
+
+  /**
+   * Forget the id of a player whose session has ended.
+   */
+  void unpublishPlayer(final String id) {
+    playersById.remove(id);
+  }
+
+  /**
+   * Put a player on the leaderboard with new statistics, or move it.
+   */
+  Leaderboard.Entry rankPlayer(final Leaderboard.Entry entry, final PlayerStatistics stats) {
+    return leaderboard.update(entry, stats);
+  }
+
+  /**
+   * Take a player whose session has ended off the leaderboard.
+   */
+  void unrankPlayer(final Leaderboard.Entry entry) {
+    leaderboard.leave(entry);
+  }
+
+  /**
+   * Format a player's place on the leaderboard.
+   */
+  String formatRank(final Leaderboard.Entry entry) {
+    final int rank;
+    final int players;
+    synchronized (leaderboard) {
+      rank = leaderboard.rankOf(entry);
+      players = leaderboard.size();
+    }
+    return String.format(RANK_FORMAT, rank, players, players == 1 ? "player" : "players");
+  }
+
+  //
+  // Private methods
+  //
+
+  private static SessionReaper startedReaper() {
+    final SessionReaper sessionReaper = new SessionReaper();
+    sessionReaper.start();
+    return sessionReaper;
+  }
+
+  private static String formatStatsMessage(final long totalGames, final long gamesWon) {
     if (totalGames > 1) {
       long value = Math.round(((float)gamesWon / (float)totalGames) * 100.0);
       String percent = Long.toString(value) + '%';
@@ -93,4 +461,162 @@ public class GameCenter {
       return NO_GAMES_MESSAGE;
     }
   }
+
+  /**
+   * Describe the games of the last minute, hour and day; empty if there were none.
+   */
+  private String formatRecentGames() {
+    final RollingStatistics.Totals minute = recent.totals(RollingStatistics.Window.MINUTE);
+    final RollingStatistics.Totals hour = recent.totals(RollingStatistics.Window.HOUR);
+    final RollingStatistics.Totals day = recent.totals(RollingStatistics.Window.DAY);
+    if (day.getGames() == 0) {
+      return "";
+    }
+    return String.format(RECENT_GAMES_FORMAT, minute.getGames(), hour.getGames(), day.getGames(),
+        day.getGames() == 1 ? "game" : "games", winShare(minute), winShare(hour), winShare(day));
+  }
+
+  private static String winShare(final RollingStatistics.Totals totals) {
+    if (totals.getGames() == 0) {
+      return NO_RECENT_WINS;
+    }
+    return Math.round(100.0 * totals.getWins() / totals.getGames()) + "%";
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * The settings a {@link GameCenter} is created with. Every setting has a
+   * default, so only those that differ need be set:
+   *
+   * <pre>
+   *   new GameCenter(new GameCenter.Settings()
+   *       .sessionReaper(sessionReaper)
+   *       .rules(rules));
+   * </pre>
+   */
+  public static final class Settings {
+    private long maxStalenessMillis = 0;
+    private GameStore gameStore = null;
+    private SessionReaper sessionReaper = null;
+    private StatisticsStore statisticsStore = null;
+    private ClusterStatistics cluster = null;
+    private GameRules rules = GameRules.CLASSIC;
+    private NumberSource numbers = NumberSource.THREAD_LOCAL;
+
+    /**
+     * Let the stats message lag the counters by a bounded time. A positive window
+     * lets very busy sites skip reading the counters on most requests.
+     *
+     * @param maxStalenessMillis
+     *    The longest time, in milliseconds, a stats message is served without checking
+     *    for newer games; zero, the default, checks on every request.
+     *
+     * @return these settings
+     *
+     * @throws IllegalArgumentException
+     *    when {@code maxStalenessMillis} is negative
+     */
+    public Settings maxStalenessMillis(final long maxStalenessMillis) {
+      // validation
+      if (maxStalenessMillis < 0) {
+        throw new IllegalArgumentException("maxStalenessMillis must not be negative");
+      }
+      //
+      this.maxStalenessMillis = maxStalenessMillis;
+      return this;
+    }
+
+    /**
+     * @param gameStore
+     *    The {@link GameStore} that keeps the game each player has in progress;
+     *    a {@link SlabGameStore} of the game center's own by default.
+     *
+     * @return these settings
+     */
+    public Settings gameStore(final GameStore gameStore) {
+      this.gameStore = Objects.requireNonNull(gameStore, "gameStore must not be null");
+      return this;
+    }
+
+    /**
+     * @param sessionReaper
+     *    The {@link SessionReaper} that ends the sessions of idle players; it is
+     *    started and stopped by the caller. By default the game center starts one
+     *    of its own, using the default session timeout.
+     *
+     * @return these settings
+     */
+    public Settings sessionReaper(final SessionReaper sessionReaper) {
+      this.sessionReaper = Objects.requireNonNull(sessionReaper, "sessionReaper must not be null");
+      return this;
+    }
+
+    /**
+     * @param statisticsStore
+     *    The {@link StatisticsStore} that the statistics are recovered from and
+     *    every finished game is recorded to; by default they start from zero and
+     *    are not kept.
+     *
+     * @return these settings
+     */
+    public Settings statisticsStore(final StatisticsStore statisticsStore) {
+      this.statisticsStore = Objects.requireNonNull(statisticsStore, "statisticsStore must not be null");
+      return this;
+    }
+
+    /**
+     * @param cluster
+     *    The {@link ClusterStatistics} that the other nodes' statistics are merged
+     *    into; by default the game center is a node of its own.
+     *
+     * @return these settings
+     */
+    public Settings cluster(final ClusterStatistics cluster) {
+      this.cluster = Objects.requireNonNull(cluster, "cluster must not be null");
+      return this;
+    }
+
+    /**
+     * @param rules
+     *    The {@link GameRules} of every new game; {@link GameRules#CLASSIC} by default.
+     *
+     * @return these settings
+     */
+    public Settings rules(final GameRules rules) {
+      this.rules = Objects.requireNonNull(rules, "rules must not be null");
+      return this;
+    }
+
+    /**
+     * @param numbers
+     *    The {@link NumberSource} the number of every new game is drawn from;
+     *    {@link NumberSource#THREAD_LOCAL} by default.
+     *
+     * @return these settings
+     */
+    public Settings numbers(final NumberSource numbers) {
+      this.numbers = Objects.requireNonNull(numbers, "numbers must not be null");
+      return this;
+    }
+  }
+
+  /**
+   * A formatted stats message tagged with the statistics version and the second it describes.
+   */
+  private static final class StatsMessage {
+    private final long version;
+    private final long second;
+    private final String message;
+    private final long createdNanos;
+
+    StatsMessage(final long version, final long second, final String message, final long createdNanos) {
+      this.version = version;
+      this.second = second;
+      this.message = message;
+      this.createdNanos = createdNanos;
+    }
+  }
 }
@@ -0,0 +1,78 @@
+package com.example.appl;
+
+import com.example.model.GuessGame;
+
+/**
+ * Storage for the game each player has in progress.
+ *
+ * <p>
+ * Every player owns one slot in the store. A store does not serialize access to
+ * a slot; its owner (see {@link PlayerServices}) must not load and save the same
+ * slot from two threads at once.
+ * </p>
+ */
+public interface GameStore {
+
+  /**
+   * Reserve an empty slot for a new player.
+   *
+   * @return the slot number
+   */
+  int allocate();
+
+  /**
+   * Get the game saved in a slot.
+   *
+   * @param slot
+   *    A slot returned by {@link #allocate()}.
+   *
+   * @return a {@link GuessGame} in the saved state, or null if the slot holds no game
+   */
+  GuessGame load(int slot);
+
+  /**
+   * Load the game saved in a slot into a game the caller owns, rather than
+   * creating one; see {@link GuessGame#restore(long)}.
+   *
+   * @param slot
+   *    A slot returned by {@link #allocate()}.
+   * @param game
+   *    The game to put in the saved state.
+   *
+   * @return true if the slot holds a game; otherwise the {@code game} is left as it was
+   */
+  default boolean loadInto(final int slot, final GuessGame game) {
+    final GuessGame saved = load(slot);
+    if (saved == null) {
+      return false;
+    }
+    game.restore(saved.toPackedState());
+    return true;
+  }
+
+  /**
+   * Save the state of a game into a slot. The store copies the state; it does
+   * not keep the game, which the caller may go on to reuse.
+   *
+   * @param slot
+   *    A slot returned by {@link #allocate()}.
+   * @param game
+   *    The game to save, or null to empty the slot.
+   */
+  void save(int slot, GuessGame game);
+
+  /**
+   * Give a slot back to the store; it may be handed to another player.
+   *
+   * @param slot
+   *    A slot returned by {@link #allocate()}.
+   */
+  void release(int slot);
+
+  /**
+   * Get the number of slots currently allocated.
+   *
+   * @return the number of players holding a slot
+   */
+  int size();
+}
@@ -0,0 +1,236 @@
+package com.example.appl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Ranks the players whose sessions are live by their {@link PlayerStatistics}:
+ * first by best winning streak, then by the share of games won, then by the
+ * number of games played.
+ *
+ * <p>
+ * The players are kept in a sorted set for the top of the board, and counted
+ * in a Fenwick tree indexed by streak and win rate, so that a player's rank is
+ * a prefix sum: both are updated in logarithmic time. Updates happen once per
+ * finished game and are serialized by one lock, which also keeps the set, the
+ * counts and the cached top of the board consistent with each other. Reading
+ * the top of the board takes no lock; it is a snapshot rebuilt by the writer
+ * whenever it changes.
+ * </p>
+ *
+ * <p>
+ * Players with the same streak and win rate share a rank.
+ * </p>
+ */
+public class Leaderboard {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The number of players in {@link #getTop()}.
+   */
+  public static final int TOP_SIZE = 10;
+
+  static final String STANDING_FORMAT = "Player %d: best streak %d, won %d%% of %d %s";
+
+  // win rates are counted in tenths of a percent
+  private static final int RATE_SCALE = 1000;
+  private static final int STREAKS = 64;
+  private static final int BUCKETS = STREAKS * (RATE_SCALE + 1);
+
+  private static final Comparator<Entry> BEST_FIRST = Comparator
+      .comparingInt(Entry::getBestStreak).reversed()
+      .thenComparing(Comparator.comparingInt(Entry::getRate).reversed())
+      .thenComparing(Comparator.comparingInt(Entry::getGames).reversed())
+      .thenComparingLong(Entry::getPlayerNumber);
+
+  //
+  // Attributes
+  //
+
+  // Guarded by this.
+  private final TreeSet<Entry> ranked = new TreeSet<>(BEST_FIRST);
+  private final int[] counts = new int[BUCKETS + 1];
+  private long nextPlayerNumber = 1;
+
+  private volatile List<String> top = Collections.emptyList();
+  private List<Entry> topEntries = Collections.emptyList();
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Get the cached top of the board, best first.
+   *
+   * @return up to {@value #TOP_SIZE} descriptions of the best players
+   */
+  public List<String> getTop() {
+    return top;
+  }
+
+  /**
+   * Get the number of players on the board.
+   *
+   * @return the number of ranked players
+   */
+  public synchronized int size() {
+    return ranked.size();
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Put a player on the board with new statistics, or move it.
+   *
+   * @param entry
+   *    The player's current entry, or null if it is not on the board yet.
+   * @param stats
+   *    The player's statistics; must include at least one game.
+   *
+   * @return the player's new entry
+   */
+  synchronized Entry update(final Entry entry, final PlayerStatistics stats) {
+    final long playerNumber;
+    if (entry == null) {
+      playerNumber = nextPlayerNumber++;
+    } else {
+      playerNumber = entry.playerNumber;
+      remove(entry);
+    }
+    final Entry updated = new Entry(playerNumber, stats);
+    ranked.add(updated);
+    count(updated.bucket(), 1);
+    refreshTop();
+    return updated;
+  }
+
+  /**
+   * Take a player off the board.
+   *
+   * @param entry
+   *    The player's entry, or null if it is not on the board.
+   */
+  synchronized void leave(final Entry entry) {
+    if (entry != null && remove(entry)) {
+      refreshTop();
+    }
+  }
+
+  /**
+   * Get the rank of a player; one for the best.
+   *
+   * @param entry
+   *    The player's entry.
+   *
+   * @return the number of players with a better streak and win rate, plus one
+   */
+  synchronized int rankOf(final Entry entry) {
+    // players in higher buckets are ahead of this one
+    return ranked.size() - prefixCount(entry.bucket()) + 1;
+  }
+
+  //
+  // Private methods
+  //
+
+  private boolean remove(final Entry entry) {
+    if (!ranked.remove(entry)) {
+      return false;
+    }
+    count(entry.bucket(), -1);
+    return true;
+  }
+
+  /**
+   * Rebuild the top of the board if any of its players changed.
+   */
+  private void refreshTop() {
+    final List<Entry> entries = new ArrayList<>(TOP_SIZE);
+    final Iterator<Entry> best = ranked.iterator();
+    while (best.hasNext() && entries.size() < TOP_SIZE) {
+      entries.add(best.next());
+    }
+    if (entries.equals(topEntries)) {
+      return;
+    }
+    final List<String> descriptions = new ArrayList<>(entries.size());
+    for (Entry entry : entries) {
+      descriptions.add(entry.describe());
+    }
+    topEntries = entries;
+    top = Collections.unmodifiableList(descriptions);
+  }
+
+  private void count(final int bucket, final int delta) {
+    for (int i = bucket + 1; i <= BUCKETS; i += i & -i) {
+      counts[i] += delta;
+    }
+  }
+
+  /**
+   * Count the players in buckets up to and including the given one.
+   */
+  private int prefixCount(final int bucket) {
+    int sum = 0;
+    for (int i = bucket + 1; i > 0; i -= i & -i) {
+      sum += counts[i];
+    }
+    return sum;
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * A player's place on the board. Immutable; a player that finishes another
+   * game gets a new entry.
+   */
+  static final class Entry {
+    private final long playerNumber;
+    private final int bestStreak;
+    private final int rate;
+    private final int games;
+
+    private Entry(final long playerNumber, final PlayerStatistics stats) {
+      this.playerNumber = playerNumber;
+      this.bestStreak = Math.min(stats.getBestStreak(), STREAKS - 1);
+      this.games = stats.getGames();
+      this.rate = games == 0 ? 0 : (int) ((long) stats.getWins() * RATE_SCALE / games);
+    }
+
+    long getPlayerNumber() {
+      return playerNumber;
+    }
+
+    int getBestStreak() {
+      return bestStreak;
+    }
+
+    int getRate() {
+      return rate;
+    }
+
+    int getGames() {
+      return games;
+    }
+
+    private int bucket() {
+      return bestStreak * (RATE_SCALE + 1) + rate;
+    }
+
+    private String describe() {
+      return String.format(STANDING_FORMAT, playerNumber, bestStreak,
+          Math.round(rate / (RATE_SCALE / 100.0)), games, games == 1 ? "game" : "games");
+    }
+  }
+}
@@ -0,0 +1,308 @@
+package com.example.appl;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link StatisticsStore} that appends the sitewide totals to a memory-mapped
+ * log file.
+ *
+ * <p>
+ * Finished games are only counted, in a striped {@link SiteStatistics}, by the
+ * thread that finished them. A background thread wakes once per flush interval
+ * and, if any games were finished since the last flush, appends one record with
+ * the new totals; however many games finished in between, they cost one record.
+ * Writes go to a mapped page, so they survive the process being killed; whether
+ * they also survive the machine losing power depends on the {@link FsyncPolicy}.
+ * </p>
+ *
+ * <p>
+ * The log is a fixed ring of {@value #RECORDS} records, each holding a sequence
+ * number, the totals and a CRC32, after a short header. Recovery reads the
+ * ring once and keeps the valid record with the highest sequence number, so a
+ * record torn by a crash falls back to the one before it.
+ * </p>
+ */
+public class MappedStatisticsLog implements StatisticsStore {
+  private static final Logger LOG = Logger.getLogger(MappedStatisticsLog.class.getName());
+
+  /**
+   * When the log is forced from the page cache to the disk.
+   *
+   * <ul>
+   *   <li>{@link #NONE}: never; the operating system writes the pages back when
+   *   it chooses. Survives the application crashing but not the machine.</li>
+   *   <li>{@link #PERIODIC}: at most once per fsync interval.</li>
+   *   <li>{@link #BATCH}: after every record appended.</li>
+   * </ul>
+   */
+  public enum FsyncPolicy {NONE, PERIODIC, BATCH}
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default time, in milliseconds, between flushes.
+   */
+  public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+  /**
+   * The default time, in milliseconds, between forced writes under {@link FsyncPolicy#PERIODIC}.
+   */
+  public static final long DEFAULT_FSYNC_INTERVAL_MILLIS = 1000;
+
+  // "GGST" and the layout version
+  private static final int MAGIC = 0x47475354;
+  private static final int FORMAT = 1;
+  private static final int HEADER_BYTES = 32;
+
+  // sequence, games, wins, crc and padding
+  private static final int RECORD_BYTES = 32;
+  private static final int CHECKED_BYTES = 24;
+  private static final int RECORDS = 1024;
+  private static final int FILE_BYTES = HEADER_BYTES + RECORDS * RECORD_BYTES;
+
+  //
+  // Attributes
+  //
+
+  private final FileChannel channel;
+  private final FileLock lock;
+  private final MappedByteBuffer map;
+  private final FsyncPolicy fsyncPolicy;
+  private final long flushIntervalMillis;
+  private final long fsyncIntervalNanos;
+  private final CRC32 crc = new CRC32();
+
+  // The totals found on recovery and the games counted since.
+  private final SiteStatistics.Snapshot recovered;
+  private final SiteStatistics counted;
+
+  // The last record appended; only touched while holding this.
+  private long sequence;
+  private long flushedVersion;
+  private long lastFsyncNanos = System.nanoTime();
+
+  private ScheduledExecutorService executor = null;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Open the log, creating it if needed, and recover the totals saved in it.
+   *
+   * @param file
+   *    The log file.
+   * @param fsyncPolicy
+   *    When the log is forced to the disk.
+   * @param flushIntervalMillis
+   *    The time, in milliseconds, between flushes.
+   * @param fsyncIntervalMillis
+   *    The time, in milliseconds, between forced writes; used by {@link FsyncPolicy#PERIODIC}.
+   *
+   * @throws IOException
+   *    when the file cannot be opened or is not a statistics log
+   * @throws IllegalStateException
+   *    when another process has the log open
+   * @throws IllegalArgumentException
+   *    when an interval is not positive
+   */
+  public MappedStatisticsLog(final Path file, final FsyncPolicy fsyncPolicy,
+                             final long flushIntervalMillis, final long fsyncIntervalMillis) throws IOException {
+    // validate arguments
+    Objects.requireNonNull(file, "file must not be null");
+    Objects.requireNonNull(fsyncPolicy, "fsyncPolicy must not be null");
+    if (flushIntervalMillis <= 0 || fsyncIntervalMillis <= 0) {
+      throw new IllegalArgumentException("flushIntervalMillis and fsyncIntervalMillis must be positive");
+    }
+    //
+    this.fsyncPolicy = fsyncPolicy;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+
+    this.channel = FileChannel.open(file,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      this.lock = channel.tryLock();
+      if (lock == null) {
+        throw new IllegalStateException("The statistics log " + file + " is in use by another process.");
+      }
+      final boolean created = channel.size() == 0;
+      if (!created && channel.size() != FILE_BYTES) {
+        throw new IOException(file + " is not a statistics log.");
+      }
+      this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+      if (created) {
+        map.putInt(0, MAGIC);
+        map.putInt(4, FORMAT);
+        map.force();
+      } else if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT) {
+        throw new IOException(file + " is not a statistics log.");
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    this.recovered = recoverRecords();
+    this.counted = new SiteStatistics(recovered);
+    this.flushedVersion = counted.version();
+    LOG.config("Recovered " + recovered.getTotalGames() + " games from " + file + ".");
+  }
+
+  /**
+   * Open the log with the default intervals.
+   *
+   * @param file
+   *    The log file.
+   * @param fsyncPolicy
+   *    When the log is forced to the disk.
+   *
+   * @throws IOException
+   *    when the file cannot be opened or is not a statistics log
+   */
+  public MappedStatisticsLog(final Path file, final FsyncPolicy fsyncPolicy) throws IOException {
+    this(file, fsyncPolicy, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_FSYNC_INTERVAL_MILLIS);
+  }
+
+  //
+  // StatisticsStore methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public SiteStatistics.Snapshot recover() {
+    return recovered;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void gameFinished(final boolean won) {
+    counted.gameFinished(won);
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Start the background thread that appends the totals once per flush interval.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "statistics-log");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(() -> flush(false),
+        flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    LOG.config("Statistics log started with fsync policy " + fsyncPolicy + ".");
+  }
+
+  /**
+   * Stop the background thread, append the last totals, force them to the disk
+   * and close the file. Games finished afterwards are not saved.
+   */
+  public synchronized void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (!channel.isOpen()) {
+      return;
+    }
+    flush(true);
+    try {
+      lock.release();
+      channel.close();
+    } catch (IOException e) {
+      LOG.log(Level.WARNING, "Could not close the statistics log.", e);
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Append the totals if games were finished since the last record.
+   */
+  private synchronized void flush(final boolean force) {
+    if (!channel.isOpen()) {
+      return;
+    }
+    final SiteStatistics.Snapshot totals = counted.snapshot();
+    if (totals.getTotalGames() != flushedVersion) {
+      append(totals);
+      flushedVersion = totals.getTotalGames();
+      if (fsyncPolicy == FsyncPolicy.BATCH) {
+        map.force();
+        lastFsyncNanos = System.nanoTime();
+        return;
+      }
+    }
+    final boolean periodic = fsyncPolicy == FsyncPolicy.PERIODIC
+        && System.nanoTime() - lastFsyncNanos >= fsyncIntervalNanos;
+    if (force || periodic) {
+      map.force();
+      lastFsyncNanos = System.nanoTime();
+    }
+  }
+
+  private void append(final SiteStatistics.Snapshot totals) {
+    sequence++;
+    final int offset = offsetOf(sequence);
+    map.putLong(offset, sequence);
+    map.putLong(offset + 8, totals.getTotalGames());
+    map.putLong(offset + 16, totals.getGamesWon());
+    map.putInt(offset + CHECKED_BYTES, checksum(offset));
+  }
+
+  private SiteStatistics.Snapshot recoverRecords() {
+    long games = 0;
+    long wins = 0;
+    for (int record = 0; record < RECORDS; record++) {
+      final int offset = HEADER_BYTES + record * RECORD_BYTES;
+      final long recordSequence = map.getLong(offset);
+      if (recordSequence > sequence
+          && offsetOf(recordSequence) == offset
+          && map.getInt(offset + CHECKED_BYTES) == checksum(offset)) {
+        sequence = recordSequence;
+        games = map.getLong(offset + 8);
+        wins = map.getLong(offset + 16);
+      }
+    }
+    return new SiteStatistics.Snapshot(games, wins);
+  }
+
+  private int checksum(final int offset) {
+    crc.reset();
+    for (int i = 0; i < CHECKED_BYTES; i++) {
+      crc.update(map.get(offset + i));
+    }
+    return (int) crc.getValue();
+  }
+
+  private static int offsetOf(final long sequence) {
+    return HEADER_BYTES + (int) (sequence % RECORDS) * RECORD_BYTES;
+  }
+}
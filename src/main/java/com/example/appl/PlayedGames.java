@@ -0,0 +1,146 @@
+package com.example.appl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * How far the games played lately have got, so that each guess of a game is
+ * made once. A client whose game travels in a cookie, as a token player's does,
+ * may send an earlier copy of the game again, or several copies at once; only
+ * the first copy to make a guess makes it, and a copy that is behind is known
+ * to be.
+ *
+ * <p>
+ * Each game is held in one {@code long}: the bits of its id above the lowest
+ * eight, and in those eight the number of guesses made. The games are held in
+ * a table of fixed size, one to a slot picked by the id's bits; a game that
+ * lands on a taken slot pushes the older one out. Ids are random, so a game
+ * stays in the table for about as many games as the table has slots, and an
+ * earlier copy of a game is only let through once that many games have been
+ * played on this node since.
+ * </p>
+ */
+final class PlayedGames {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The id of no game; never given to a game, and never held by the table.
+   */
+  static final long NO_ID = 0;
+
+  // The low bits of a slot hold the guesses made; GameRules.MAX_GUESSES fits in them.
+  private static final int GUESSES_BITS = 8;
+  private static final long GUESSES_MASK = (1L << GUESSES_BITS) - 1;
+
+  //
+  // Attributes
+  //
+
+  private final AtomicLongArray games;
+  private final int mask;
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create an empty table.
+   *
+   * @param capacity
+   *    The number of games the table holds; rounded up to a power of two.
+   *
+   * @throws IllegalArgumentException
+   *    when the capacity is not positive
+   */
+  PlayedGames(final int capacity) {
+    // validation
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    //
+    final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.games = new AtomicLongArray(size);
+    this.mask = size - 1;
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Make an id for a new game.
+   *
+   * @return a random id whose bits above the lowest eight are never all zero,
+   *    and so never {@link #NO_ID}
+   */
+  static long newId() {
+    long id;
+    do {
+      id = ThreadLocalRandom.current().nextLong();
+    } while ((id & ~GUESSES_MASK) == NO_ID);
+    return id;
+  }
+
+  /**
+   * Is a copy of a game behind the game as played lately?
+   *
+   * @param id
+   *    The id of the game.
+   * @param guessesMade
+   *    The guesses the copy has made.
+   *
+   * @return true if more guesses of the game have been made than the copy has
+   */
+  boolean isBehind(final long id, final int guessesMade) {
+    if (id == NO_ID) {
+      return false;
+    }
+    final long held = games.get(index(id));
+    return key(held) == key(id) && (held & GUESSES_MASK) > guessesMade;
+  }
+
+  /**
+   * Claim a guess of a game, unless a copy of the game has made it already.
+   *
+   * @param id
+   *    The id of the game.
+   * @param guessesMade
+   *    The guesses made with this one, from one to {@link com.example.model.GameRules#MAX_GUESSES}.
+   *
+   * @return true if the guess is new and may be made, as it always is for a
+   *    game with no id; false if the game had already made it
+   */
+  boolean claim(final long id, final int guessesMade) {
+    if (id == NO_ID) {
+      return true;
+    }
+    final int index = index(id);
+    final long claimed = key(id) | guessesMade;
+    while (true) {
+      final long held = games.get(index);
+      if (key(held) == key(id) && (held & GUESSES_MASK) >= guessesMade) {
+        return false;
+      }
+      if (games.compareAndSet(index, held, claimed)) {
+        return true;
+      }
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  private static long key(final long id) {
+    return id & ~GUESSES_MASK;
+  }
+
+  private int index(final long id) {
+    // the slot is picked by the bits that are kept, so two games in one slot differ in them
+    final long kept = id >>> GUESSES_BITS;
+    return (int) (kept ^ (kept >>> 32)) & mask;
+  }
+}
@@ -1,6 +1,9 @@
 package com.example.appl;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import com.example.model.GameRules;
 import com.example.model.GuessGame;
 import com.example.model.GuessGame.GuessResult;
 
@@ -13,127 +16,369 @@ import com.example.model.GuessGame.GuessResult;
  */
 
 public class PlayerServices {
+  private static final Logger LOG = Logger.getLogger(PlayerServices.class.getName());
 
   //
   // Constants
   //
 
   final static String NO_WINS_MESSAGE = "You have not won a game, yet. But I *feel* your luck changing.";
-  final static String GAMES_PLAYED_FORMAT = "You have won an average of %.1f%% of this session's %d game.";
+  final static String GAMES_PLAYED_FORMAT = "You have won an average of %.1f%% of this session's %d %s.";
+  final static String WINS_FORMAT = " Winning streak: %d (best %d). Wins in 1/2/3+ guesses: %d/%d/%d.";
 
-  private int wins;
-  private int games;
+  // Marks a player that does not hold a slot in the game store.
+  private static final int NO_SLOT = -1;
 
   //
   // Attributes
   //
 
-  // This player's game. There is only one game at a time allowed.
-  private GuessGame game;
+  // This player's slot in the game store. There is only one game at a time allowed.
+  private int slot;
   // The gameCenter provides sitewide features for all the games and players.
   private final GameCenter gameCenter;
+  // The gameStore holds the state of this player's game.
+  private final GameStore gameStore;
+  // The id of the game in progress, by which copies of it that a client sends back are checked.
+  private long gameId;
+  // This session's games; replaced as each game finishes.
+  private PlayerStatistics stats;
+  // Whether the player goes on the leaderboard, and its place there once it has finished a game.
+  private final boolean ranked;
+  private Leaderboard.Entry leaderboardEntry = null;
+  // The id by which GameCenter can find this player; assigned when first asked for.
+  private String id = null;
+  // Set once the session has ended; the player must not be used afterwards.
+  private volatile boolean sessionEnded = false;
+
+  // The last time the player did anything; read by the SessionReaper.
+  volatile long lastAccessNanos = System.nanoTime();
+  // Links and deadline for the SessionReaper wheel; only used by the reaper.
+  PlayerServices reaperNext;
+  long reaperDeadline;
 
   /**
    * Construct a new {@Linkplain PlayerServices} but wait for the player to want to start a game.
    *
    * @param gameCenter
    *    the {@Link GameCenter} that has sitewide responsibilities
+   * @param gameStore
+   *    the {@Link GameStore} that keeps the player's game
    */
-  PlayerServices(GameCenter gameCenter) {
-    game = null;
+  PlayerServices(GameCenter gameCenter, GameStore gameStore) {
+    this(gameCenter, gameStore, NO_SLOT, PlayedGames.NO_ID, PlayerStatistics.NONE, true);
+  }
+
+  /**
+   * Construct a new {@Linkplain PlayerServices} that already owns a slot in the store.
+   *
+   * @param gameCenter
+   *    the {@Link GameCenter} that has sitewide responsibilities
+   * @param gameStore
+   *    the {@Link GameStore} that keeps the player's game
+   * @param slot
+   *    the player's slot in the {@code gameStore}
+   * @param gameId
+   *    the id of the game in the slot, as returned by {@link #getGameId()}
+   * @param stats
+   *    the {@Link PlayerStatistics} of the player's earlier games
+   * @param ranked
+   *    whether the player goes on the leaderboard; only players whose session
+   *    end is known can be taken off it again
+   */
+  PlayerServices(GameCenter gameCenter, GameStore gameStore, int slot, long gameId, PlayerStatistics stats,
+                 boolean ranked) {
     this.gameCenter = gameCenter;
+    this.gameStore = gameStore;
+    this.slot = slot;
+    this.gameId = gameId;
+    this.stats = stats;
+    this.ranked = ranked;
   }
 
   /**
    * Get the current game that the player is playing. Create one if a game has not been started.
    *
+   * <p>
+   * The game returned is a copy of the stored game; guesses must be made through
+   * {@link #makeGuess(int)} so that they are saved.
+   * </p>
+   *
    * @return GuessGame
    *    the current game being played
+   *
+   * @throws IllegalStateException
+   *    when the session has already ended
    */
   public synchronized GuessGame currentGame() {
-    if(game == null) {
-      game = gameCenter.getGame();
+    if (!startGame()) {
+      throw new IllegalStateException("The session has ended.");
     }
-    return game;
+    return gameStore.load(slot);
+  }
+
+  /**
+   * Start a game if the player is not playing one. Unlike {@link #currentGame()}
+   * this creates no game object; the new game is started in the thread's working
+   * game and saved from there.
+   *
+   * <p>
+   * A player whose session has ended starts nothing: it has given its slot back
+   * to the store, and a new one would never be released again.
+   * </p>
+   *
+   * @return true if the player has a game in progress; false if the session has ended
+   */
+  public synchronized boolean startGame() {
+    if (sessionEnded) {
+      return false;
+    }
+    lastAccessNanos = System.nanoTime();
+    if (slot == NO_SLOT) {
+      slot = gameStore.allocate();
+    }
+    final GuessGame game = gameCenter.workingGame();
+    if (!gameStore.loadInto(slot, game)) {
+      gameCenter.resetGame(game);
+      gameId = PlayedGames.newId();
+      gameStore.save(slot, game);
+    }
+    return true;
   }
 
   /**
    * Indicates that the player is finished with this game.
    */
-  public void finishedGame() {
-    game = null;
+  public synchronized void finishedGame() {
+    if (slot != NO_SLOT) {
+      gameStore.save(slot, null);
+    }
   }
 
   /**
    * The player makes a guess of the secret number.
    *
+   * <p>
+   * A route that checks {@link #hasGame()} first must hold the player's lock
+   * across the check and the guess, or another request, or the end of the
+   * session, may take the game away in between.
+   * </p>
+   *
+   * <p>
+   * Each guess of a game is made once. A player whose state travels in a
+   * cookie may hold one of several copies of its game, when the client sent the
+   * same cookie more than once; the copy that is second to make a guess drops
+   * its game without judging the guess, so that the client learns nothing from it.
+   * </p>
+   *
    * @param guess
    *      The number guessed
    *
+   * @throws IllegalStateException
+   *      when the player has no game in progress, another copy of the game has
+   *      made the guess, or the session has ended
    */
   public synchronized GuessResult makeGuess(int guess) {
+    final GuessGame game = game();
+    if (game == null) {
+      throw new IllegalStateException("No game in progress.");
+    }
+    lastAccessNanos = System.nanoTime();
     GuessResult result = game.makeGuess(guess);
-    if (game.isFinished()) {
+    final boolean finished = game.isFinished();
+    final int guesses = game.getRules().getGuesses() - game.guessesLeft();
+    if (result != GuessResult.INVALID && !gameCenter.claimGuess(gameId, guesses)) {
+      // another copy of the game has made this guess; this copy is out of date
+      gameStore.save(slot, null);
+      throw new IllegalStateException("Another copy of the game has made the guess.");
+    }
+    gameStore.save(slot, game);
+    gameCenter.guessMade(result);
+    if (finished) {
         boolean won = result == GuessResult.WON;
         gameCenter.gameFinished(won);
-        wins++;
+        stats = won ? stats.won(guesses) : stats.lost();
+        // check first: the parameters would be boxed even when the event is not logged
+        if (LOG.isLoggable(Level.FINE)) {
+          LOG.log(Level.FINE, "event=game_finished won={0} guesses={1,number,#}", new Object[] {won, guesses});
+        }
+        if (ranked && !sessionEnded) {
+          leaderboardEntry = gameCenter.rankPlayer(leaderboardEntry, stats);
+        }
     }
     return result;
   }
 
   /**
    * Cleanup the @Linkplain{PlayerServices} object when the session expires.
-   * The only cleanup will be to remove the game.
+   * The only cleanup will be to give the game's slot back to the store.
    */
-  public void endSession() { game = null; }
+  public synchronized void endSession() {
+    sessionEnded = true;
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "event=session_ended games={0,number,#}", stats.getGames());
+    }
+    if (id != null) {
+      gameCenter.unpublishPlayer(id);
+    }
+    gameCenter.unrankPlayer(leaderboardEntry);
+    leaderboardEntry = null;
+    if (slot != NO_SLOT) {
+      gameStore.release(slot);
+      slot = NO_SLOT;
+    }
+  }
+
+  /**
+   * Get the id by which {@link GameCenter#findPlayer(String)} finds this player
+   * while its session lasts. The id is created the first time it is asked for.
+   *
+   * @return the player's id
+   *
+   * @throws IllegalStateException
+   *    when the session has already ended
+   */
+  public synchronized String getId() {
+    if (sessionEnded) {
+      throw new IllegalStateException("The session has ended.");
+    }
+    if (id == null) {
+      id = gameCenter.publishPlayer(this);
+    }
+    return id;
+  }
+
+  /**
+   * Get the packed state of the game in progress, as {@link GuessGame#toPackedState()}
+   * gives it. Unlike {@link #currentGame()} this creates no game object.
+   *
+   * @return the packed game, or -1 if the player has no game
+   */
+  public synchronized long getPackedGame() {
+    final GuessGame game = game();
+    return game == null ? -1 : game.toPackedState();
+  }
+
+  /**
+   * Get the id of the game in progress. Every game is given a random id when it
+   * starts, by which {@link GameCenter} tells a game that has finished.
+   *
+   * @return the id of the player's game; meaningless when it has no game
+   */
+  public synchronized long getGameId() {
+    return gameId;
+  }
+
+  /**
+   * Has this player's session ended, either by timing out or by the session being invalidated?
+   *
+   * @return true if the session has ended and the player must start over
+   */
+  public boolean isSessionEnded() {
+    return sessionEnded;
+  }
+
+  /**
+   * Does the player have a game in progress?
+   *
+   * @return true if a game has been started and not yet finished
+   */
+  public synchronized boolean hasGame() {
+    return game() != null;
+  }
 
   /**
    * Is the player starting a new game?
    *
-   * @return true if the player has just started a game
+   * @return true if the player has just started a game; false if it has no game
    *
    */
-  public boolean isStartingGame() {
-    return game.isGameBeginning();
+  public synchronized boolean isStartingGame() {
+    final GuessGame game = game();
+    return game != null && game.isGameBeginning();
   }
 
   /**
    * Does the player still have more guesses in the current game?
    *
-   * @return true if the player still has guesses left in this game
+   * @return true if the player still has guesses left in this game; false if it has no game
    */
-  public boolean hasMoreGuesses() {
-    return game.hasMoreGuesses();
+  public synchronized boolean hasMoreGuesses() {
+    final GuessGame game = game();
+    return game != null && game.hasMoreGuesses();
   }
 
   /**
    * How many guesses does the player have left in this game?
    *
-   * @return the number of guesses the player has left in the current game
+   * @return the number of guesses the player has left in the current game; zero if it has no game
+   *
+   */
+  public synchronized int guessesLeft() {
+    final GuessGame game = game();
+    return game == null ? 0 : game.guessesLeft();
+  }
+
+  /**
+   * Get the rules of the game in progress, or of the next game when there is none.
    *
+   * @return the {@link GameRules} of the player's game
    */
-  public int guessesLeft() {
-    return game.guessesLeft();
+  public synchronized GameRules getRules() {
+    final GuessGame game = game();
+    return game == null ? gameCenter.getRules() : game.getRules();
   }
 
+  /**
+   * Get the statistics of the games this player finished in this session.
+   *
+   * @return the player's {@link PlayerStatistics}
+   */
+  public synchronized PlayerStatistics getPlayerStats() {
+    return stats;
+  }
+
+  /**
+   * Get a user message about the games this player finished in this session.
+   *
+   * @return the message, or null if the player has not finished a game
+   */
   public synchronized String getPlayerStatsMessage() {
-    if (wins == 0) {
-      return String.format(NO_WINS_MESSAGE);
-    } else {
+    final int games = stats.getGames();
+    if (games == 0) {
       return null;
+    } else if (stats.getWins() == 0) {
+      return NO_WINS_MESSAGE;
+    } else {
+      final double percent = 100.0 * stats.getWins() / games;
+      return String.format(GAMES_PLAYED_FORMAT, percent, games, games == 1 ? "game" : "games")
+          + String.format(WINS_FORMAT, stats.getCurrentStreak(), stats.getBestStreak(),
+              stats.getWins(1), stats.getWins(2), stats.getWins(3));
     }
+  }
+
+  /**
+   * Get a user message about the player's place on the leaderboard.
+   *
+   * @return the message, or null if the player is not on the leaderboard
+   */
+  public synchronized String getPlayerRankMessage() {
+    return leaderboardEntry == null ? null : gameCenter.formatRank(leaderboardEntry);
+  }
 
+  //
+  // Private methods
+  //
 
-//    if (games > 1) {
-//      long value = Math.round(((float) wins / (float) games) * 100.0);
-//      String percent = Long.toString(value) + '%';
-//      return String.format(GAMES_PLAYED_FORMAT, totalGames, percent);
-//    } else if (games == 1) {
-//      long value = Math.round(((float) wins / (float) games) * 100.0);
-//      String percent = Long.toString(value) + '%';
-//      return String.format(ONE_GAME_MESSAGE, percent);
-//    } else {
-//      return NO_GAMES_MESSAGE;
-//    }
+  /**
+   * Load the game in progress into the thread's working game; null when the
+   * player has no game. The game must not outlive the method that loaded it.
+   */
+  private GuessGame game() {
+    if (slot == NO_SLOT) {
+      return null;
+    }
+    final GuessGame game = gameCenter.workingGame();
+    return gameStore.loadInto(slot, game) ? game : null;
   }
 }
@@ -0,0 +1,194 @@
+package com.example.appl;
+
+/**
+ * The statistics of one player's session: games played and won, how many
+ * guesses each win took, and winning streaks.
+ *
+ * <p>
+ * Instances are immutable; recording a game makes a new instance. All of the
+ * counts are packed into one {@code long} so that the statistics cost a player
+ * no more than a small object, and can travel in a {@code token} session cookie.
+ * Counting stops once any count is full, which keeps the counts consistent with
+ * each other; a session would have to last for tens of thousands of games.
+ * </p>
+ */
+public final class PlayerStatistics {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The number of guess counts that wins are grouped by; the last group holds
+   * the wins that took that many guesses or more.
+   */
+  public static final int GUESS_GROUPS = 3;
+
+  /**
+   * The statistics of a player that has not finished a game.
+   */
+  public static final PlayerStatistics NONE = new PlayerStatistics(0);
+
+  // games: bits 0-15; wins by guesses: 12 bits each from bit 16; streaks: 6 bits each from bit 52
+  private static final int GAMES_BITS = 16;
+  private static final int WINS_BITS = 12;
+  private static final int STREAK_BITS = 6;
+  private static final int WINS_SHIFT = GAMES_BITS;
+  private static final int STREAK_SHIFT = WINS_SHIFT + GUESS_GROUPS * WINS_BITS;
+  private static final int BEST_STREAK_SHIFT = STREAK_SHIFT + STREAK_BITS;
+
+  //
+  // Attributes
+  //
+
+  private final long packed;
+
+  //
+  // Constructor
+  //
+
+  private PlayerStatistics(final long packed) {
+    this.packed = packed;
+  }
+
+  //
+  // Static methods
+  //
+
+  /**
+   * Recreate statistics from the value returned by {@link #toPackedState()}.
+   *
+   * @param packedState
+   *    The packed statistics.
+   *
+   * @return the statistics
+   */
+  public static PlayerStatistics fromPackedState(final long packedState) {
+    return packedState == 0 ? NONE : new PlayerStatistics(packedState);
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Record a game that was won.
+   *
+   * @param guesses
+   *    The number of guesses the win took.
+   *
+   * @return the statistics with the game added
+   */
+  public PlayerStatistics won(final int guesses) {
+    final int group = Math.min(Math.max(guesses, 1), GUESS_GROUPS) - 1;
+    final int winsShift = WINS_SHIFT + group * WINS_BITS;
+    if (isFull(GAMES_BITS, 0) || isFull(WINS_BITS, winsShift)) {
+      return this;
+    }
+    final int streak = Math.min(getCurrentStreak() + 1, max(STREAK_BITS));
+    final int best = Math.max(streak, getBestStreak());
+    long next = packed + 1 + (1L << winsShift);
+    next = replace(next, STREAK_BITS, STREAK_SHIFT, streak);
+    next = replace(next, STREAK_BITS, BEST_STREAK_SHIFT, best);
+    return new PlayerStatistics(next);
+  }
+
+  /**
+   * Record a game that was lost.
+   *
+   * @return the statistics with the game added
+   */
+  public PlayerStatistics lost() {
+    if (isFull(GAMES_BITS, 0)) {
+      return this;
+    }
+    return new PlayerStatistics(replace(packed + 1, STREAK_BITS, STREAK_SHIFT, 0));
+  }
+
+  /**
+   * @return the number of games finished
+   */
+  public int getGames() {
+    return field(GAMES_BITS, 0);
+  }
+
+  /**
+   * @return the number of games won
+   */
+  public int getWins() {
+    int wins = 0;
+    for (int group = 1; group <= GUESS_GROUPS; group++) {
+      wins += getWins(group);
+    }
+    return wins;
+  }
+
+  /**
+   * @return the number of games lost
+   */
+  public int getLosses() {
+    return getGames() - getWins();
+  }
+
+  /**
+   * Get the number of wins that took the given number of guesses.
+   *
+   * @param guesses
+   *    The number of guesses, from one to {@link #GUESS_GROUPS}; the last group
+   *    also counts wins that took more guesses.
+   *
+   * @return the number of wins
+   *
+   * @throws IllegalArgumentException
+   *    when {@code guesses} is not a group
+   */
+  public int getWins(final int guesses) {
+    if (guesses < 1 || guesses > GUESS_GROUPS) {
+      throw new IllegalArgumentException("guesses must be from 1 to " + GUESS_GROUPS);
+    }
+    return field(WINS_BITS, WINS_SHIFT + (guesses - 1) * WINS_BITS);
+  }
+
+  /**
+   * @return the number of games won in a row up to the last game
+   */
+  public int getCurrentStreak() {
+    return field(STREAK_BITS, STREAK_SHIFT);
+  }
+
+  /**
+   * @return the most games won in a row
+   */
+  public int getBestStreak() {
+    return field(STREAK_BITS, BEST_STREAK_SHIFT);
+  }
+
+  /**
+   * Packs the statistics into one long; zero for {@link #NONE}.
+   *
+   * @return the packed statistics
+   */
+  public long toPackedState() {
+    return packed;
+  }
+
+  //
+  // Private methods
+  //
+
+  private int field(final int bits, final int shift) {
+    return (int) ((packed >>> shift) & max(bits));
+  }
+
+  private boolean isFull(final int bits, final int shift) {
+    return field(bits, shift) == max(bits);
+  }
+
+  private static long replace(final long packed, final int bits, final int shift, final int value) {
+    return (packed & ~((long) max(bits) << shift)) | ((long) value << shift);
+  }
+
+  private static int max(final int bits) {
+    return (1 << bits) - 1;
+  }
+}
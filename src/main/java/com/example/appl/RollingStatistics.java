@@ -0,0 +1,270 @@
+package com.example.appl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The games, wins and guesses of the last minute, hour and day on this node,
+ * kept next to the all-time counters of {@link SiteStatistics}.
+ *
+ * <p>
+ * Each {@link Window} is a ring of buckets that each count one slice of time:
+ * sixty one-second buckets for the minute, sixty one-minute buckets for the
+ * hour and twenty-four one-hour buckets for the day. A bucket is an immutable
+ * value tagged with the slice it counts. Recording a guess replaces the current
+ * bucket of each ring by compare-and-set, starting it over when it still holds
+ * a slice that has gone by, so an update costs the same whatever the length of
+ * the window. Readers sum the buckets whose slice is still in the window
+ * without taking any lock.
+ * </p>
+ *
+ * <p>
+ * A window slides one bucket at a time: the last hour is the current minute
+ * and the fifty-nine before it.
+ * </p>
+ */
+public class RollingStatistics {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The time spans the statistics are kept for.
+   */
+  public enum Window {
+    MINUTE(1, 60),
+    HOUR(60, 60),
+    DAY(3600, 24);
+
+    private final long bucketNanos;
+    private final int buckets;
+
+    Window(final long bucketSeconds, final int buckets) {
+      this.bucketNanos = TimeUnit.SECONDS.toNanos(bucketSeconds);
+      this.buckets = buckets;
+    }
+
+    /**
+     * @return the length of the window in seconds
+     */
+    public long getSeconds() {
+      return TimeUnit.NANOSECONDS.toSeconds(bucketNanos * buckets);
+    }
+  }
+
+  private static final Window[] WINDOWS = Window.values();
+
+  //
+  // Attributes
+  //
+
+  // The statistics count time from their creation, so that the clock never goes back.
+  private final long originNanos = System.nanoTime();
+  // One ring of buckets per window, by ordinal.
+  private final List<AtomicReferenceArray<Bucket>> rings = new ArrayList<>(WINDOWS.length);
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create statistics with nothing counted.
+   */
+  public RollingStatistics() {
+    for (Window window : WINDOWS) {
+      rings.add(new AtomicReferenceArray<>(window.buckets));
+    }
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Record a guess. A guess that won or lost the game also records a finished
+   * game; invalid guesses are not counted.
+   *
+   * @param result
+   *    The result of the guess.
+   */
+  public void guessMade(final GuessResult result) {
+    if (result == GuessResult.INVALID) {
+      return;
+    }
+    final long games = result == GuessResult.WON || result == GuessResult.LOST ? 1 : 0;
+    final long wins = result == GuessResult.WON ? 1 : 0;
+    final long now = now();
+    for (Window window : WINDOWS) {
+      add(window, now, games, wins);
+    }
+  }
+
+  /**
+   * Sum one window.
+   *
+   * @param window
+   *    The window to sum.
+   *
+   * @return the games, wins and guesses in the window
+   */
+  public Totals totals(final Window window) {
+    final long now = now();
+    final long slice = now / window.bucketNanos;
+    // the oldest slice still in the window, or the first one if the window is not yet full
+    final long oldest = Math.max(0, slice - window.buckets + 1);
+    final AtomicReferenceArray<Bucket> ring = rings.get(window.ordinal());
+    long games = 0;
+    long wins = 0;
+    long guesses = 0;
+    for (int i = 0; i < window.buckets; i++) {
+      final Bucket bucket = ring.get(i);
+      if (bucket != null && bucket.slice >= oldest) {
+        games += bucket.games;
+        wins += bucket.wins;
+        guesses += bucket.guesses;
+      }
+    }
+    return new Totals(window, now - oldest * window.bucketNanos, games, wins, guesses);
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Get the number of whole seconds counted so far. The windows can only change
+   * when a guess is recorded or this number moves on.
+   */
+  long elapsedSeconds() {
+    return TimeUnit.NANOSECONDS.toSeconds(now());
+  }
+
+  //
+  // Private methods
+  //
+
+  private void add(final Window window, final long now, final long games, final long wins) {
+    final long slice = now / window.bucketNanos;
+    final AtomicReferenceArray<Bucket> ring = rings.get(window.ordinal());
+    final int index = (int) (slice % window.buckets);
+    Bucket held;
+    Bucket next;
+    do {
+      held = ring.get(index);
+      // a guess that took a while to get here counts in the slice that replaced its own
+      next = held != null && held.slice >= slice
+          ? new Bucket(held.slice, held.games + games, held.wins + wins, held.guesses + 1)
+          : new Bucket(slice, games, wins, 1);
+    } while (!ring.compareAndSet(index, held, next));
+  }
+
+  private long now() {
+    return System.nanoTime() - originNanos;
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * The counts of one slice of time.
+   */
+  private static final class Bucket {
+    private final long slice;
+    private final long games;
+    private final long wins;
+    private final long guesses;
+
+    Bucket(final long slice, final long games, final long wins, final long guesses) {
+      this.slice = slice;
+      this.games = games;
+      this.wins = wins;
+      this.guesses = guesses;
+    }
+  }
+
+  /**
+   * An immutable sum of one window at one moment.
+   */
+  public static final class Totals {
+    private final Window window;
+    private final long nanos;
+    private final long games;
+    private final long wins;
+    private final long guesses;
+
+    Totals(final Window window, final long nanos, final long games, final long wins, final long guesses) {
+      this.window = window;
+      this.nanos = nanos;
+      this.games = games;
+      this.wins = wins;
+      this.guesses = guesses;
+    }
+
+    /**
+     * @return the window summed
+     */
+    public Window getWindow() {
+      return window;
+    }
+
+    /**
+     * @return the number of games finished in the window
+     */
+    public long getGames() {
+      return games;
+    }
+
+    /**
+     * @return the number of games won in the window
+     */
+    public long getWins() {
+      return wins;
+    }
+
+    /**
+     * @return the number of valid guesses made in the window
+     */
+    public long getGuesses() {
+      return guesses;
+    }
+
+    /**
+     * @return the time, in seconds, the window covers and its rates are taken over:
+     *    less than its length while it has only just started, and at least a second
+     */
+    public double getSeconds() {
+      return Math.max(1.0, nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * @return the games finished per second over the time the window covers
+     */
+    public double getGamesPerSecond() {
+      return perSecond(games);
+    }
+
+    /**
+     * @return the games won per second over the time the window covers
+     */
+    public double getWinsPerSecond() {
+      return perSecond(wins);
+    }
+
+    /**
+     * @return the guesses made per second over the time the window covers
+     */
+    public double getGuessesPerSecond() {
+      return perSecond(guesses);
+    }
+
+    private double perSecond(final long count) {
+      return count / getSeconds();
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package com.example.appl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Ends the sessions of players that have been idle for longer than the session
+ * timeout, using a hierarchical timer wheel.
+ *
+ * <p>
+ * The wheel has four levels of 64 slots. A slot on the
+ * first level covers one tick; a slot on each higher level covers all of the
+ * slots of the level below. Every tick empties one first-level slot and, once
+ * per revolution of a level, spreads one slot of the level above back down, so
+ * the work per tick does not depend on how many players are waiting.
+ * </p>
+ *
+ * <p>
+ * Players are linked straight into the wheel through fields of
+ * {@link PlayerServices}; no timer object is allocated per player. New players
+ * are pushed onto a lock-free stack and moved into the wheel by the reaper
+ * thread, which is the only thread that touches the wheel. Activity only
+ * records a timestamp: a player found in an expiring slot that has been active
+ * since it was scheduled is put back for the rest of its idle time.
+ * </p>
+ */
+public class SessionReaper {
+  private static final Logger LOG = Logger.getLogger(SessionReaper.class.getName());
+
+  //
+  // Constants
+  //
+
+  /**
+   * The idle time, in seconds, after which a player's session ends.
+   */
+  public static final int DEFAULT_TIMEOUT_SECONDS = 120;
+
+  /**
+   * The length of one tick of the wheel, in milliseconds.
+   */
+  public static final long DEFAULT_TICK_MILLIS = 1000;
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+
+  //
+  // Attributes
+  //
+
+  private final long timeoutNanos;
+  private final long tickNanos;
+
+  // The wheel; wheel[level][slot] is the head of a list linked through PlayerServices.reaperNext.
+  private final PlayerServices[][] wheel = new PlayerServices[LEVELS][SLOTS];
+  // Players registered since the last tick, linked through PlayerServices.reaperNext.
+  private final AtomicReference<PlayerServices> registered = new AtomicReference<>();
+
+  // The tick the wheel has been advanced to, and the time that tick started.
+  private long currentTick = 0;
+  private final long startNanos;
+
+  private final AtomicLong liveSessions = new AtomicLong();
+  private final AtomicLong expiredSessions = new AtomicLong();
+
+  private ScheduledExecutorService executor = null;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create a reaper with the default session timeout and tick length.
+   */
+  public SessionReaper() {
+    this(TimeUnit.SECONDS.toMillis(DEFAULT_TIMEOUT_SECONDS), DEFAULT_TICK_MILLIS);
+  }
+
+  /**
+   * Create a reaper.
+   *
+   * @param timeoutMillis
+   *    The idle time, in milliseconds, after which a player's session ends.
+   * @param tickMillis
+   *    The resolution of the wheel, in milliseconds; sessions end up to one tick late.
+   *
+   * @throws IllegalArgumentException
+   *    when either parameter is not positive
+   */
+  public SessionReaper(final long timeoutMillis, final long tickMillis) {
+    // validate arguments
+    if (timeoutMillis <= 0 || tickMillis <= 0) {
+      throw new IllegalArgumentException("timeoutMillis and tickMillis must be positive");
+    }
+    //
+    this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.startNanos = System.nanoTime();
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Start the background thread that advances the wheel once per tick.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "session-reaper");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    executor.scheduleAtFixedRate(() -> advanceTo(System.nanoTime()),
+        tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    LOG.config("Session reaper started.");
+  }
+
+  /**
+   * Stop the background thread. Players still in the wheel are not ended.
+   */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Get the number of players being watched. A player whose session was ended
+   * by other means is counted until the reaper next reaches it.
+   *
+   * @return the number of live sessions
+   */
+  public long getLiveSessions() {
+    return liveSessions.get();
+  }
+
+  /**
+   * Get the number of players whose sessions this reaper has ended for inactivity.
+   *
+   * @return the number of expired sessions
+   */
+  public long getExpiredSessions() {
+    return expiredSessions.get();
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Start watching a player for inactivity. Safe to call from any thread.
+   */
+  void register(final PlayerServices playerServices) {
+    liveSessions.incrementAndGet();
+    PlayerServices head;
+    do {
+      head = registered.get();
+      playerServices.reaperNext = head;
+    } while (!registered.compareAndSet(head, playerServices));
+  }
+
+  /**
+   * Advance the wheel to the given time, ending every player idle for longer than
+   * the timeout. Only one thread may call this at a time.
+   */
+  synchronized void advanceTo(final long nowNanos) {
+    scheduleRegistered();
+    final long targetTick = (nowNanos - startNanos) / tickNanos;
+    while (currentTick < targetTick) {
+      currentTick++;
+      cascade();
+      expire(nowNanos);
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  private void scheduleRegistered() {
+    PlayerServices player = registered.getAndSet(null);
+    while (player != null) {
+      final PlayerServices next = player.reaperNext;
+      schedule(player, tickOf(player.lastAccessNanos + timeoutNanos));
+      player = next;
+    }
+  }
+
+  /**
+   * Pull the slots of the higher levels that start at the current tick down the wheel.
+   */
+  private void cascade() {
+    for (int level = 1; level < LEVELS; level++) {
+      final int shift = level * SLOT_BITS;
+      if ((currentTick & ((1L << shift) - 1)) != 0) {
+        return;
+      }
+      final int slot = (int) (currentTick >>> shift) & SLOT_MASK;
+      PlayerServices player = wheel[level][slot];
+      wheel[level][slot] = null;
+      while (player != null) {
+        final PlayerServices next = player.reaperNext;
+        schedule(player, player.reaperDeadline);
+        player = next;
+      }
+    }
+  }
+
+  /**
+   * End, in one batch, every player in the current slot that is still idle.
+   */
+  private void expire(final long nowNanos) {
+    final int slot = (int) currentTick & SLOT_MASK;
+    PlayerServices player = wheel[0][slot];
+    wheel[0][slot] = null;
+    while (player != null) {
+      final PlayerServices next = player.reaperNext;
+      player.reaperNext = null;
+      if (player.isSessionEnded()) {
+        liveSessions.decrementAndGet();
+      } else {
+        final long idleUntil = player.lastAccessNanos + timeoutNanos;
+        if (idleUntil - nowNanos <= 0) {
+          player.endSession();
+          liveSessions.decrementAndGet();
+          expiredSessions.incrementAndGet();
+        } else {
+          schedule(player, tickOf(idleUntil));
+        }
+      }
+      player = next;
+    }
+  }
+
+  private void schedule(final PlayerServices player, final long deadlineTick) {
+    // a deadline already passed goes into the next slot to be emptied
+    final long deadline = Math.max(deadlineTick, currentTick + 1);
+    final long delta = deadline - currentTick;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+      level++;
+    }
+    final int slot = (int) (deadline >>> (level * SLOT_BITS)) & SLOT_MASK;
+    player.reaperDeadline = deadline;
+    player.reaperNext = wheel[level][slot];
+    wheel[level][slot] = player;
+  }
+
+  private long tickOf(final long nanos) {
+    // round up so that no player is ended early
+    return (nanos - startNanos + tickNanos - 1) / tickNanos;
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.appl;
+
+import com.example.model.GuessGame;
+
+/**
+ * A {@link GameStore} with room for the game of one detached player; see
+ * {@link GameCenter#restorePlayer(GuessGame, long, PlayerStatistics)}.
+ */
+class SingleGameStore implements GameStore {
+
+  // The only slot in the store.
+  static final int SLOT = 0;
+
+  // Marks the empty slot; a packed game is never negative.
+  private static final long EMPTY = -1L;
+
+  // The packed state of the game, as the game saved may be reused by its owner.
+  private long packedState;
+  // Whether the slot is held; the player it is made for holds it from the start.
+  private boolean allocated = true;
+
+  SingleGameStore(final GuessGame game) {
+    save(SLOT, game);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException
+   *    when the only slot is already held
+   */
+  @Override
+  public int allocate() {
+    if (allocated) {
+      throw new IllegalStateException("The only slot is already allocated.");
+    }
+    allocated = true;
+    return SLOT;
+  }
+
+  @Override
+  public GuessGame load(final int slot) {
+    return packedState == EMPTY ? null : GuessGame.fromPackedState(packedState);
+  }
+
+  @Override
+  public boolean loadInto(final int slot, final GuessGame game) {
+    if (packedState == EMPTY) {
+      return false;
+    }
+    game.restore(packedState);
+    return true;
+  }
+
+  @Override
+  public void save(final int slot, final GuessGame game) {
+    this.packedState = game == null ? EMPTY : game.toPackedState();
+  }
+
+  @Override
+  public void release(final int slot) {
+    this.packedState = EMPTY;
+    this.allocated = false;
+  }
+
+  @Override
+  public int size() {
+    return allocated ? 1 : 0;
+  }
+}
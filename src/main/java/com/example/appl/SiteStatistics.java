@@ -0,0 +1,191 @@
+package com.example.appl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The sitewide win/loss counters shared by every player.
+ *
+ * <p>
+ * Finished games are recorded into one of several independent stripes so that
+ * threads finishing games at the same time rarely touch the same cache line.
+ * Each stripe packs the game count (high 32 bits) and the win count (low 32 bits)
+ * into a single {@code long} which is updated with one atomic add; a stripe can
+ * therefore never be observed with a win that has not yet been counted as a game.
+ * Readers sum the stripes without taking any lock.
+ * </p>
+ *
+ * <p>
+ * The counters may start from the totals of an earlier run, which are added to
+ * every reading.
+ * </p>
+ */
+public class SiteStatistics {
+
+  //
+  // Constants
+  //
+
+  // One finished game; added to a stripe for every game.
+  private static final long ONE_GAME = 1L << 32;
+  // Mask selecting the win count of a stripe.
+  private static final long WINS_MASK = 0xFFFFFFFFL;
+  // Distance, in longs, between stripes so that each stripe owns a 128 byte cache line pair.
+  private static final int STRIPE_PADDING = 16;
+
+  //
+  // Attributes
+  //
+
+  private final AtomicLongArray cells;
+  private final int stripeMask;
+  // Totals the counters started from.
+  private final long baseGames;
+  private final long baseWins;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create the statistics with one stripe per available processor.
+   */
+  public SiteStatistics() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create the statistics with at least the given number of stripes.
+   *
+   * @param stripes
+   *    The minimum number of stripes; rounded up to a power of two.
+   *
+   * @throws IllegalArgumentException
+   *    when {@code stripes} is not positive
+   */
+  public SiteStatistics(final int stripes) {
+    this(stripes, new Snapshot(0, 0));
+  }
+
+  /**
+   * Create the statistics, with one stripe per available processor, starting
+   * from earlier totals.
+   *
+   * @param base
+   *    The totals to start from.
+   */
+  public SiteStatistics(final Snapshot base) {
+    this(Runtime.getRuntime().availableProcessors(), base);
+  }
+
+  /**
+   * Create the statistics starting from earlier totals.
+   *
+   * @param stripes
+   *    The minimum number of stripes; rounded up to a power of two.
+   * @param base
+   *    The totals to start from.
+   *
+   * @throws IllegalArgumentException
+   *    when {@code stripes} is not positive
+   */
+  public SiteStatistics(final int stripes, final Snapshot base) {
+    // validate arguments
+    if (stripes < 1) {
+      throw new IllegalArgumentException("stripes must be positive");
+    }
+    //
+    final int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.stripeMask = size - 1;
+    this.cells = new AtomicLongArray(size * STRIPE_PADDING);
+    this.baseGames = base.getTotalGames();
+    this.baseWins = base.getGamesWon();
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Record a finished game.
+   *
+   * @param won
+   *    true if the player won the game
+   */
+  public void gameFinished(final boolean won) {
+    cells.getAndAdd(stripeIndex(), won ? ONE_GAME + 1 : ONE_GAME);
+  }
+
+  /**
+   * Get a version number for the counters. The version changes whenever a game
+   * is recorded and is equal to the number of games finished; two reads that
+   * return the same version observed the same win count as well.
+   *
+   * @return the current version of the counters
+   */
+  public long version() {
+    long games = baseGames;
+    for (int i = 0; i <= stripeMask; i++) {
+      games += cells.get(i * STRIPE_PADDING) >>> 32;
+    }
+    return games;
+  }
+
+  /**
+   * Take a snapshot of the counters. The snapshot never reports more wins
+   * than games.
+   *
+   * @return the current {@link Snapshot}
+   */
+  public Snapshot snapshot() {
+    long games = baseGames;
+    long wins = baseWins;
+    for (int i = 0; i <= stripeMask; i++) {
+      final long cell = cells.get(i * STRIPE_PADDING);
+      games += cell >>> 32;
+      wins += cell & WINS_MASK;
+    }
+    return new Snapshot(games, wins);
+  }
+
+  //
+  // Private methods
+  //
+
+  private int stripeIndex() {
+    // spread the thread id so consecutive ids land on different stripes
+    final long id = Thread.currentThread().getId();
+    final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+    return ((hash ^ (hash >>> 16)) & stripeMask) * STRIPE_PADDING;
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * An immutable view of the counters at one moment.
+   */
+  public static final class Snapshot {
+    private final long totalGames;
+    private final long gamesWon;
+
+    Snapshot(final long totalGames, final long gamesWon) {
+      this.totalGames = totalGames;
+      this.gamesWon = gamesWon;
+    }
+
+    /**
+     * @return the number of games finished
+     */
+    public long getTotalGames() {
+      return totalGames;
+    }
+
+    /**
+     * @return the number of games won
+     */
+    public long getGamesWon() {
+      return gamesWon;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.appl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.example.model.GuessGame;
+
+/**
+ * A {@link GameStore} that keeps every game as one packed {@code long} in
+ * direct (off-heap) memory, so the heap does not grow with the number of
+ * players and the garbage collector never has to trace game state.
+ *
+ * <p>
+ * Memory is reserved in pages of {@value #PAGE_SIZE} slots as the number of
+ * players grows; released slots are reused before new pages are reserved.
+ * Slot allocation is synchronized; loading and saving a slot is not.
+ * </p>
+ */
+public class SlabGameStore implements GameStore {
+
+  //
+  // Constants
+  //
+
+  static final int PAGE_SIZE = 1 << 16;
+  private static final int PAGE_SHIFT = 16;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int SLOT_BYTES = Long.BYTES;
+  // Marks an empty slot; a packed game is never negative.
+  private static final long EMPTY = -1L;
+
+  //
+  // Attributes
+  //
+
+  // Replaced, never modified, when a page is added.
+  private volatile ByteBuffer[] pages = new ByteBuffer[0];
+  // Slots handed back by released players; guarded by this.
+  private int[] freeSlots = new int[PAGE_SIZE];
+  private int freeCount = 0;
+  // The first slot that has never been allocated; guarded by this.
+  private int nextSlot = 0;
+
+  //
+  // Public methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized int allocate() {
+    final int slot;
+    if (freeCount > 0) {
+      slot = freeSlots[--freeCount];
+    } else {
+      if (nextSlot == Integer.MAX_VALUE) {
+        throw new IllegalStateException("No more game slots available.");
+      }
+      slot = nextSlot++;
+      if ((slot & PAGE_MASK) == 0) {
+        addPage();
+      }
+    }
+    save(slot, null);
+    return slot;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public GuessGame load(final int slot) {
+    final long packedState = pages[slot >>> PAGE_SHIFT].getLong((slot & PAGE_MASK) * SLOT_BYTES);
+    return packedState == EMPTY ? null : GuessGame.fromPackedState(packedState);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean loadInto(final int slot, final GuessGame game) {
+    final long packedState = pages[slot >>> PAGE_SHIFT].getLong((slot & PAGE_MASK) * SLOT_BYTES);
+    if (packedState == EMPTY) {
+      return false;
+    }
+    game.restore(packedState);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void save(final int slot, final GuessGame game) {
+    final long packedState = game == null ? EMPTY : game.toPackedState();
+    pages[slot >>> PAGE_SHIFT].putLong((slot & PAGE_MASK) * SLOT_BYTES, packedState);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void release(final int slot) {
+    save(slot, null);
+    if (freeCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+    }
+    freeSlots[freeCount++] = slot;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized int size() {
+    return nextSlot - freeCount;
+  }
+
+  //
+  // Private methods
+  //
+
+  private void addPage() {
+    final ByteBuffer[] grown = Arrays.copyOf(pages, pages.length + 1);
+    grown[pages.length] = ByteBuffer.allocateDirect(PAGE_SIZE * SLOT_BYTES);
+    pages = grown;
+  }
+}
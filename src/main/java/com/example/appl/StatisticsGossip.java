@@ -0,0 +1,193 @@
+package com.example.appl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shares the {@link ClusterStatistics} of the nodes of a cluster through a
+ * directory they all can reach.
+ *
+ * <p>
+ * Once per round each node writes every count it knows, its own included, to
+ * its own file in the directory, and merges the counts in the files of the
+ * others. A file is replaced in one rename, so a reader sees either the old or
+ * the new counts. Because merging only ever keeps the larger counts, a late,
+ * missing or repeated file delays the totals but never makes them wrong.
+ * </p>
+ *
+ * <p>
+ * Each file holds one line per node: the node id, its games and its wins,
+ * separated by spaces.
+ * </p>
+ */
+public class StatisticsGossip {
+  private static final Logger LOG = Logger.getLogger(StatisticsGossip.class.getName());
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default time, in milliseconds, between rounds.
+   */
+  public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+  private static final String SUFFIX = ".stats";
+
+  //
+  // Attributes
+  //
+
+  private final ClusterStatistics cluster;
+  private final Supplier<SiteStatistics.Snapshot> localStatistics;
+  private final Path directory;
+  private final Path ownFile;
+  private final long intervalMillis;
+
+  private ScheduledExecutorService executor = null;
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create the gossip for one node.
+   *
+   * @param cluster
+   *    The {@link ClusterStatistics} of this node.
+   * @param localStatistics
+   *    Gives the counts of this node; see {@link GameCenter#getLocalGameStats()}.
+   * @param directory
+   *    The directory shared by every node.
+   * @param intervalMillis
+   *    The time, in milliseconds, between rounds.
+   *
+   * @throws IllegalArgumentException
+   *    when the node id cannot be used as a file name or the interval is not positive
+   */
+  public StatisticsGossip(final ClusterStatistics cluster, final Supplier<SiteStatistics.Snapshot> localStatistics,
+                          final Path directory, final long intervalMillis) {
+    // validate arguments
+    Objects.requireNonNull(cluster, "cluster must not be null");
+    Objects.requireNonNull(localStatistics, "localStatistics must not be null");
+    Objects.requireNonNull(directory, "directory must not be null");
+    if (!cluster.getNodeId().matches("[A-Za-z0-9._-]+")) {
+      throw new IllegalArgumentException("node id must be letters, digits, '.', '_' or '-'");
+    }
+    if (intervalMillis <= 0) {
+      throw new IllegalArgumentException("intervalMillis must be positive");
+    }
+    //
+    this.cluster = cluster;
+    this.localStatistics = localStatistics;
+    this.directory = directory;
+    this.ownFile = directory.resolve(cluster.getNodeId() + SUFFIX);
+    this.intervalMillis = intervalMillis;
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Start the background thread that runs one round per interval.
+   */
+  public synchronized void start() {
+    if (executor != null) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "statistics-gossip");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::runRound, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    LOG.config("Statistics gossip started for node " + cluster.getNodeId() + " in " + directory + ".");
+  }
+
+  /**
+   * Stop the background thread.
+   */
+  public synchronized void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
+  /**
+   * Publish the counts of this node and merge those of the others.
+   *
+   * @throws IOException
+   *    when the directory cannot be read or written
+   */
+  public synchronized void round() throws IOException {
+    publish();
+    final List<Path> peers = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path file : files) {
+        if (!file.equals(ownFile)) {
+          peers.add(file);
+        }
+      }
+    }
+    for (Path peer : peers) {
+      try {
+        cluster.merge(read(peer));
+      } catch (IOException | RuntimeException e) {
+        // a peer's broken file must not stop the others from being merged
+        LOG.log(Level.FINE, "Skipped statistics file " + peer, e);
+      }
+    }
+  }
+
+  //
+  // Private methods
+  //
+
+  private void runRound() {
+    try {
+      round();
+    } catch (IOException | RuntimeException e) {
+      LOG.log(Level.WARNING, "Statistics gossip round failed.", e);
+    }
+  }
+
+  private void publish() throws IOException {
+    final StringBuilder text = new StringBuilder();
+    for (Map.Entry<String, SiteStatistics.Snapshot> entry : cluster.counts(localStatistics.get()).entrySet()) {
+      text.append(entry.getKey()).append(' ')
+          .append(entry.getValue().getTotalGames()).append(' ')
+          .append(entry.getValue().getGamesWon()).append('\n');
+    }
+    final Path temporary = directory.resolve(cluster.getNodeId() + SUFFIX + ".tmp");
+    Files.write(temporary, text.toString().getBytes(StandardCharsets.UTF_8));
+    Files.move(temporary, ownFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static Map<String, SiteStatistics.Snapshot> read(final Path file) throws IOException {
+    final Map<String, SiteStatistics.Snapshot> counts = new HashMap<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      final String[] fields = line.trim().split(" ");
+      if (fields.length == 3) {
+        counts.put(fields[0], new SiteStatistics.Snapshot(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+      }
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.appl;
+
+/**
+ * Keeps the sitewide statistics beyond the life of the application.
+ *
+ * <p>
+ * The {@link GameCenter} reads the statistics saved by earlier runs once, when it
+ * is created, and then tells the store about every finished game. A store must
+ * not make the player that finished the game wait for storage; it is expected to
+ * save in the background.
+ * </p>
+ */
+public interface StatisticsStore {
+
+  /**
+   * Get the statistics saved by earlier runs.
+   *
+   * @return the saved totals; zero when nothing was saved
+   */
+  SiteStatistics.Snapshot recover();
+
+  /**
+   * Record a finished game. Safe to call from any thread; must not block.
+   *
+   * @param won
+   *    true if the player won the game
+   */
+  void gameFinished(boolean won);
+}
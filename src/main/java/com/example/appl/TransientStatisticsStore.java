@@ -0,0 +1,18 @@
+package com.example.appl;
+
+/**
+ * A {@link StatisticsStore} that saves nothing; the statistics start from zero
+ * with every run.
+ */
+public class TransientStatisticsStore implements StatisticsStore {
+
+  @Override
+  public SiteStatistics.Snapshot recover() {
+    return new SiteStatistics.Snapshot(0, 0);
+  }
+
+  @Override
+  public void gameFinished(final boolean won) {
+    // nothing to save
+  }
+}
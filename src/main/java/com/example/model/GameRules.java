@@ -0,0 +1,238 @@
+package com.example.model;
+
+import java.util.Arrays;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The rules of a variant of the guessing game: the range the number to guess is
+ * drawn from, how many guesses a player has, and whether a wrong guess tells the
+ * player to go higher or lower.
+ *
+ * <p>
+ * Rules are immutable and interned: {@link #of(int, int, boolean)} returns the
+ * same instance for the same rules, and each distinct set of rules gets a small
+ * id in the order it was first asked for, by which a packed {@link GuessGame}
+ * names its rules. Every server that shares packed games, for example through
+ * {@code token} session cookies, must therefore ask for the same rules in the
+ * same order; {@link #CLASSIC} always has id zero.
+ * </p>
+ *
+ * <p>
+ * Checking a guess and judging it are a few comparisons, whatever the size of
+ * the range, and never allocate.
+ * </p>
+ */
+public final class GameRules {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The largest number of guesses a game can allow; enough to find any number
+   * by halving the range every guess.
+   */
+  public static final int MAX_GUESSES = 255;
+
+  /**
+   * The largest number of distinct rules that can be in use.
+   */
+  public static final int MAX_RULES = 256;
+
+  // Interned rules by id; replaced, never modified, when rules are added.
+  private static volatile GameRules[] byId = new GameRules[0];
+
+  /**
+   * The original game: a number from zero to nine and three guesses, without hints.
+   */
+  public static final GameRules CLASSIC = of(10, 3, false);
+
+  //
+  // Attributes
+  //
+
+  private final int id;
+  private final int upperBound;
+  private final int guesses;
+  private final boolean hints;
+
+  //
+  // Constructor
+  //
+
+  private GameRules(final int id, final int upperBound, final int guesses, final boolean hints) {
+    this.id = id;
+    this.upperBound = upperBound;
+    this.guesses = guesses;
+    this.hints = hints;
+  }
+
+  //
+  // Static methods
+  //
+
+  /**
+   * Get the rules of a variant.
+   *
+   * @param upperBound
+   *    The number of numbers the number to guess is drawn from, starting at zero;
+   *    up to {@link Integer#MAX_VALUE}.
+   * @param guesses
+   *    The number of guesses a player has, from one to {@value #MAX_GUESSES}.
+   * @param hints
+   *    Whether a wrong guess tells the player whether the number is higher or lower.
+   *
+   * @return the rules
+   *
+   * @throws IllegalArgumentException
+   *    when the {@code upperBound} or {@code guesses} is out of range, or there
+   *    are already {@value #MAX_RULES} distinct rules
+   */
+  public static GameRules of(final int upperBound, final int guesses, final boolean hints) {
+    // validate arguments
+    if (upperBound < 1) {
+      throw new IllegalArgumentException("upperBound must be positive");
+    }
+    if (guesses < 1 || guesses > MAX_GUESSES) {
+      throw new IllegalArgumentException("guesses must be from 1 to " + MAX_GUESSES);
+    }
+    //
+    final GameRules existing = find(byId, upperBound, guesses, hints);
+    return existing != null ? existing : intern(upperBound, guesses, hints);
+  }
+
+  /**
+   * Get the rules with the id returned by {@link #getId()}.
+   *
+   * @param id
+   *    The id of the rules.
+   *
+   * @return the rules
+   *
+   * @throws IllegalArgumentException
+   *    when no rules have the id on this server
+   */
+  public static GameRules byId(final int id) {
+    final GameRules[] rules = byId;
+    if (id < 0 || id >= rules.length) {
+      throw new IllegalArgumentException("No game rules with id " + id);
+    }
+    return rules[id];
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * @return the id by which a packed game names these rules
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * @return the number of numbers the number to guess is drawn from, starting at zero
+   */
+  public int getUpperBound() {
+    return upperBound;
+  }
+
+  /**
+   * @return the highest number that can be guessed
+   */
+  public int getHighestNumber() {
+    return upperBound - 1;
+  }
+
+  /**
+   * @return the number of guesses a player has
+   */
+  public int getGuesses() {
+    return guesses;
+  }
+
+  /**
+   * @return true if a wrong guess tells the player to go higher or lower
+   */
+  public boolean hasHints() {
+    return hints;
+  }
+
+  /**
+   * Queries whether a guess falls within the range.
+   *
+   * @param guess
+   *    The guess.
+   *
+   * @return true if the guess can be made
+   */
+  public boolean isValidGuess(final int guess) {
+    return guess >= 0 && guess < upperBound;
+  }
+
+  /**
+   * Judge a valid guess.
+   *
+   * @param numberToGuess
+   *    The number to be guessed.
+   * @param guess
+   *    The guess, which must be valid.
+   * @param guessesLeft
+   *    The guesses left after this one.
+   *
+   * @return {@link GuessResult#WON}, {@link GuessResult#LOST} when no guesses are
+   *    left, and otherwise {@link GuessResult#TOO_LOW} or {@link GuessResult#TOO_HIGH}
+   *    with hints or {@link GuessResult#WRONG} without
+   */
+  public GuessResult judge(final int numberToGuess, final int guess, final int guessesLeft) {
+    if (guess == numberToGuess) {
+      return GuessResult.WON;
+    } else if (guessesLeft == 0) {
+      return GuessResult.LOST;
+    } else if (!hints) {
+      return GuessResult.WRONG;
+    } else {
+      return guess < numberToGuess ? GuessResult.TOO_LOW : GuessResult.TOO_HIGH;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "{Rules 0-" + getHighestNumber() + ", " + guesses + " guesses" + (hints ? ", hints}" : "}");
+  }
+
+  //
+  // Private methods
+  //
+
+  private static synchronized GameRules intern(final int upperBound, final int guesses, final boolean hints) {
+    final GameRules[] rules = byId;
+    final GameRules existing = find(rules, upperBound, guesses, hints);
+    if (existing != null) {
+      return existing;
+    }
+    if (rules.length == MAX_RULES) {
+      throw new IllegalArgumentException("There are already " + MAX_RULES + " game rules.");
+    }
+    final GameRules created = new GameRules(rules.length, upperBound, guesses, hints);
+    final GameRules[] grown = Arrays.copyOf(rules, rules.length + 1);
+    grown[rules.length] = created;
+    byId = grown;
+    return created;
+  }
+
+  private static GameRules find(final GameRules[] rules, final int upperBound, final int guesses,
+                                final boolean hints) {
+    for (GameRules candidate : rules) {
+      if (candidate.upperBound == upperBound && candidate.guesses == guesses && candidate.hints == hints) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+}
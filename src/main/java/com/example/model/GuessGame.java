@@ -1,10 +1,20 @@
 package com.example.model;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * A single "guessing game".
+ * A single "guessing game", played by the {@link GameRules} it was created with.
+ *
+ * <p>
+ * Guesses may be made on a game from any thread. A game can also be recycled:
+ * {@link #reset(GameRules, int)} starts it over as a new game and
+ * {@link #restore(long)} puts it in the state of a packed game, so that an owner
+ * that plays game after game does not have to create one each time. Only the
+ * owner may do that, and only while no other thread is using the game.
+ * </p>
  *
  * @author <a href='mailto:bdbvse@rit.edu'>Bryan Basham</a>
  * @author <a href='mailto:jrv@se.rit.edu'>Jim Vallino</a>
@@ -12,34 +22,45 @@ import java.util.logging.Logger;
 public class GuessGame {
   private static final Logger LOG = Logger.getLogger(GuessGame.class.getName());
 
-  // The results for a player making a guess.
-  public enum GuessResult {INVALID, WRONG, WON, LOST}
+  // The results for a player making a guess; TOO_LOW and TOO_HIGH replace WRONG under rules with hints.
+  public enum GuessResult {INVALID, WRONG, WON, LOST, TOO_LOW, TOO_HIGH}
 
   //
   // Constants
   //
 
   /**
-   * The upper bound on the numbers to be guessed. This is public so that other
-   * components to read it; especially for unit testing.
+   * The upper bound on the numbers to be guessed under the {@link GameRules#CLASSIC}
+   * rules. This is public so that other components to read it; especially for unit testing.
    */
   public static final int UPPER_BOUND = 10;
 
   /**
-   * The number of guess attempts alloted. This is public so that other
-   * components to read it; especially for unit testing.
+   * The number of guess attempts alloted under the {@link GameRules#CLASSIC} rules.
+   * This is public so that other components to read it; especially for unit testing.
    */
   public static final int NUM_OF_GUESSES = 3;
 
-  private static final Random RANDOM = new Random();
+  // The game state packs the rules id above the guesses left above the last result;
+  // see encode(GameRules, int, GuessResult).
+  private static final int RESULT_BITS = 3;
+  private static final int RESULT_MASK = (1 << RESULT_BITS) - 1;
+  private static final int GUESSES_BITS = 8;
+  private static final int GUESSES_MASK = (1 << GUESSES_BITS) - 1;
+  private static final int RULES_SHIFT = RESULT_BITS + GUESSES_BITS;
+  private static final GuessResult[] RESULTS = GuessResult.values();
+  private static final AtomicIntegerFieldUpdater<GuessGame> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(GuessGame.class, "state");
 
   //
   // Attributes
   //
 
-  private final int numberToGuess;
-  private GuessResult lastResult = null;
-  private int howManyGuessesLeft = NUM_OF_GUESSES;
+  // Replaced only when the game is reset or restored, by the thread that owns it.
+  private GameRules rules;
+  private int numberToGuess;
+  // The rules id, the guesses left and the last result; only ever replaced as a whole by compare-and-set.
+  private volatile int state;
 
   //
   // Constructors
@@ -48,42 +69,150 @@ public class GuessGame {
   /**
    * Create a guessing game with a known number.
    *
+   * @param rules
+   *          The rules of the game.
    * @param numberToGuess
    *          The number to be guessed.
    *
+   * @throws NullPointerException
+   *    when the {@code rules} parameter is null
    * @throws IllegalArgumentException
    *    when the {@code numberToGuess} is out of range
    */
-  public GuessGame(final int numberToGuess) {
-    // validate arguments
-    if (numberToGuess < 0 || numberToGuess >= UPPER_BOUND) {
-      throw new IllegalArgumentException("numberToGuess is out of range");
-    }
-    //
-    LOG.fine("Game created " + numberToGuess);
-    this.numberToGuess = numberToGuess;
+  public GuessGame(final GameRules rules, final int numberToGuess) {
+    start(rules, numberToGuess);
+  }
+
+  /**
+   * Create a guessing game with a random number drawn by the
+   * {@link NumberSource#THREAD_LOCAL} source.
+   *
+   * @param rules
+   *          The rules of the game.
+   */
+  public GuessGame(final GameRules rules) {
+    this(rules, NumberSource.THREAD_LOCAL);
   }
 
   /**
    * Create a guessing game with a random number.
    *
+   * @param rules
+   *          The rules of the game.
+   * @param numbers
+   *          The source the number to be guessed is drawn from.
+   */
+  public GuessGame(final GameRules rules, final NumberSource numbers) {
+    this(rules, numbers.nextNumber(rules.getUpperBound()));
+  }
+
+  /**
+   * Create a guessing game with a known number under the {@link GameRules#CLASSIC} rules.
+   *
+   * @param numberToGuess
+   *          The number to be guessed.
+   *
+   * @throws IllegalArgumentException
+   *    when the {@code numberToGuess} is out of range
+   */
+  public GuessGame(final int numberToGuess) {
+    this(GameRules.CLASSIC, numberToGuess);
+  }
+
+  /**
+   * Create a guessing game with a random number under the {@link GameRules#CLASSIC} rules.
+   *
    */
   public GuessGame() {
-    this(RANDOM.nextInt(UPPER_BOUND));
+    this(GameRules.CLASSIC);
+  }
+
+  /**
+   * Recreate a guessing game from its packed state.
+   */
+  private GuessGame(final int numberToGuess, final int state) {
+    this.rules = GameRules.byId(state >>> RULES_SHIFT);
+    this.numberToGuess = numberToGuess;
+    this.state = state;
+  }
+
+  //
+  // Static methods
+  //
+
+  /**
+   * Recreate a game from the value returned by {@link #toPackedState()}.
+   *
+   * @param packedState
+   *          The packed state of a game.
+   *
+   * @return a game in the same state as the one that was packed
+   *
+   * @throws IllegalArgumentException
+   *    when the game's rules are not known on this server
+   */
+  public static GuessGame fromPackedState(final long packedState) {
+    return new GuessGame((int) (packedState >>> 32), (int) packedState);
   }
 
   //
   // Public methods
   //
 
+  /**
+   * Start this game over as a new game with a known number. Only the owner of
+   * the game may call this, while no other thread is using it.
+   *
+   * @param rules
+   *          The rules of the new game.
+   * @param numberToGuess
+   *          The number to be guessed.
+   *
+   * @throws NullPointerException
+   *    when the {@code rules} parameter is null
+   * @throws IllegalArgumentException
+   *    when the {@code numberToGuess} is out of range
+   */
+  public void reset(final GameRules rules, final int numberToGuess) {
+    start(rules, numberToGuess);
+  }
+
+  /**
+   * Put this game in the state of the game packed by {@link #toPackedState()},
+   * as {@link #fromPackedState(long)} does without creating a game. Only the
+   * owner of the game may call this, while no other thread is using it.
+   *
+   * @param packedState
+   *          The packed state of a game.
+   *
+   * @throws IllegalArgumentException
+   *    when the game's rules are not known on this server
+   */
+  public void restore(final long packedState) {
+    final int restored = (int) packedState;
+    this.rules = GameRules.byId(restored >>> RULES_SHIFT);
+    this.numberToGuess = (int) (packedState >>> 32);
+    // written last: a thread that reads the state sees the rules and number that go with it
+    this.state = restored;
+  }
+
   /**
    * Queries whether the game is at the beginning; meaning no guesses have yet
    * been made.
    *
    * @return true if no guesses have been made, otherwise, false
    */
-  public synchronized boolean isGameBeginning() {
-    return howManyGuessesLeft == NUM_OF_GUESSES;
+  public boolean isGameBeginning() {
+    return guessesLeft(state) == rules.getGuesses();
+  }
+
+  /**
+   * Get the rules this game is played by.
+   *
+   * @return the {@link GameRules} of this game
+   */
+  public GameRules getRules() {
+    return rules;
   }
 
   /**
@@ -96,7 +225,7 @@ public class GuessGame {
    * @return true if the guess falls within the game bounds, otherwise, false
    */
   public boolean isValidGuess(int guess) {
-    return guess >= 0 && guess < UPPER_BOUND;
+    return rules.isValidGuess(guess);
   }
 
   /**
@@ -110,30 +239,31 @@ public class GuessGame {
    *
    * @return a {@link GuessResult} indicating the result of this guess
    */
-  public synchronized GuessResult makeGuess(final int myGuess) {
-    final GuessResult thisResult;
-    // validate arguments
-    if (myGuess < 0 || myGuess >= UPPER_BOUND) {
-      thisResult = GuessResult.INVALID;
-    } else {
-      // assert that the game isn't over
-      if (howManyGuessesLeft == 0) {
-        throw new IllegalStateException("No more guesses allowed.");
-      }
-      // mark this guess
-      howManyGuessesLeft--;
-      // decide if this game is finished
-      final boolean isCorrect = myGuess == numberToGuess;
-      if (isCorrect) {
-        thisResult = GuessResult.WON;
-      } else if (hasMoreGuesses()) {
-        thisResult = GuessResult.WRONG;
+  public GuessResult makeGuess(final int myGuess) {
+    while (true) {
+      final int current = state;
+      final int howManyGuessesLeft = guessesLeft(current);
+      final GuessResult thisResult;
+      final int next;
+      // validate arguments
+      if (!rules.isValidGuess(myGuess)) {
+        thisResult = GuessResult.INVALID;
+        next = encode(rules, howManyGuessesLeft, thisResult);
       } else {
-        thisResult = GuessResult.LOST;
+        // assert that the game isn't over
+        if (howManyGuessesLeft == 0) {
+          throw new IllegalStateException("No more guesses allowed.");
+        }
+        // mark this guess and decide if this game is finished
+        final int remaining = howManyGuessesLeft - 1;
+        thisResult = rules.judge(numberToGuess, myGuess, remaining);
+        next = encode(rules, remaining, thisResult);
+      }
+      // another guess on this game got in first; retry against its state
+      if (STATE.compareAndSet(this, current, next)) {
+        return thisResult;
       }
     }
-    lastResult = thisResult;
-    return thisResult;
   }
 
   /**
@@ -141,7 +271,8 @@ public class GuessGame {
    *
    * @return true if the game was won or lost with the last guess
    */
-  public synchronized boolean isFinished() {
+  public boolean isFinished() {
+    final GuessResult lastResult = lastResult(state);
     return GuessResult.WON.equals(lastResult) || GuessResult.LOST.equals(lastResult);
   }
 
@@ -150,8 +281,8 @@ public class GuessGame {
    *
    * @return true if there are more guesses to be made, otherwise, false
    */
-  public synchronized boolean hasMoreGuesses() {
-    return howManyGuessesLeft > 0;
+  public boolean hasMoreGuesses() {
+    return guessesLeft(state) > 0;
   }
 
   /**
@@ -159,15 +290,68 @@ public class GuessGame {
    *
    * @return the number of guesses left in this game
    */
-  public synchronized int guessesLeft() {
-    return howManyGuessesLeft;
+  public int guessesLeft() {
+    return guessesLeft(state);
+  }
+
+  /**
+   * Packs the whole game, including the number to guess, into one long so that
+   * it can be kept outside of the Java heap. The value is never negative.
+   *
+   * @return the packed state of this game
+   */
+  public long toPackedState() {
+    return ((long) numberToGuess << 32) | (state & 0xFFFFFFFFL);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public synchronized String toString() {
+  public String toString() {
     return "{Game " + numberToGuess + "}";
   }
+
+  //
+  // Private methods
+  //
+
+  private void start(final GameRules rules, final int numberToGuess) {
+    // validate arguments
+    Objects.requireNonNull(rules, "rules must not be null");
+    if (!rules.isValidGuess(numberToGuess)) {
+      throw new IllegalArgumentException("numberToGuess is out of range");
+    }
+    //
+    // check first: the number would be boxed even when the event is not logged
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "event=game_created secret={0,number,#} rules={1,number,#}",
+          new Object[] {numberToGuess, rules.getId()});
+    }
+    this.rules = rules;
+    this.numberToGuess = numberToGuess;
+    // written last: a thread that reads the state sees the rules and number that go with it
+    this.state = encode(rules, rules.getGuesses(), null);
+  }
+
+  /**
+   * Pack the game state into one int. The low bits hold the last result (zero
+   * when no guess has been made, otherwise its ordinal plus one), the next bits
+   * the number of guesses left and the remaining bits the id of the rules. The
+   * {@link GameRules#CLASSIC} rules have id zero, so their games pack as they
+   * did before there were other rules.
+   */
+  private static int encode(final GameRules rules, final int howManyGuessesLeft, final GuessResult lastResult) {
+    final int result = lastResult == null ? 0 : lastResult.ordinal() + 1;
+    return (rules.getId() << RULES_SHIFT) | (howManyGuessesLeft << RESULT_BITS) | result;
+  }
+
+  private static int guessesLeft(final int state) {
+    return (state >>> RESULT_BITS) & GUESSES_MASK;
+  }
+
+  private static GuessResult lastResult(final int state) {
+    final int result = state & RESULT_MASK;
+    return result == 0 ? null : RESULTS[result - 1];
+  }
 }
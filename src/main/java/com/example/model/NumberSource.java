@@ -0,0 +1,33 @@
+package com.example.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws the numbers players have to guess.
+ *
+ * <p>
+ * Every new game draws a number, so a source is called from every request
+ * thread at once and must be safe to share. {@link #THREAD_LOCAL} gives each
+ * thread a generator of its own, so drawing never touches memory another thread
+ * writes; {@link SecureNumberSource} makes the numbers unpredictable, for when
+ * players must not be able to work out the next number from the ones before.
+ * </p>
+ */
+@FunctionalInterface
+public interface NumberSource {
+
+  /**
+   * Draws from the {@link ThreadLocalRandom} of the calling thread.
+   */
+  NumberSource THREAD_LOCAL = upperBound -> ThreadLocalRandom.current().nextInt(upperBound);
+
+  /**
+   * Draw a number. Safe to call from any thread.
+   *
+   * @param upperBound
+   *    The number of numbers to draw from, starting at zero; must be positive.
+   *
+   * @return a number from zero to {@code upperBound - 1}, each equally likely
+   */
+  int nextNumber(int upperBound);
+}
@@ -0,0 +1,141 @@
+package com.example.model;
+
+import java.security.SecureRandom;
+import java.util.Objects;
+
+/**
+ * A {@link NumberSource} whose numbers cannot be predicted from the ones drawn
+ * before, for when players must not be able to cheat.
+ *
+ * <p>
+ * A {@link SecureRandom} is slow to call and serializes its callers, so the
+ * source takes its random bits from it in blocks and hands the numbers out of
+ * those. The blocks are striped by thread: each thread draws from the block its
+ * id picks, taking that block's lock, which only threads that share the stripe
+ * contend for. A block is refilled with one call to the {@code SecureRandom}
+ * once every {@code batch} numbers or so.
+ * </p>
+ */
+public final class SecureNumberSource implements NumberSource {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default number of numbers taken from the {@link SecureRandom} at a time.
+   */
+  public static final int DEFAULT_BATCH = 256;
+
+  //
+  // Attributes
+  //
+
+  private final SecureRandom random;
+  private final Block[] blocks;
+  private final int mask;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create a source with a new {@link SecureRandom} and the default batch.
+   */
+  public SecureNumberSource() {
+    this(new SecureRandom(), DEFAULT_BATCH);
+  }
+
+  /**
+   * Create a source.
+   *
+   * @param random
+   *    The generator the random bits are taken from.
+   * @param batch
+   *    The number of numbers each block takes from the generator at a time.
+   *
+   * @throws NullPointerException
+   *    when the {@code random} parameter is null
+   * @throws IllegalArgumentException
+   *    when {@code batch} is not positive
+   */
+  public SecureNumberSource(final SecureRandom random, final int batch) {
+    // validation
+    Objects.requireNonNull(random, "random must not be null");
+    if (batch < 1) {
+      throw new IllegalArgumentException("batch must be positive");
+    }
+    //
+    this.random = random;
+    // enough stripes that threads seldom share one; a power of two so a thread id masks to one
+    final int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+    this.blocks = new Block[stripes];
+    this.mask = stripes - 1;
+    for (int i = 0; i < stripes; i++) {
+      // each block is allocated next to its own buffer, which keeps blocks off each other's cache lines
+      blocks[i] = new Block(batch);
+    }
+  }
+
+  //
+  // NumberSource methods
+  //
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException
+   *    when {@code upperBound} is not positive
+   */
+  @Override
+  public int nextNumber(final int upperBound) {
+    if (upperBound < 1) {
+      throw new IllegalArgumentException("upperBound must be positive");
+    }
+    final Block block = blocks[(int) Thread.currentThread().getId() & mask];
+    final int max = upperBound - 1;
+    synchronized (block) {
+      if ((upperBound & max) == 0) {
+        return block.next(random) & max;
+      }
+      // as Random.nextInt(int) does: redraw the few values that would make low numbers likelier
+      int bits;
+      int value;
+      do {
+        bits = block.next(random);
+        value = bits % upperBound;
+      } while (bits - value + max < 0);
+      return value;
+    }
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * Random bits taken from the generator, handed out 31 at a time.
+   */
+  private static final class Block {
+    private final byte[] bytes;
+    private int position;
+
+    Block(final int batch) {
+      this.bytes = new byte[batch * Integer.BYTES];
+      this.position = bytes.length;
+    }
+
+    /**
+     * @return a random non-negative int; the caller holds the block's lock
+     */
+    int next(final SecureRandom random) {
+      if (position == bytes.length) {
+        random.nextBytes(bytes);
+        position = 0;
+      }
+      final int p = position;
+      position = p + Integer.BYTES;
+      return (bytes[p] & 0x7f) << 24 | (bytes[p + 1] & 0xff) << 16 | (bytes[p + 2] & 0xff) << 8 | bytes[p + 3] & 0xff;
+    }
+  }
+}
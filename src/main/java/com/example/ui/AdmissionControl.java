@@ -0,0 +1,189 @@
+package com.example.ui;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+
+import spark.Request;
+import spark.Response;
+import static spark.Spark.halt;
+
+/**
+ * Turns requests away, with {@code 429 Too Many Requests}, before they reach the
+ * routes: those of a client that asks faster than its rate, and any that arrive
+ * while the server already has its limit of requests in progress.
+ *
+ * <p>
+ * Each client is held to a rate by a {@link RateLimiter} token bucket. A client
+ * is its HTTP session when it sends the id of a live one, and otherwise its IP
+ * address; a made-up session id counts as no session, so that a client cannot
+ * get a new bucket by inventing ids. Requests are refused at once rather than
+ * queued, and cost no more than a compare-and-set or two.
+ * </p>
+ */
+public class AdmissionControl {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default number of requests per second a client may make on the game routes.
+   */
+  public static final int DEFAULT_REQUESTS_PER_SECOND = 20;
+
+  /**
+   * The default number of requests a client may make at once after being idle.
+   */
+  public static final int DEFAULT_BURST = 40;
+
+  /**
+   * The default number of clients whose rate is tracked.
+   */
+  public static final int DEFAULT_MAX_CLIENTS = 1 << 16;
+
+  /**
+   * The largest number of requests in progress by default: none, no limit.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT = 0;
+
+  static final String TOO_MANY_REQUESTS = "Too many requests; try again in a moment.";
+  private static final int TOO_MANY_REQUESTS_STATUS = 429;
+  // Marks a request that was counted as in progress, so that it is counted out again.
+  private static final String ADMITTED_ATTR = AdmissionControl.class.getName() + ".admitted";
+
+  //
+  // Attributes
+  //
+
+  // Null when clients are not limited.
+  private final RateLimiter rateLimiter;
+  private final int maxConcurrent;
+  private final AtomicInteger inProgress = new AtomicInteger();
+  private final LongAdder rateRejections = new LongAdder();
+  private final LongAdder concurrencyRejections = new LongAdder();
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create the admission control.
+   *
+   * @param requestsPerSecond
+   *    The rate at which each client may make requests on the game routes; zero for no limit.
+   * @param burst
+   *    The number of requests a client may make at once after being idle.
+   * @param maxClients
+   *    The number of clients whose rate is tracked; beyond that the longest idle are forgotten.
+   * @param maxConcurrent
+   *    The largest number of requests in progress at once; zero for no limit.
+   *
+   * @throws IllegalArgumentException
+   *    when a limit is negative, or {@code burst} or {@code maxClients} is not positive
+   */
+  public AdmissionControl(final int requestsPerSecond, final int burst, final int maxClients,
+                          final int maxConcurrent) {
+    // validate arguments
+    if (requestsPerSecond < 0 || maxConcurrent < 0) {
+      throw new IllegalArgumentException("requestsPerSecond and maxConcurrent must not be negative");
+    }
+    if (burst < 1 || maxClients < 1) {
+      throw new IllegalArgumentException("burst and maxClients must be positive");
+    }
+    //
+    this.rateLimiter = requestsPerSecond == 0 ? null : new RateLimiter(requestsPerSecond, burst, maxClients);
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  /**
+   * Create the admission control with the default limits.
+   */
+  public AdmissionControl() {
+    this(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BURST, DEFAULT_MAX_CLIENTS, DEFAULT_MAX_CONCURRENT);
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * A before-filter that turns the request away if its client has no token left.
+   */
+  void limitRate(final Request request, final Response response) {
+    if (rateLimiter != null && !rateLimiter.tryAcquire(clientOf(request))) {
+      rateRejections.increment();
+      reject(request, response);
+    }
+  }
+
+  /**
+   * A before-filter that counts the request in, or turns it away if the server
+   * is at its limit. The metrics are always let through, so that an overloaded
+   * server can still be watched.
+   */
+  void enter(final Request request, final Response response) {
+    if (maxConcurrent == 0 || WebServer.METRICS_URL.equals(request.pathInfo())) {
+      return;
+    }
+    if (inProgress.incrementAndGet() > maxConcurrent) {
+      inProgress.decrementAndGet();
+      concurrencyRejections.increment();
+      reject(request, response);
+    }
+    request.attribute(ADMITTED_ATTR, Boolean.TRUE);
+  }
+
+  /**
+   * An after-after-filter, run however the request ended, that counts out a
+   * request that {@link #enter(Request, Response)} counted in.
+   */
+  void leave(final Request request, final Response response) {
+    if (request.attribute(ADMITTED_ATTR) != null) {
+      inProgress.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return the number of requests in progress, when their number is limited
+   */
+  int getInProgress() {
+    return inProgress.get();
+  }
+
+  /**
+   * @return the number of requests turned away because their client asked too fast
+   */
+  long getRateRejections() {
+    return rateRejections.sum();
+  }
+
+  /**
+   * @return the number of requests turned away because the server had too many in progress
+   */
+  long getConcurrencyRejections() {
+    return concurrencyRejections.sum();
+  }
+
+  //
+  // Private methods
+  //
+
+  private static String clientOf(final Request request) {
+    final HttpServletRequest raw = request.raw();
+    final String sessionId = raw.getRequestedSessionId();
+    // only a session the server knows counts, or a client could make up an id for every request
+    return sessionId != null && raw.isRequestedSessionIdValid() ? sessionId : request.ip();
+  }
+
+  private static void reject(final Request request, final Response response) {
+    response.header("Retry-After", "1");
+    final String path = request.pathInfo();
+    if (path != null && path.startsWith("/api/")) {
+      halt(TOO_MANY_REQUESTS_STATUS, GetApiGameRoute.error(response, TOO_MANY_REQUESTS_STATUS, TOO_MANY_REQUESTS));
+    }
+    response.type("text/plain; charset=utf-8");
+    halt(TOO_MANY_REQUESTS_STATUS, TOO_MANY_REQUESTS);
+  }
+}
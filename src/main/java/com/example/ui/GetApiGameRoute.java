@@ -0,0 +1,82 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.PlayerServices;
+
+/**
+ * The {@code GET /api/v1/game} route handler. Answers with the status of the
+ * player's game as JSON, without starting one.
+ */
+public class GetApiGameRoute implements Route {
+
+  private final PlayerSessionStore sessions;
+
+  /**
+   * The constructor for the {@code GET /api/v1/game} route handler.
+   *
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players.
+   *
+   * @throws NullPointerException
+   *    when the {@code sessions} parameter is null
+   */
+  GetApiGameRoute(final PlayerSessionStore sessions) {
+    // validation
+    Objects.requireNonNull(sessions, "sessions must not be null");
+    //
+    this.sessions = sessions;
+  }
+
+  //
+  // Static methods
+  //
+
+  /**
+   * Start the JSON status of a game; callers may add fields before closing it.
+   */
+  static JsonWriter gameStatus(final boolean inProgress, final boolean firstGuess, final int guessesLeft) {
+    return new JsonWriter()
+        .field("inProgress", inProgress)
+        .field("firstGuess", firstGuess)
+        .field("guessesLeft", guessesLeft);
+  }
+
+  /**
+   * Make the JSON body of an error response and set its status.
+   */
+  static String error(final Response response, final int status, final String message) {
+    response.status(status);
+    response.type(JsonWriter.CONTENT_TYPE);
+    return new JsonWriter().field("error", message).toString();
+  }
+
+  //
+  // Route method
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    final PlayerServices playerServices = sessions.find(request);
+    if (playerServices == null) {
+      return error(response, 404, "No player session; start a game first.");
+    }
+
+    response.type(JsonWriter.CONTENT_TYPE);
+    // one status, read while no other request can finish the game
+    synchronized (playerServices) {
+      if (playerServices.hasGame()) {
+        return gameStatus(true, playerServices.isStartingGame(), playerServices.guessesLeft()).toString();
+      } else {
+        return gameStatus(false, false, 0).toString();
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.ui;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.GameCenter;
+import com.example.appl.RollingStatistics;
+
+/**
+ * The {@code GET /api/v1/stats/recent} route handler. Answers with the games,
+ * wins and guesses of the last minute, hour and day on this server as JSON,
+ * with one object per window. {@code seconds} is the time the window covers,
+ * over which its rates are taken: up to the window's length, and less while
+ * the server has only just started.
+ *
+ * <pre>
+ *   {"minute":{"seconds":59.7,"games":3,"wins":1,"guesses":7,
+ *              "gamesPerSecond":0.05,"winsPerSecond":0.0167,"guessesPerSecond":0.1167},
+ *    "hour":{...},"day":{...}}
+ * </pre>
+ */
+public class GetApiRecentStatsRoute implements Route {
+
+  // Rates are rounded to this many decimal places.
+  private static final double RATE_SCALE = 10_000.0;
+
+  private final GameCenter gameCenter;
+
+  /**
+   * The constructor for the {@code GET /api/v1/stats/recent} route handler.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} for the application.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} parameter is null
+   */
+  GetApiRecentStatsRoute(final GameCenter gameCenter) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    //
+    this.gameCenter = gameCenter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    final JsonWriter json = new JsonWriter();
+    for (RollingStatistics.Window window : RollingStatistics.Window.values()) {
+      final RollingStatistics.Totals totals = gameCenter.getRecentGameStats(window);
+      json.rawField(window.name().toLowerCase(Locale.ROOT), new JsonWriter()
+          .field("seconds", round(totals.getSeconds()))
+          .field("games", totals.getGames())
+          .field("wins", totals.getWins())
+          .field("guesses", totals.getGuesses())
+          .field("gamesPerSecond", round(totals.getGamesPerSecond()))
+          .field("winsPerSecond", round(totals.getWinsPerSecond()))
+          .field("guessesPerSecond", round(totals.getGuessesPerSecond()))
+          .toString());
+    }
+    response.type(JsonWriter.CONTENT_TYPE);
+    return json.toString();
+  }
+
+  private static double round(final double rate) {
+    return Math.round(rate * RATE_SCALE) / RATE_SCALE;
+  }
+}
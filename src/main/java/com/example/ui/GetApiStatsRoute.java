@@ -0,0 +1,49 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.GameCenter;
+import com.example.appl.SiteStatistics;
+
+/**
+ * The {@code GET /api/v1/stats} route handler. Answers with the sitewide
+ * statistics as JSON.
+ */
+public class GetApiStatsRoute implements Route {
+
+  private final GameCenter gameCenter;
+
+  /**
+   * The constructor for the {@code GET /api/v1/stats} route handler.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} for the application.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} parameter is null
+   */
+  GetApiStatsRoute(final GameCenter gameCenter) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    //
+    this.gameCenter = gameCenter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    final SiteStatistics.Snapshot stats = gameCenter.getGameStats();
+    response.type(JsonWriter.CONTENT_TYPE);
+    return new JsonWriter()
+        .field("totalGames", stats.getTotalGames())
+        .field("gamesWon", stats.getGamesWon())
+        .field("message", gameCenter.getGameStatsMessage())
+        .toString();
+  }
+}
@@ -8,12 +8,9 @@ import spark.ModelAndView;
 import spark.Request;
 import spark.Response;
 import spark.Route;
-import spark.Session;
 import spark.TemplateEngine;
-import static spark.Spark.halt;
 
 import com.example.appl.PlayerServices;
-import com.example.model.GuessGame;
 
 /**
  * The {@code GET /game} route handler.
@@ -26,22 +23,28 @@ public class GetGameRoute implements Route {
   // Values used in the view-model map for rendering the game view.
   static final String GAME_BEGINS_ATTR = "isFirstGuess";
   static final String GUESSES_LEFT_ATTR = "guessesLeft";
+  static final String HIGHEST_NUMBER_ATTR = "highestNumber";
   static final String TITLE = "Number Guess Game";
   static final String VIEW_NAME = "game_form.ftl";
 
   private final TemplateEngine templateEngine;
+  private final PlayerSessionStore sessions;
 
   /**
    * The constructor for the {@code GET /game} route handler.
    *
    * @param templateEngine
    *    The {@link TemplateEngine} used for rendering page HTML.
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players.
    */
-  GetGameRoute(final TemplateEngine templateEngine) {
+  GetGameRoute(final TemplateEngine templateEngine, final PlayerSessionStore sessions) {
     // validation
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+    Objects.requireNonNull(sessions, "sessions must not be null");
     //
     this.templateEngine = templateEngine;
+    this.sessions = sessions;
   }
 
   /**
@@ -49,29 +52,26 @@ public class GetGameRoute implements Route {
    */
   @Override
   public String handle(Request request, Response response) {
-    // retrieve the game object and start one if no game is in progress
-    final Session httpSession = request.session();
-    final PlayerServices playerServices =
-        httpSession.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
-
-    /* A null playerServices indicates a timed out session or an illegal request on this URL.
-     * In either case, we will redirect back to home.
-     */
-    if (playerServices != null) {
-      GuessGame game = playerServices.currentGame();
-
-      // build the View-Model
-      final Map<String, Object> vm = new HashMap<>();
-      vm.put(GetHomeRoute.TITLE_ATTR, TITLE);
-      vm.put(GAME_BEGINS_ATTR, game.isGameBeginning());
-      vm.put(GUESSES_LEFT_ATTR, game.guessesLeft());
-      // render the Game Form view
-      return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
-    } else {
-      response.redirect(WebServer.HOME_URL);
-      halt();
-      return null;
-
+    // retrieve the player; a brand new browser, or one whose session timed out, gets its
+    // player here, when it starts to play, so that merely visiting the home page costs nothing;
+    // then start a game if no game is in progress
+    PlayerServices playerServices = sessions.find(request);
+    if (playerServices == null || !playerServices.startGame()) {
+      // The GameCenter ends the player's session once it has been idle for the
+      // session timeout, which may also happen just after it was found here;
+      // either way the player starts over.
+      playerServices = sessions.start(request, response);
+      playerServices.startGame();
     }
+    sessions.save(playerServices, request, response);
+
+    // build the View-Model
+    final Map<String, Object> vm = new HashMap<>();
+    vm.put(GetHomeRoute.TITLE_ATTR, TITLE);
+    vm.put(GAME_BEGINS_ATTR, playerServices.isStartingGame());
+    vm.put(GUESSES_LEFT_ATTR, playerServices.guessesLeft());
+    vm.put(HIGHEST_NUMBER_ATTR, playerServices.getRules().getHighestNumber());
+    // render the Game Form view
+    return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
   }
 }
@@ -3,17 +3,16 @@ package com.example.ui;
 import static spark.Spark.halt;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 import com.example.appl.GameCenter;
-import com.example.appl.PlayerServices;
 
 import spark.ModelAndView;
 import spark.Request;
 import spark.Response;
 import spark.Route;
-import spark.Session;
 import spark.TemplateEngine;
 
 /**
@@ -21,6 +20,16 @@ import spark.TemplateEngine;
  * This is the page where the user starts (no Game yet)
  * but is also the landing page after a game ends.
  *
+ * <p>
+ * A visitor is given no session and no player here, only when starting a game
+ * on the Game page, so crawlers and health checks that never play cost no more
+ * than the page itself. Every such visitor sees the same page, which is
+ * rendered once and served again until the statistics or the leaderboard change.
+ * The page is tagged with the statistics version and its content, and a browser
+ * that asks again with the tag of the current page is answered
+ * {@code 304 Not Modified}, with nothing rendered.
+ * </p>
+ *
  * @author <a href='mailto:bdbvse@rit.edu'>Bryan Basham</a>
  * @author <a href='mailto:jrv@se.rit.edu'>Jim Vallino</a>
  */
@@ -29,46 +38,50 @@ public class GetHomeRoute implements Route {
   // Values used in the view-model map for rendering the home view.
   static final String TITLE_ATTR = "title";
   static final String GAME_STATS_MSG_ATTR = "gameStatsMessage";
+  static final String PLAYER_STATS_MSG_ATTR = "playerStatsMessage";
+  static final String PLAYER_RANK_MSG_ATTR = "playerRankMessage";
+  static final String LEADERS_ATTR = "leaders";
   static final String NEW_PLAYER_ATTR = "newPlayer";
   static final String TITLE = "Welcome to the Guessing Game";
   static final String VIEW_NAME = "home.ftl";
 
-  // Key in the session attribute map for the player who started the session
-  static final String PLAYERSERVICES_KEY = "playerServices";
-  static final String TIMEOUT_SESSION_KEY = "timeoutWatchdog";
-
-  // The length of the session timeout in seconds
-  static final int SESSION_TIMEOUT_PERIOD = 120;
-
   //
   // Attributes
   //
 
   private final GameCenter gameCenter;
   private final TemplateEngine templateEngine;
+  private final PlayerSessionStore sessions;
+  // The last render of the page for visitors with no player; null until the first.
+  private volatile AnonymousPage anonymousPage;
 
   //
   // Constructor
   //
 
   /**
-   * The constructor for the {@code POST /guess} route handler.
+   * The constructor for the {@code GET /} route handler.
    *
    * @param gameCenter
    *    The {@link GameCenter} for the application.
    * @param templateEngine
    *    The {@link TemplateEngine} for the application to use when rendering HTML responses.
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players.
    *
    * @throws NullPointerException
-   *    when the {@code gameCenter} or {@code templateEngine} parameter is null
+   *    when the {@code gameCenter}, {@code templateEngine} or {@code sessions} parameter is null
    */
-  GetHomeRoute(final GameCenter gameCenter, final TemplateEngine templateEngine) {
+  GetHomeRoute(final GameCenter gameCenter, final TemplateEngine templateEngine,
+               final PlayerSessionStore sessions) {
     // validation
     Objects.requireNonNull(gameCenter, "gameCenter must not be null");
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+    Objects.requireNonNull(sessions, "sessions must not be null");
     //
     this.gameCenter = gameCenter;
     this.templateEngine = templateEngine;
+    this.sessions = sessions;
   }
 
   /**
@@ -76,37 +89,78 @@ public class GetHomeRoute implements Route {
    */
   @Override
   public String handle(Request request, Response response) {
-    // retrieve the HTTP session
-    final Session httpSession = request.session();
+    // a visitor with a player has a game being played, so redirect the user to the Game view
+    if(sessions.find(request) != null) {
+      response.redirect(WebServer.GAME_URL);
+      halt();
+      return null;
+    }
+    // any other visitor is a brand new browser, or one whose session timed out; the
+    // player is only started once the user asks for a game
+    final AnonymousPage page = anonymousPage();
+    // browsers may keep the page but must ask whether it is current, with its tag
+    response.header(HttpCaching.CACHE_CONTROL_HEADER, "no-cache");
+    response.header(HttpCaching.VARY_HEADER, "Cookie");
+    response.header(HttpCaching.ETAG_HEADER, page.etag);
+    if (HttpCaching.isCurrent(request, page.etag)) {
+      response.status(HttpCaching.NOT_MODIFIED_STATUS);
+      return "";
+    }
+    return page.html;
+  }
+
+  //
+  // Private methods
+  //
+
+  private AnonymousPage anonymousPage() {
+    // both are kept by the GameCenter and replaced only when they change, so comparing
+    // references tells whether the last render is still current
+    final String gameStatsMessage = gameCenter.getGameStatsMessage();
+    final List<String> leaders = gameCenter.getLeaders();
+    final AnonymousPage cached = anonymousPage;
+    if (cached != null && cached.gameStatsMessage == gameStatsMessage && cached.leaders == leaders) {
+      return cached;
+    }
 
     // start building the View-Model
     final Map<String, Object> vm = new HashMap<>();
     vm.put(TITLE_ATTR, TITLE);
 
     // report application-wide game statistics
-    vm.put(GAME_STATS_MSG_ATTR, gameCenter.getGameStatsMessage());
-
-    // if this is a brand new browser session or a session that timed out
-    if(httpSession.attribute(PLAYERSERVICES_KEY) == null) {
-      // get the object that will provide client-specific services for this player
-      final PlayerServices playerService = gameCenter.newPlayerServices();
-      httpSession.attribute(PLAYERSERVICES_KEY, playerService);
-
-      // setup session timeout. The valueUnbound() method in the SessionTimeoutWatchdog will
-      // be called when the session is invalidated. The next invocation of this route will
-      // have a new Session object with no attributes.
-      httpSession.attribute(TIMEOUT_SESSION_KEY, new SessionTimeoutWatchdog(playerService));
-      httpSession.maxInactiveInterval(SESSION_TIMEOUT_PERIOD);
-
-      // render the Game Form view
-      vm.put(NEW_PLAYER_ATTR, true);
-      return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
-    }
-    else {
-      // there is a game already being played so redirect the user to the Game view
-      response.redirect(WebServer.GAME_URL);
-      halt();
-      return null;
+    vm.put(GAME_STATS_MSG_ATTR, gameStatsMessage);
+    vm.put(LEADERS_ATTR, leaders);
+
+    // render the Home view for a new player; a render racing this one may win, either is current
+    vm.put(NEW_PLAYER_ATTR, true);
+    final String html = templateEngine.render(new ModelAndView(vm, VIEW_NAME));
+    // the content's hash keeps the tag when the recent windows move on but read the same
+    final String etag = "\"" + Long.toHexString(gameCenter.getGameStatsVersion()) + '-'
+        + Integer.toHexString(html.hashCode()) + '"';
+    final AnonymousPage fresh = new AnonymousPage(gameStatsMessage, leaders, html, etag);
+    anonymousPage = fresh;
+    return fresh;
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * The rendered page, its tag, and the statistics and leaders it shows.
+   */
+  private static final class AnonymousPage {
+    private final String gameStatsMessage;
+    private final List<String> leaders;
+    private final String html;
+    private final String etag;
+
+    AnonymousPage(final String gameStatsMessage, final List<String> leaders, final String html,
+                  final String etag) {
+      this.gameStatsMessage = gameStatsMessage;
+      this.leaders = leaders;
+      this.html = html;
+      this.etag = etag;
     }
   }
 }
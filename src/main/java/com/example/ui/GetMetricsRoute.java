@@ -0,0 +1,41 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * The {@code GET /metrics} route handler. Answers with the server's metrics in
+ * the Prometheus text format.
+ */
+public class GetMetricsRoute implements Route {
+
+  private final ServerMetrics metrics;
+
+  /**
+   * The constructor for the {@code GET /metrics} route handler.
+   *
+   * @param metrics
+   *    The {@link ServerMetrics} to report.
+   *
+   * @throws NullPointerException
+   *    when the {@code metrics} parameter is null
+   */
+  GetMetricsRoute(final ServerMetrics metrics) {
+    // validation
+    Objects.requireNonNull(metrics, "metrics must not be null");
+    //
+    this.metrics = metrics;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    response.type(ServerMetrics.CONTENT_TYPE);
+    return metrics.scrape();
+  }
+}
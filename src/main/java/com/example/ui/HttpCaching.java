@@ -0,0 +1,85 @@
+package com.example.ui;
+
+import spark.Request;
+
+/**
+ * Reads what a request says about the copies of a response the client holds
+ * and the encodings it takes.
+ */
+final class HttpCaching {
+
+  //
+  // Constants
+  //
+
+  static final String ETAG_HEADER = "ETag";
+  static final String CACHE_CONTROL_HEADER = "Cache-Control";
+  static final String VARY_HEADER = "Vary";
+  static final int NOT_MODIFIED_STATUS = 304;
+
+  private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+  private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+  private static final String WEAK_PREFIX = "W/";
+
+  //
+  // Constructor
+  //
+
+  private HttpCaching() {
+    // only static methods
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Does the client already hold the response with the given tag?
+   *
+   * @param request
+   *    The HTTP request, whose {@code If-None-Match} header lists the tags the client holds.
+   * @param etag
+   *    The quoted entity tag of the response that would be sent.
+   *
+   * @return true if the response may be answered with {@code 304 Not Modified}
+   */
+  static boolean isCurrent(final Request request, final String etag) {
+    final String ifNoneMatch = request.headers(IF_NONE_MATCH_HEADER);
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    // a comma separated list of tags, compared weakly as RFC 7232 asks for If-None-Match
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith(WEAK_PREFIX)) {
+        tag = tag.substring(WEAK_PREFIX.length());
+      }
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Does the client take gzip encoded responses?
+   *
+   * @param request
+   *    The HTTP request.
+   *
+   * @return true if the {@code Accept-Encoding} header names gzip, and not with a zero weight
+   */
+  static boolean acceptsGzip(final Request request) {
+    final String acceptEncoding = request.headers(ACCEPT_ENCODING_HEADER);
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      final String[] parts = coding.split(";");
+      if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+}
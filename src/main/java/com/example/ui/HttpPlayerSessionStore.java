@@ -0,0 +1,108 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Session;
+
+import com.example.appl.GameCenter;
+import com.example.appl.PlayerServices;
+import com.example.appl.SessionReaper;
+
+/**
+ * A {@link PlayerSessionStore} that keeps each player in the client's HTTP
+ * session on this server.
+ */
+public class HttpPlayerSessionStore implements PlayerSessionStore {
+
+  //
+  // Constants
+  //
+
+  // Key in the session attribute map for the player who started the session
+  static final String PLAYERSERVICES_KEY = "playerServices";
+
+  // The length of the session timeout in seconds
+  static final int SESSION_TIMEOUT_PERIOD = SessionReaper.DEFAULT_TIMEOUT_SECONDS;
+
+  //
+  // Attributes
+  //
+
+  private final GameCenter gameCenter;
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create the store.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} that creates the players.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} parameter is null
+   */
+  public HttpPlayerSessionStore(final GameCenter gameCenter) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    //
+    this.gameCenter = gameCenter;
+  }
+
+  //
+  // PlayerSessionStore methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PlayerServices find(final Request request) {
+    // looking must not create a session: only starting a player does
+    final Session httpSession = request.session(false);
+    if (httpSession == null) {
+      return null;
+    }
+    final PlayerServices playerServices = httpSession.attribute(PLAYERSERVICES_KEY);
+    return playerServices != null && !playerServices.isSessionEnded() ? playerServices : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PlayerServices start(final Request request, final Response response) {
+    final Session httpSession = request.session();
+    // get the object that will provide client-specific services for this player.
+    // The GameCenter ends the player's session once it has been idle for the
+    // session timeout; the next visit to the game page will then start over.
+    final PlayerServices playerServices = gameCenter.newPlayerServices();
+    httpSession.attribute(PLAYERSERVICES_KEY, playerServices);
+
+    // let the web server discard the session itself after the same timeout
+    httpSession.maxInactiveInterval(SESSION_TIMEOUT_PERIOD);
+    return playerServices;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>
+   * Nothing to do; the session holds the player itself.
+   * </p>
+   */
+  @Override
+  public void save(final PlayerServices playerServices, final Request request, final Response response) {
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean keepsPlayers() {
+    return true;
+  }
+}
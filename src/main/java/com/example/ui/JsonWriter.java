@@ -0,0 +1,127 @@
+package com.example.ui;
+
+/**
+ * Writes a single flat JSON object field by field, without reflection.
+ *
+ * <pre>
+ *   new JsonWriter().field("result", "WON").field("guessesLeft", 2).toString()
+ * </pre>
+ */
+final class JsonWriter {
+
+  /**
+   * The content type of every JSON response.
+   */
+  static final String CONTENT_TYPE = "application/json";
+
+  private final StringBuilder out = new StringBuilder(128).append('{');
+
+  /**
+   * Add a string field; a null value is written as JSON null.
+   */
+  JsonWriter field(final String name, final String value) {
+    name(name);
+    if (value == null) {
+      out.append("null");
+    } else {
+      string(value);
+    }
+    return this;
+  }
+
+  /**
+   * Add a number field.
+   */
+  JsonWriter field(final String name, final long value) {
+    name(name);
+    out.append(value);
+    return this;
+  }
+
+  /**
+   * Add a fractional number field; it must be finite.
+   */
+  JsonWriter field(final String name, final double value) {
+    name(name);
+    out.append(value);
+    return this;
+  }
+
+  /**
+   * Add a boolean field.
+   */
+  JsonWriter field(final String name, final boolean value) {
+    name(name);
+    out.append(value);
+    return this;
+  }
+
+  /**
+   * Add a field whose value is JSON text that has already been written.
+   */
+  JsonWriter rawField(final String name, final CharSequence json) {
+    name(name);
+    out.append(json);
+    return this;
+  }
+
+  /**
+   * Get the object written so far, closed. The writer is left as it was, so
+   * this may be called any number of times.
+   *
+   * @return the JSON text
+   */
+  @Override
+  public String toString() {
+    final int length = out.length();
+    final String json = out.append('}').toString();
+    out.setLength(length);
+    return json;
+  }
+
+  /**
+   * Write a JSON string, escaping quotes, backslashes and control characters.
+   */
+  static void appendString(final StringBuilder out, final String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    out.append('"');
+  }
+
+  private void name(final String name) {
+    if (out.length() > 1) {
+      out.append(',');
+    }
+    string(name);
+    out.append(':');
+  }
+
+  private void string(final String value) {
+    appendString(out, value);
+  }
+}
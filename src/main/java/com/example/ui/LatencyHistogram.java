@@ -0,0 +1,147 @@
+package com.example.ui;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts latencies, in nanoseconds, into log-linear buckets in the manner of
+ * HdrHistogram: every power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so each bucket is within about six percent of the values it holds.
+ *
+ * <p>
+ * Recording is one atomic increment and one add, with no allocation and no
+ * lock; readers copy the buckets into a {@link Snapshot}. Latencies above
+ * about eighteen minutes all count in the last bucket.
+ * </p>
+ */
+final class LatencyHistogram {
+
+  //
+  // Constants
+  //
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // The highest power of two that has buckets of its own; 2^40 ns is about eighteen minutes.
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  //
+  // Attributes
+  //
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder totalNanos = new LongAdder();
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Count one latency.
+   *
+   * @param nanos
+   *    The latency in nanoseconds; negative values count as zero.
+   */
+  void record(final long nanos) {
+    counts.getAndIncrement(bucketOf(nanos));
+    totalNanos.add(Math.max(nanos, 0));
+  }
+
+  /**
+   * Copy the counts. Latencies recorded while copying may or may not be included.
+   *
+   * @return the copied counts
+   */
+  Snapshot snapshot() {
+    final long[] copy = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+      count += copy[i];
+    }
+    return new Snapshot(copy, count, totalNanos.sum());
+  }
+
+  //
+  // Private methods
+  //
+
+  private static int bucketOf(final long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) Math.max(nanos, 0);
+    }
+    final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /**
+   * The highest latency counted in a bucket.
+   */
+  private static long highestIn(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * The counts of a histogram at one moment.
+   */
+  static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+
+    private Snapshot(final long[] counts, final long count, final long totalNanos) {
+      this.counts = counts;
+      this.count = count;
+      this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return the number of latencies counted
+     */
+    long getCount() {
+      return count;
+    }
+
+    /**
+     * @return the sum of the latencies counted, in nanoseconds
+     */
+    long getTotalNanos() {
+      return totalNanos;
+    }
+
+    /**
+     * Get the latency below which the given share of the latencies fall.
+     *
+     * @param quantile
+     *    The share, from zero to one.
+     *
+     * @return the highest latency of the bucket the quantile falls in, in
+     *    nanoseconds; zero when nothing was counted
+     */
+    long valueAt(final double quantile) {
+      final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return highestIn(i);
+        }
+      }
+      return 0;
+    }
+  }
+}
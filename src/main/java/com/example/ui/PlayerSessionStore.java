@@ -0,0 +1,60 @@
+package com.example.ui;
+
+import spark.Request;
+import spark.Response;
+
+import com.example.appl.PlayerServices;
+
+/**
+ * Where the routes keep the player of each browser between requests.
+ *
+ * <p>
+ * A route asks for the request's player with {@link #find(Request)}, or starts
+ * one with {@link #start(Request, Response)}, and hands it back with
+ * {@link #save(PlayerServices, Request, Response)} once it is done with it,
+ * before the response body is written.
+ * </p>
+ */
+public interface PlayerSessionStore {
+
+  /**
+   * Get the player of the request.
+   *
+   * @param request
+   *    The HTTP request.
+   *
+   * @return the player, or null if the client has none or its session has ended
+   */
+  PlayerServices find(Request request);
+
+  /**
+   * Start a new player for the client that made the request.
+   *
+   * @param request
+   *    The HTTP request.
+   * @param response
+   *    The HTTP response, which may be given what the client needs to keep.
+   *
+   * @return the new player
+   */
+  PlayerServices start(Request request, Response response);
+
+  /**
+   * Keep the changes a route made to the player.
+   *
+   * @param playerServices
+   *    The player from {@link #find(Request)} or {@link #start(Request, Response)}.
+   * @param request
+   *    The HTTP request.
+   * @param response
+   *    The HTTP response, which may be given what the client needs to keep.
+   */
+  void save(PlayerServices playerServices, Request request, Response response);
+
+  /**
+   * Do players live on this server, so that they can be found again by id?
+   *
+   * @return true if {@link PlayerServices#getId()} may be used
+   */
+  boolean keepsPlayers();
+}
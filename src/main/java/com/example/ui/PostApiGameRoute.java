@@ -0,0 +1,60 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.PlayerServices;
+
+/**
+ * The {@code POST /api/v1/game} route handler. Starts a player session if the
+ * client has none, starts a game if none is in progress, and answers with the
+ * game status and, when players are kept on the server, the player's id, for
+ * use with the batch guess route, as JSON.
+ */
+public class PostApiGameRoute implements Route {
+
+  private final PlayerSessionStore sessions;
+
+  /**
+   * The constructor for the {@code POST /api/v1/game} route handler.
+   *
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players.
+   *
+   * @throws NullPointerException
+   *    when the {@code sessions} parameter is null
+   */
+  PostApiGameRoute(final PlayerSessionStore sessions) {
+    // validation
+    Objects.requireNonNull(sessions, "sessions must not be null");
+    //
+    this.sessions = sessions;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    PlayerServices playerServices = sessions.find(request);
+    // a session that ended since the player was found starts over, as one never found does
+    if (playerServices == null || !playerServices.startGame()) {
+      playerServices = sessions.start(request, response);
+      playerServices.startGame();
+    }
+    sessions.save(playerServices, request, response);
+
+    response.type(JsonWriter.CONTENT_TYPE);
+    final JsonWriter status;
+    synchronized (playerServices) {
+      status = GetApiGameRoute.gameStatus(true, playerServices.isStartingGame(), playerServices.guessesLeft());
+    }
+    if (sessions.keepsPlayers()) {
+      status.field("player", playerServices.getId());
+    }
+    return status.toString();
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.PlayerServices;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The {@code POST /api/v1/guess} route handler. Makes one guess on the player's
+ * game and answers with the {@link GuessResult} as JSON.
+ */
+public class PostApiGuessRoute implements Route {
+
+  static final String NO_GAME = "No game in progress; start a game first.";
+
+  private final PlayerSessionStore sessions;
+
+  /**
+   * The constructor for the {@code POST /api/v1/guess} route handler.
+   *
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players.
+   *
+   * @throws NullPointerException
+   *    when the {@code sessions} parameter is null
+   */
+  PostApiGuessRoute(final PlayerSessionStore sessions) {
+    // validation
+    Objects.requireNonNull(sessions, "sessions must not be null");
+    //
+    this.sessions = sessions;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    final PlayerServices playerServices = sessions.find(request);
+    if (playerServices == null) {
+      return GetApiGameRoute.error(response, 409, NO_GAME);
+    }
+
+    // retrieve request parameter
+    final String guessStr = request.queryParams(PostGuessRoute.GUESS_PARAM);
+    final int guess;
+    try {
+      guess = Integer.parseInt(guessStr);
+    } catch (NumberFormatException e) {
+      return GetApiGameRoute.error(response, 400, PostGuessRoute.makeBadArgMessage(guessStr));
+    }
+
+    // The player is held from the check to the report, as the batch route does, so that
+    // two guesses at once cannot both find the game and then both finish it.
+    final GuessResult result;
+    final int guessesLeft;
+    final boolean finished;
+    synchronized (playerServices) {
+      if (!playerServices.hasGame()) {
+        return GetApiGameRoute.error(response, 409, NO_GAME);
+      }
+      try {
+        result = playerServices.makeGuess(guess);
+      } catch (IllegalStateException e) {
+        // another copy of a token player's game, sent at the same time, made the guess first
+        return GetApiGameRoute.error(response, 409, NO_GAME);
+      }
+      guessesLeft = playerServices.guessesLeft();
+      finished = result == GuessResult.WON || result == GuessResult.LOST;
+      if (finished) {
+        playerServices.finishedGame();
+      }
+      sessions.save(playerServices, request, response);
+    }
+
+    response.type(JsonWriter.CONTENT_TYPE);
+    return new JsonWriter()
+        .field("result", result.name())
+        .field("guessesLeft", guessesLeft)
+        .field("finished", finished)
+        .toString();
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.ui;
+
+import java.util.Objects;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import com.example.appl.GameCenter;
+import com.example.appl.PlayerServices;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The {@code POST /api/v1/guesses} route handler; makes many guesses, for one
+ * or many players, in a single request.
+ *
+ * <p>
+ * The plain text request body has one line per player: the player's id, as
+ * returned by {@code POST /api/v1/game}, or {@value #SESSION_PLAYER} for the
+ * player of the request's own session, followed by the guesses in order, all
+ * separated by spaces. A game is started for a player that has none. Guesses
+ * stop at the end of the game; any left over are counted as skipped.
+ * </p>
+ *
+ * <pre>
+ *   - 1 5 7
+ *   3f9c0a... 2 4
+ * </pre>
+ *
+ * <p>
+ * The answer is a single JSON object whose {@code players} array holds an
+ * object for each line, in order, with the result of every guess made, or an
+ * error for a player that cannot be found.
+ * </p>
+ *
+ * <pre>
+ *   {"players":[{"player":"-","results":["WRONG","WON"],"skipped":1,"guessesLeft":1,"finished":true},...]}
+ * </pre>
+ */
+public class PostApiGuessesRoute implements Route {
+
+  //
+  // Constants
+  //
+
+  // Names the player of the request's own session in the request body.
+  static final String SESSION_PLAYER = "-";
+  // The most guesses accepted in one request.
+  static final int MAX_GUESSES = 10_000;
+
+  //
+  // Attributes
+  //
+
+  private final GameCenter gameCenter;
+  private final PlayerSessionStore sessions;
+
+  //
+  // Constructor
+  //
+
+  /**
+   * The constructor for the {@code POST /api/v1/guesses} route handler.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} that finds players by id.
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the player of the request.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} or {@code sessions} parameter is null
+   */
+  PostApiGuessesRoute(final GameCenter gameCenter, final PlayerSessionStore sessions) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    Objects.requireNonNull(sessions, "sessions must not be null");
+    //
+    this.gameCenter = gameCenter;
+    this.sessions = sessions;
+  }
+
+  //
+  // Route method
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String handle(Request request, Response response) {
+    final String[] lines = request.body().split("\n");
+
+    // parse and validate the whole batch before making any guess
+    int guessCount = 0;
+    final String[] ids = new String[lines.length];
+    final int[][] guesses = new int[lines.length][];
+    for (int i = 0; i < lines.length; i++) {
+      final String[] words = lines[i].trim().split("\\s+");
+      guessCount += words.length - 1;
+      if (guessCount > MAX_GUESSES) {
+        return GetApiGameRoute.error(response, 413, "At most " + MAX_GUESSES + " guesses are allowed in one request.");
+      }
+      ids[i] = words[0];
+      guesses[i] = new int[words.length - 1];
+      for (int j = 1; j < words.length; j++) {
+        try {
+          guesses[i][j - 1] = Integer.parseInt(words[j]);
+        } catch (NumberFormatException e) {
+          return GetApiGameRoute.error(response, 400, PostGuessRoute.makeBadArgMessage(words[j]));
+        }
+      }
+    }
+
+    final StringBuilder players = new StringBuilder().append('[');
+    for (int i = 0; i < lines.length; i++) {
+      if (ids[i].isEmpty()) {
+        continue;
+      }
+      if (players.length() > 1) {
+        players.append(',');
+      }
+      players.append(play(ids[i], guesses[i], request, response));
+    }
+    players.append(']');
+
+    response.type(JsonWriter.CONTENT_TYPE);
+    return new JsonWriter().rawField("players", players).toString();
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Make one player's guesses until the game ends.
+   */
+  private String play(final String id, final int[] guesses, final Request request, final Response response) {
+    final boolean sessionPlayer = SESSION_PLAYER.equals(id);
+    final PlayerServices playerServices = sessionPlayer ? sessions.find(request) : gameCenter.findPlayer(id);
+    if (playerServices == null || playerServices.isSessionEnded()) {
+      return new JsonWriter().field("player", id).field("error", "Unknown player.").toString();
+    }
+
+    final StringBuilder results = new StringBuilder().append('[');
+    boolean finished = false;
+    int next = 0;
+    // one player may also be sent guesses by another request at the same time
+    synchronized (playerServices) {
+      // the session may also have ended since the player was found
+      if (!playerServices.startGame()) {
+        return new JsonWriter().field("player", id).field("error", "Unknown player.").toString();
+      }
+      while (next < guesses.length && !finished) {
+        final GuessResult result;
+        try {
+          result = playerServices.makeGuess(guesses[next++]);
+        } catch (IllegalStateException e) {
+          // another copy of a token player's game, sent at the same time, made the guess first
+          return new JsonWriter().field("player", id).field("error", PostApiGuessRoute.NO_GAME).toString();
+        }
+        if (results.length() > 1) {
+          results.append(',');
+        }
+        JsonWriter.appendString(results, result.name());
+        finished = result == GuessResult.WON || result == GuessResult.LOST;
+      }
+      results.append(']');
+      final int guessesLeft = playerServices.guessesLeft();
+      if (finished) {
+        playerServices.finishedGame();
+      }
+      if (sessionPlayer) {
+        sessions.save(playerServices, request, response);
+      }
+      return new JsonWriter()
+          .field("player", id)
+          .rawField("results", results)
+          .field("skipped", guesses.length - next)
+          .field("guessesLeft", guessesLeft)
+          .field("finished", finished)
+          .toString();
+    }
+  }
+}
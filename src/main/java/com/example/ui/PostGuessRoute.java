@@ -9,12 +9,13 @@ import spark.ModelAndView;
 import spark.Request;
 import spark.Response;
 import spark.Route;
-import spark.Session;
 import spark.TemplateEngine;
 import static spark.Spark.halt;
 
 import com.example.appl.GameCenter;
 import com.example.appl.PlayerServices;
+import com.example.model.GameRules;
+import com.example.model.GuessGame.GuessResult;
 
 /**
  * The {@code POST /guess} route handler.
@@ -36,6 +37,8 @@ public class PostGuessRoute implements Route {
 
   static final String ERROR_TYPE = "error";
   static final String BAD_GUESS = "Nope, try again...";
+  static final String TOO_LOW_GUESS = "Too low, try a higher number...";
+  static final String TOO_HIGH_GUESS = "Too high, try a lower number...";
   static final String VIEW_NAME = "game_form.ftl";
 
   //
@@ -50,10 +53,10 @@ public class PostGuessRoute implements Route {
   }
 
   /**
-   * Make an error message when the guess is not in the guessing range.
+   * Make an error message when the guess is not in the guessing range of the game's rules.
    */
-  static String makeInvalidArgMessage(final String guessStr) {
-    return String.format("You entered %s; make a guess between zero and nine.", guessStr);
+  static String makeInvalidArgMessage(final String guessStr, final GameRules rules) {
+    return String.format("You entered %s; make a guess between 0 and %d.", guessStr, rules.getHighestNumber());
   }
 
   //
@@ -62,6 +65,7 @@ public class PostGuessRoute implements Route {
 
   private final GameCenter gameCenter;
   private final TemplateEngine templateEngine;
+  private final PlayerSessionStore sessions;
 
   //
   // Constructor
@@ -74,17 +78,21 @@ public class PostGuessRoute implements Route {
    *    {@Link GameCenter} that holds over statistics
    * @param templateEngine
    *    template engine to use for rendering HTML page
+   * @param sessions
+   *    {@Link PlayerSessionStore} that keeps the players
    *
    * @throws NullPointerException
-   *    when the {@code gameCenter} or {@code templateEngine} parameter is null
+   *    when the {@code gameCenter}, {@code templateEngine} or {@code sessions} parameter is null
    */
-  PostGuessRoute(GameCenter gameCenter, TemplateEngine templateEngine) {
+  PostGuessRoute(GameCenter gameCenter, TemplateEngine templateEngine, PlayerSessionStore sessions) {
     // validation
     Objects.requireNonNull(gameCenter, "gameCenter must not be null");
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+    Objects.requireNonNull(sessions, "sessions must not be null");
     //
     this.gameCenter = gameCenter;
     this.templateEngine = templateEngine;
+    this.sessions = sessions;
   }
 
   //
@@ -105,18 +113,45 @@ public class PostGuessRoute implements Route {
     vm.put(GetHomeRoute.NEW_PLAYER_ATTR, Boolean.FALSE);
 
     // retrieve the game object
-    final Session session = request.session();
-    final PlayerServices playerServices = session.attribute(GetHomeRoute.PLAYERSERVICES_KEY);
+    final PlayerServices playerServices = sessions.find(request);
 
-    /* A null playerServices indicates a timed out session or an illegal request on this URL.
-     * In either case, we will redirect back to home.
+    // retrieve request parameter
+    final String guessStr = request.queryParams(GUESS_PARAM);
+
+    // The player is held across the check and the guess, so that another request, or
+    // the end of the session, cannot take the game away in between.
+    final ModelAndView mv = playerServices == null ? null : guess(vm, playerServices, guessStr);
+
+    /* A null playerServices, or one with no game, indicates a timed out session or an illegal request
+     * on this URL. In either case, we will redirect back to home.
      */
-    if(playerServices != null) {
+    if (mv == null) {
+      response.redirect(WebServer.HOME_URL);
+      halt();
+      return null;
+    }
+    sessions.save(playerServices, request, response);
+    return templateEngine.render(mv);
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Make the guess and create the appropriate ModelAndView for rendering; null when
+   * the player has no game in progress.
+   */
+  private ModelAndView guess(final Map<String, Object> vm, final PlayerServices playerServices,
+                             final String guessStr) {
+    synchronized (playerServices) {
+      if (!playerServices.hasGame()) {
+        return null;
+      }
       vm.put(GetGameRoute.GAME_BEGINS_ATTR, playerServices.isStartingGame());
       vm.put(GetGameRoute.GUESSES_LEFT_ATTR, playerServices.guessesLeft());
-
-      // retrieve request parameter
-      final String guessStr = request.queryParams(GUESS_PARAM);
+      final GameRules rules = playerServices.getRules();
+      vm.put(GetGameRoute.HIGHEST_NUMBER_ATTR, rules.getHighestNumber());
 
       // convert the input
       int guess = -1;
@@ -124,47 +159,45 @@ public class PostGuessRoute implements Route {
         guess = Integer.parseInt(guessStr);
       } catch (NumberFormatException e) {
         // re-display the guess form with an error message
-        return templateEngine.render(error(vm, makeBadArgMessage(guessStr)));
+        return error(vm, makeBadArgMessage(guessStr));
       }
 
-      // make the guess and create the appropriate ModelAndView for rendering
-      ModelAndView mv;
-      switch (playerServices.makeGuess(guess)) {
+      final GuessResult result;
+      try {
+        result = playerServices.makeGuess(guess);
+      } catch (IllegalStateException e) {
+        // another copy of a token player's game, sent at the same time, made the guess first
+        return null;
+      }
+      switch (result) {
         case INVALID:
-          mv = error(vm, makeInvalidArgMessage(guessStr));
-          break;
+          return error(vm, makeInvalidArgMessage(guessStr, rules));
 
         case WRONG:
           vm.put(GetGameRoute.GUESSES_LEFT_ATTR, playerServices.guessesLeft());
-          mv = error(vm, BAD_GUESS);
-          break;
+          return error(vm, BAD_GUESS);
+
+        case TOO_LOW:
+          vm.put(GetGameRoute.GUESSES_LEFT_ATTR, playerServices.guessesLeft());
+          return error(vm, TOO_LOW_GUESS);
+
+        case TOO_HIGH:
+          vm.put(GetGameRoute.GUESSES_LEFT_ATTR, playerServices.guessesLeft());
+          return error(vm, TOO_HIGH_GUESS);
 
         case WON:
-          mv = youWon(vm, playerServices);
-          break;
+          return youWon(vm, playerServices);
 
         case LOST:
-          mv = youLost(vm, playerServices);
-          break;
+          return youLost(vm, playerServices);
 
         default:
           // All the GuessResult values are in case statements so we should never get here.
           throw new NoSuchElementException("Invalid result of guess received.");
       }
-
-      return templateEngine.render(mv);
-    }
-    else {
-      response.redirect(WebServer.HOME_URL);
-      halt();
-      return null;
     }
   }
 
-  //
-  // Private methods
-  //
-
   private ModelAndView error(final Map<String, Object> vm, final String message) {
     vm.put(MESSAGE_ATTR, message);
     vm.put(MESSAGE_TYPE_ATTR, ERROR_TYPE);
@@ -184,6 +217,10 @@ public class PostGuessRoute implements Route {
     playerServices.finishedGame();
     // report application-wide game statistics
     vm.put(GetHomeRoute.GAME_STATS_MSG_ATTR, gameCenter.getGameStatsMessage());
+    // and this player's own
+    vm.put(GetHomeRoute.PLAYER_STATS_MSG_ATTR, playerServices.getPlayerStatsMessage());
+    vm.put(GetHomeRoute.PLAYER_RANK_MSG_ATTR, playerServices.getPlayerRankMessage());
+    vm.put(GetHomeRoute.LEADERS_ATTR, gameCenter.getLeaders());
     vm.put(YOU_WON_ATTR, youWonLost);
     return new ModelAndView(vm, GetHomeRoute.VIEW_NAME);
   }
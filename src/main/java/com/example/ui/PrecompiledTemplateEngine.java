@@ -0,0 +1,251 @@
+package com.example.ui;
+
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import spark.ModelAndView;
+import spark.TemplateEngine;
+
+/**
+ * A {@link TemplateEngine} for the game's own views that skips the FreeMarker
+ * interpreter. Each view is compiled by hand into its constant text segments and
+ * the typed view-model slots between them, and is rendered by appending the two
+ * into a reused per-thread buffer.
+ *
+ * <p>
+ * The output is the same, byte for byte, as {@code FreeMarkerEngine} renders from
+ * {@code home.ftl} and {@code game_form.ftl}. Any change to those templates must
+ * be made here as well.
+ * </p>
+ */
+public class PrecompiledTemplateEngine extends TemplateEngine {
+
+  //
+  // Constants
+  //
+
+  private static final String HEAD_START =
+      "<!DOCTYPE html>\n"
+      + "<head>\n"
+      + "    <meta http-equiv=\"Content-Type\" content=\"text/html; charset=UTF-8\"></meta>\n"
+      + "    <title>";
+  private static final String HEAD_END =
+      "</title>\n"
+      + "    <link rel=\"stylesheet\" type=\"text/css\" href=\"/styles/main.css\">\n"
+      + "</head>\n"
+      + "<body>\n"
+      + "    <h1>";
+
+  // Large enough for either view so the buffer never grows.
+  private static final int BUFFER_SIZE = 2048;
+
+  //
+  // Attributes
+  //
+
+  private final Map<String, View> views = new HashMap<>();
+  private final ThreadLocal<StringBuilder> buffers =
+      ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create the engine with the game's views.
+   */
+  public PrecompiledTemplateEngine() {
+    views.put(GetHomeRoute.VIEW_NAME, PrecompiledTemplateEngine::renderHome);
+    views.put(GetGameRoute.VIEW_NAME, PrecompiledTemplateEngine::renderGameForm);
+  }
+
+  //
+  // TemplateEngine method
+  //
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException
+   *    when the view is unknown or the view-model is missing a value the view needs
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public String render(final ModelAndView modelAndView) {
+    final View view = views.get(modelAndView.getViewName());
+    if (view == null) {
+      throw new IllegalArgumentException("Unknown view " + modelAndView.getViewName());
+    }
+    final StringBuilder out = buffers.get();
+    out.setLength(0);
+    view.render((Map<String, Object>) modelAndView.getModel(), out);
+    return out.toString();
+  }
+
+  //
+  // Views
+  //
+
+  /**
+   * Render {@code home.ftl}.
+   */
+  private static void renderHome(final Map<String, Object> vm, final StringBuilder out) {
+    renderHead(vm, out);
+    out.append("    \n"
+        + "    <div class=\"body\">\n"
+        + "    \n"
+        + "      <h2>Application Stats</h2>\n"
+        + "      <p>\n"
+        + "        ");
+    out.append(string(vm, GetHomeRoute.GAME_STATS_MSG_ATTR));
+    out.append("\n"
+        + "      </p>\n"
+        + "      \n");
+    final Object playerStats = vm.get(GetHomeRoute.PLAYER_STATS_MSG_ATTR);
+    if (playerStats != null) {
+      out.append("      <h2>Your Stats</h2>\n"
+          + "      <p>\n"
+          + "        ");
+      out.append(playerStats);
+      out.append("\n"
+          + "      </p>\n");
+      final Object playerRank = vm.get(GetHomeRoute.PLAYER_RANK_MSG_ATTR);
+      if (playerRank != null) {
+        out.append("      <p>\n"
+            + "        ");
+        out.append(playerRank);
+        out.append("\n"
+            + "      </p>\n");
+      }
+    }
+    final List<?> leaders = (List<?>) vm.get(GetHomeRoute.LEADERS_ATTR);
+    if (leaders != null && !leaders.isEmpty()) {
+      out.append("      <h2>Leaderboard</h2>\n"
+          + "      <ol>\n");
+      for (Object leader : leaders) {
+        out.append("        <li>").append(leader).append("</li>\n");
+      }
+      out.append("      </ol>\n");
+    }
+    out.append("      \n");
+    if (bool(vm, GetHomeRoute.NEW_PLAYER_ATTR)) {
+      out.append("        <p>\n"
+          + "          <a href=\"/game\">Want to play a game?!?</a>\n"
+          + "        </p>\n");
+    } else if (bool(vm, PostGuessRoute.YOU_WON_ATTR)) {
+      out.append("          <p>\n"
+          + "            Congratulations!  You must have read my mind.\n"
+          + "            <br/><br/>\n"
+          + "            <a href=\"/game\">Do it again</a>\n"
+          + "          </p>\n");
+    } else {
+      out.append("          <p>\n"
+          + "            Aww, too bad.  Better luck next time.\n"
+          + "            <br/><br/>\n"
+          + "            <a href=\"/game\">How about it?</a>\n"
+          + "          </p>\n");
+    }
+    out.append("    \n"
+        + "    </div>\n"
+        + "  </div>\n"
+        + "</body>\n"
+        + "</html>\n");
+  }
+
+  /**
+   * Render {@code game_form.ftl}.
+   */
+  private static void renderGameForm(final Map<String, Object> vm, final StringBuilder out) {
+    renderHead(vm, out);
+    out.append("\n"
+        + "    <div class=\"body\">\n"
+        + "      <h4>Make ");
+    out.append(bool(vm, GetGameRoute.GAME_BEGINS_ATTR) ? "a" : "Another");
+    out.append(" Guess</h4>\n"
+        + "      \n");
+    final Object message = vm.get(PostGuessRoute.MESSAGE_ATTR);
+    if (message != null) {
+      out.append("      <div class=\"message ");
+      out.append(string(vm, PostGuessRoute.MESSAGE_TYPE_ATTR));
+      out.append("\">");
+      out.append(message);
+      out.append("</div>\n");
+    }
+    out.append("      \n"
+        + "      <form action=\"./guess\" method=\"POST\">\n"
+        + "        Guess a number between 0 and ");
+    appendNumber(number(vm, GetGameRoute.HIGHEST_NUMBER_ATTR), out);
+    out.append(". You have ");
+    final int guessesLeft = number(vm, GetGameRoute.GUESSES_LEFT_ATTR);
+    appendNumber(guessesLeft, out);
+    out.append(guessesLeft > 1 ? " guesses left.\n" : " guess left.\n");
+    out.append("        <br/>\n"
+        + "        <input name=\"myGuess\" />\n"
+        + "        <br/><br/>\n"
+        + "        <button type=\"submit\">Ok</button>\n"
+        + "      </form>\n"
+        + "    </div>\n"
+        + "\n"
+        + "</body>\n"
+        + "</html>\n");
+  }
+
+  /**
+   * Render the document head and page heading shared by both views.
+   */
+  private static void renderHead(final Map<String, Object> vm, final StringBuilder out) {
+    final String title = string(vm, GetHomeRoute.TITLE_ATTR);
+    out.append(HEAD_START).append(title).append(HEAD_END).append(title).append("</h1>\n");
+  }
+
+  //
+  // Slot accessors
+  //
+
+  private static Object value(final Map<String, Object> vm, final String name) {
+    final Object value = vm.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("View-model has no value for " + name);
+    }
+    return value;
+  }
+
+  private static String string(final Map<String, Object> vm, final String name) {
+    return value(vm, name).toString();
+  }
+
+  private static boolean bool(final Map<String, Object> vm, final String name) {
+    return (Boolean) value(vm, name);
+  }
+
+  private static int number(final Map<String, Object> vm, final String name) {
+    return ((Number) value(vm, name)).intValue();
+  }
+
+  /**
+   * Append a number the way FreeMarker's default number format does; small
+   * numbers, the only ones the game shows, skip the locale formatter.
+   */
+  private static void appendNumber(final int number, final StringBuilder out) {
+    if (number > -1000 && number < 1000) {
+      out.append(number);
+    } else {
+      out.append(NumberFormat.getNumberInstance(Locale.getDefault()).format(number));
+    }
+  }
+
+  //
+  // Inner interfaces
+  //
+
+  /**
+   * A compiled view.
+   */
+  @FunctionalInterface
+  private interface View {
+    void render(Map<String, Object> vm, StringBuilder out);
+  }
+}
@@ -0,0 +1,169 @@
+package com.example.ui;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket for each client, held in a table of fixed size.
+ *
+ * <p>
+ * Each bucket is one {@code long}: the time at which the client's bucket will
+ * be full again, as in the generic cell rate algorithm. Taking a token moves
+ * that time on by one interval with a compare-and-set, and is refused when it
+ * would be more than a whole burst ahead of now; there is no lock and no timer
+ * to refill buckets.
+ * </p>
+ *
+ * <p>
+ * A client's bucket is kept in one of two neighbouring slots that its key
+ * hashes to. A client that finds neither slot its own takes the one whose
+ * bucket has been full the longest, so the table never grows, and a bucket that
+ * is thrown out had mostly refilled anyway. When more clients are busy than
+ * the table holds, a client may lose its bucket and start again with a full
+ * one: the limiter then lets requests through rather than turning them away.
+ * </p>
+ */
+final class RateLimiter {
+
+  //
+  // Attributes
+  //
+
+  // The clock, in nanoseconds; time counts from the limiter's creation, so that it is never negative.
+  private final LongSupplier nanoTime;
+  private final long originNanos;
+  // The time one token takes to come back, and the furthest a bucket may run ahead of now.
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final AtomicReferenceArray<Bucket> buckets;
+  private final int mask;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create a limiter.
+   *
+   * @param permitsPerSecond
+   *    The rate at which each client's bucket refills.
+   * @param burst
+   *    The number of tokens a full bucket holds.
+   * @param maxClients
+   *    The number of clients the table holds; rounded up to a power of two, at least two.
+   *
+   * @throws IllegalArgumentException
+   *    when a parameter is not positive
+   */
+  RateLimiter(final int permitsPerSecond, final int burst, final int maxClients) {
+    this(permitsPerSecond, burst, maxClients, System::nanoTime);
+  }
+
+  /**
+   * Create a limiter that reads the time from the given clock.
+   *
+   * @param permitsPerSecond
+   *    The rate at which each client's bucket refills.
+   * @param burst
+   *    The number of tokens a full bucket holds.
+   * @param maxClients
+   *    The number of clients the table holds; rounded up to a power of two, at least two.
+   * @param nanoTime
+   *    The clock, in nanoseconds, as {@link System#nanoTime()} reads it.
+   *
+   * @throws IllegalArgumentException
+   *    when a parameter is not positive
+   */
+  RateLimiter(final int permitsPerSecond, final int burst, final int maxClients, final LongSupplier nanoTime) {
+    // validation
+    if (permitsPerSecond < 1 || burst < 1 || maxClients < 1) {
+      throw new IllegalArgumentException("permitsPerSecond, burst and maxClients must be positive");
+    }
+    Objects.requireNonNull(nanoTime, "nanoTime must not be null");
+    //
+    this.nanoTime = nanoTime;
+    this.originNanos = nanoTime.getAsLong();
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    this.burstNanos = intervalNanos * burst;
+    final int size = Math.max(2, maxClients == 1 ? 1 : Integer.highestOneBit(maxClients - 1) << 1);
+    this.buckets = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Take a token from a client's bucket.
+   *
+   * @param client
+   *    The key of the client.
+   *
+   * @return true if the client had a token; false if it must wait
+   */
+  boolean tryAcquire(final String client) {
+    final long now = nanoTime.getAsLong() - originNanos;
+    final Bucket bucket = bucketOf(client, now);
+    long full;
+    long next;
+    do {
+      full = bucket.full;
+      next = Math.max(full, now) + intervalNanos;
+      if (next - now > burstNanos) {
+        return false;
+      }
+    } while (!Bucket.FULL.compareAndSet(bucket, full, next));
+    return true;
+  }
+
+  //
+  // Private methods
+  //
+
+  private Bucket bucketOf(final String client, final long now) {
+    final int hash = client.hashCode() * 0x9E3779B9;
+    // the two slots are neighbours, so both are usually on the same cache line
+    final int first = (hash ^ (hash >>> 16)) & mask & ~1;
+    while (true) {
+      final Bucket a = buckets.get(first);
+      if (a != null && a.client.equals(client)) {
+        return a;
+      }
+      final Bucket b = buckets.get(first + 1);
+      if (b != null && b.client.equals(client)) {
+        return b;
+      }
+      // take an empty slot, or else the one that has been full the longest
+      final int victim = a == null || (b != null && a.full <= b.full) ? first : first + 1;
+      final Bucket created = new Bucket(client, now);
+      if (buckets.compareAndSet(victim, victim == first ? a : b, created)) {
+        return created;
+      }
+      // another client took the slot first; look again
+    }
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * The bucket of one client.
+   */
+  private static final class Bucket {
+    static final AtomicLongFieldUpdater<Bucket> FULL = AtomicLongFieldUpdater.newUpdater(Bucket.class, "full");
+
+    final String client;
+    // The time at which the bucket is full again; only ever moved on by compare-and-set.
+    volatile long full;
+
+    Bucket(final String client, final long full) {
+      this.client = client;
+      this.full = full;
+    }
+  }
+}
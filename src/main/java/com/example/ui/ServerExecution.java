@@ -0,0 +1,245 @@
+package com.example.ui;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+
+/**
+ * How the embedded Jetty server runs request handlers.
+ *
+ * <ul>
+ *   <li>{@link Mode#POOLED}: Spark's default Jetty thread pool.</li>
+ *   <li>{@link Mode#BOUNDED}: a Jetty thread pool with the given size and a
+ *   bounded job queue; connections beyond the queue are refused at once.</li>
+ *   <li>{@link Mode#VIRTUAL}: a new virtual thread per job, so the number of
+ *   requests in progress is not capped by platform threads. Needs Java 21.</li>
+ * </ul>
+ *
+ * <p>
+ * Some objects are kept per thread so that requests need not create them: the
+ * working game of {@code GameCenter}, the render buffer of the
+ * {@link PrecompiledTemplateEngine} and the cipher of the
+ * {@link TokenPlayerSessionStore}. They pay off when threads are reused, as
+ * pool threads are. A virtual thread is made for each job, so every new one
+ * builds them again. Jetty goes on serving a kept-alive connection on the
+ * thread that read it, which keeps that to about one request in fifteen with
+ * keep-alive clients; with a new connection per request it is about four in
+ * ten. {@code benchmarks/baseline/server-modes.txt} has the measurements.
+ * </p>
+ */
+public class ServerExecution {
+  private static final Logger LOG = Logger.getLogger(ServerExecution.class.getName());
+
+  /**
+   * The execution modes.
+   */
+  public enum Mode {POOLED, BOUNDED, VIRTUAL}
+
+  //
+  // Constants
+  //
+
+  /**
+   * The default largest number of platform threads in a bounded pool.
+   */
+  public static final int DEFAULT_MAX_THREADS = 200;
+
+  /**
+   * The default number of platform threads a bounded pool keeps ready.
+   */
+  public static final int DEFAULT_MIN_THREADS = 8;
+
+  /**
+   * The default time, in milliseconds, an idle pool thread waits before ending.
+   */
+  public static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+  /**
+   * The default number of jobs a bounded pool queues while all threads are busy.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1_000;
+
+  //
+  // Attributes
+  //
+
+  private final Mode mode;
+  private final int maxThreads;
+  private final int minThreads;
+  private final int idleTimeoutMillis;
+  private final int queueCapacity;
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create the execution settings.
+   *
+   * @param mode
+   *    The {@link Mode} to run handlers in.
+   * @param maxThreads
+   *    The largest number of pool threads; used by {@link Mode#BOUNDED}.
+   * @param minThreads
+   *    The number of pool threads kept ready; used by {@link Mode#BOUNDED}.
+   * @param idleTimeoutMillis
+   *    How long an idle pool thread waits before ending; used by {@link Mode#BOUNDED}.
+   * @param queueCapacity
+   *    The number of jobs queued while all threads are busy; used by {@link Mode#BOUNDED}.
+   *
+   * @throws IllegalArgumentException
+   *    when a size is not positive or {@code minThreads} is above {@code maxThreads}
+   */
+  public ServerExecution(final Mode mode, final int maxThreads, final int minThreads,
+                         final int idleTimeoutMillis, final int queueCapacity) {
+    // validate arguments
+    if (maxThreads < 1 || minThreads < 1 || minThreads > maxThreads) {
+      throw new IllegalArgumentException("thread counts must be positive with minThreads <= maxThreads");
+    }
+    if (idleTimeoutMillis < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException("idleTimeoutMillis and queueCapacity must be positive");
+    }
+    //
+    this.mode = mode;
+    this.maxThreads = maxThreads;
+    this.minThreads = minThreads;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Create the settings for a mode with the default sizes.
+   *
+   * @param mode
+   *    The {@link Mode} to run handlers in.
+   */
+  public ServerExecution(final Mode mode) {
+    this(mode, DEFAULT_MAX_THREADS, DEFAULT_MIN_THREADS, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * @return the execution {@link Mode}
+   */
+  public Mode getMode() {
+    return mode;
+  }
+
+  /**
+   * Install these settings into Spark. Must be called before the first route is
+   * defined, which is when Spark starts Jetty.
+   *
+   * @throws IllegalStateException
+   *    when {@link Mode#VIRTUAL} is asked for on a Java runtime without virtual threads
+   */
+  public void apply() {
+    switch (mode) {
+      case POOLED:
+        // nothing to do; Spark creates its default pool
+        break;
+      case BOUNDED:
+        final BlockingQueue<Runnable> queue = new BlockingArrayQueue<>(
+            Math.min(minThreads, queueCapacity), minThreads, queueCapacity);
+        install(new QueuedThreadPool(maxThreads, minThreads, idleTimeoutMillis, queue));
+        break;
+      case VIRTUAL:
+        install(new VirtualThreadPool(virtualThreadPerTaskExecutorFactory()));
+        break;
+      default:
+        throw new IllegalStateException("Unknown execution mode " + mode);
+    }
+    LOG.config("Request handlers run in " + mode + " mode.");
+  }
+
+  //
+  // Private methods
+  //
+
+  private static void install(final ThreadPool threadPool) {
+    EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, new EmbeddedJettyFactory().withThreadPool(threadPool));
+  }
+
+  /**
+   * Find {@code Executors.newVirtualThreadPerTaskExecutor()}, which the Java 8
+   * compiler cannot see.
+   */
+  private static Method virtualThreadPerTaskExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("Virtual threads need Java 21 or later.", e);
+    }
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * A Jetty pool that runs every job on a new virtual thread. Jetty 9.4 only
+   * wraps an executor in its deprecated {@code ExecutorThreadPool}, so the little
+   * the server asks of a pool is answered here: a virtual thread is always to be
+   * had, so none is ever idle and the pool is never low on threads.
+   */
+  private static final class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private final Method factory;
+    // Created on each start, as a stopped executor cannot be started again.
+    private volatile ExecutorService executor;
+
+    VirtualThreadPool(final Method factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+      executor = (ExecutorService) factory.invoke(null);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+      executor.shutdown();
+    }
+
+    @Override
+    public void execute(final Runnable job) {
+      executor.execute(job);
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+      final ExecutorService running = executor;
+      if (running != null) {
+        running.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public int getThreads() {
+      return 0;
+    }
+
+    @Override
+    public int getIdleThreads() {
+      return 0;
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package com.example.ui;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import spark.ModelAndView;
+import spark.Route;
+import spark.TemplateEngine;
+
+import com.example.appl.GameCenter;
+import com.example.appl.SiteStatistics;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The server's metrics: how long each route and each view takes, and the
+ * counters and gauges of the {@link GameCenter}, written in the Prometheus text
+ * format.
+ *
+ * <p>
+ * Routes and the {@link TemplateEngine} are timed by wrapping them. Timing a
+ * request reads the clock twice and records into a {@link LatencyHistogram},
+ * which neither allocates nor locks; all of the formatting is left to the
+ * scrape.
+ * </p>
+ */
+final class ServerMetrics {
+
+  //
+  // Constants
+  //
+
+  /**
+   * The content type of the Prometheus text format.
+   */
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  //
+  // Attributes
+  //
+
+  private final GameCenter gameCenter;
+  private final AdmissionControl admission;
+  // Latencies by route label, and render times by view name; sorted so each scrape lists them the same way.
+  private final Map<String, LatencyHistogram> routes = new ConcurrentSkipListMap<>();
+  private final Map<String, LatencyHistogram> views = new ConcurrentSkipListMap<>();
+  // The histogram of each view once it has been rendered; looked up on every render.
+  private final Map<String, LatencyHistogram> viewsByName = new ConcurrentHashMap<>();
+
+  //
+  // Constructor
+  //
+
+  /**
+   * Create the metrics.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} whose counters and gauges are reported.
+   * @param admission
+   *    The {@link AdmissionControl} whose rejections are reported.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} or {@code admission} parameter is null
+   */
+  ServerMetrics(final GameCenter gameCenter, final AdmissionControl admission) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    Objects.requireNonNull(admission, "admission must not be null");
+    //
+    this.gameCenter = gameCenter;
+    this.admission = admission;
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * Wrap a route so that the time it takes is recorded.
+   *
+   * @param method
+   *    The HTTP method the route answers.
+   * @param path
+   *    The path the route answers.
+   * @param route
+   *    The route to time.
+   *
+   * @return the timed route
+   */
+  Route timed(final String method, final String path, final Route route) {
+    final LatencyHistogram latencies = new LatencyHistogram();
+    routes.put("method=\"" + method + "\",route=\"" + path + '"', latencies);
+    return (request, response) -> {
+      final long start = System.nanoTime();
+      try {
+        return route.handle(request, response);
+      } finally {
+        latencies.record(System.nanoTime() - start);
+      }
+    };
+  }
+
+  /**
+   * Wrap a template engine so that the time each view takes to render is recorded.
+   *
+   * @param engine
+   *    The engine to time.
+   *
+   * @return the timed engine
+   */
+  TemplateEngine timed(final TemplateEngine engine) {
+    return new TemplateEngine() {
+      @Override
+      public String render(final ModelAndView modelAndView) {
+        final long start = System.nanoTime();
+        try {
+          return engine.render(modelAndView);
+        } finally {
+          viewLatencies(modelAndView.getViewName()).record(System.nanoTime() - start);
+        }
+      }
+    };
+  }
+
+  /**
+   * Write every metric in the Prometheus text format.
+   *
+   * @return the metrics text
+   */
+  String scrape() {
+    final StringBuilder out = new StringBuilder(4096);
+    summaries(out, "guessing_route_latency_seconds", "Time to answer a request, by route.", routes);
+    summaries(out, "guessing_view_render_seconds", "Time to render a view, by view.", views);
+
+    header(out, "guessing_requests_rejected_total", "counter", "Requests turned away with 429, by reason.");
+    sample(out, "guessing_requests_rejected_total", "reason=\"rate\"", admission.getRateRejections());
+    sample(out, "guessing_requests_rejected_total", "reason=\"concurrency\"", admission.getConcurrencyRejections());
+    header(out, "guessing_requests_in_progress", "gauge", "Requests in progress, when their number is limited.");
+    sample(out, "guessing_requests_in_progress", null, admission.getInProgress());
+
+    header(out, "guessing_guesses_total", "counter", "Guesses made on this server, by result.");
+    for (GuessResult result : GuessResult.values()) {
+      sample(out, "guessing_guesses_total", "result=\"" + result + '"', gameCenter.getGuessCount(result));
+    }
+    final SiteStatistics.Snapshot games = gameCenter.getLocalGameStats();
+    header(out, "guessing_games_total", "counter", "Games finished on this server.");
+    sample(out, "guessing_games_total", null, games.getTotalGames());
+    header(out, "guessing_games_won_total", "counter", "Games won on this server.");
+    sample(out, "guessing_games_won_total", null, games.getGamesWon());
+
+    header(out, "guessing_sessions_live", "gauge", "Player sessions that have not ended.");
+    sample(out, "guessing_sessions_live", null, gameCenter.getLiveSessions());
+    header(out, "guessing_sessions_expired_total", "counter", "Player sessions ended because the player was idle.");
+    sample(out, "guessing_sessions_expired_total", null, gameCenter.getExpiredSessions());
+    header(out, "guessing_players_active", "gauge", "Players that hold a game slot.");
+    sample(out, "guessing_players_active", null, gameCenter.getActivePlayers());
+    return out.toString();
+  }
+
+  //
+  // Private methods
+  //
+
+  private LatencyHistogram viewLatencies(final String view) {
+    final LatencyHistogram latencies = viewsByName.get(view);
+    if (latencies != null) {
+      return latencies;
+    }
+    return viewsByName.computeIfAbsent(view, name -> {
+      final LatencyHistogram created = new LatencyHistogram();
+      views.put("view=\"" + name + '"', created);
+      return created;
+    });
+  }
+
+  private static void summaries(final StringBuilder out, final String name, final String help,
+                                final Map<String, LatencyHistogram> histograms) {
+    header(out, name, "summary", help);
+    for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+      final String labels = entry.getKey();
+      final LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+      for (double quantile : QUANTILES) {
+        // a summary with nothing counted has no quantiles
+        sample(out, name, labels + ",quantile=\"" + quantile + '"',
+            snapshot.getCount() == 0 ? Double.NaN : snapshot.valueAt(quantile) / NANOS_PER_SECOND);
+      }
+      sample(out, name + "_sum", labels, snapshot.getTotalNanos() / NANOS_PER_SECOND);
+      sample(out, name + "_count", labels, snapshot.getCount());
+    }
+  }
+
+  private static void header(final StringBuilder out, final String name, final String type, final String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(final StringBuilder out, final String name, final String labels, final double value) {
+    labels(out, name, labels).append(value).append('\n');
+  }
+
+  private static void sample(final StringBuilder out, final String name, final String labels, final long value) {
+    labels(out, name, labels).append(value).append('\n');
+  }
+
+  private static StringBuilder labels(final StringBuilder out, final String name, final String labels) {
+    out.append(name);
+    if (labels != null) {
+      out.append('{').append(labels).append('}');
+    }
+    return out.append(' ');
+  }
+}
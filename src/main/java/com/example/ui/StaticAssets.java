@@ -0,0 +1,259 @@
+package com.example.ui;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+/**
+ * The static files of the site, read into memory when the server starts and
+ * served by a route for each.
+ *
+ * <p>
+ * Each file is compressed once, with gzip at its best level, and the client is
+ * sent that copy when it takes gzip, so no request compresses anything. Every
+ * copy carries a tag made from its content, the same on every server, and a
+ * {@code Cache-Control} header that lets browsers keep it for a day; a browser
+ * that asks again with the tag is answered {@code 304 Not Modified}.
+ * </p>
+ *
+ * <p>
+ * Gzip is the only encoding offered. Brotli and Zstandard would make the text
+ * files smaller still, but the JDK has no encoder for either, and these few
+ * files, a few kilobytes each, do not earn a native library in the build;
+ * every client that sends {@code Accept-Encoding} takes gzip.
+ * </p>
+ */
+final class StaticAssets implements Route {
+
+  //
+  // Constants
+  //
+
+  /**
+   * How long, in seconds, browsers may use a static file without asking again.
+   * The file names carry no version, so a changed file must reach them within a day.
+   */
+  static final int MAX_AGE_SECONDS = 24 * 60 * 60;
+
+  private static final String CACHE_CONTROL = "public, max-age=" + MAX_AGE_SECONDS;
+  private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+  private static final String GZIP = "gzip";
+  private static final int NOT_FOUND_STATUS = 404;
+  private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+  static {
+    CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+    CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+    CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+    CONTENT_TYPES.put("json", "application/json; charset=utf-8");
+    CONTENT_TYPES.put("txt", "text/plain; charset=utf-8");
+    CONTENT_TYPES.put("svg", "image/svg+xml");
+    CONTENT_TYPES.put("ico", "image/x-icon");
+    CONTENT_TYPES.put("png", "image/png");
+    CONTENT_TYPES.put("gif", "image/gif");
+    CONTENT_TYPES.put("jpg", "image/jpeg");
+    CONTENT_TYPES.put("jpeg", "image/jpeg");
+  }
+  private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+  //
+  // Attributes
+  //
+
+  // The files by the path they are requested at.
+  private final Map<String, Asset> assets;
+
+  //
+  // Constructor
+  //
+
+  private StaticAssets(final Map<String, Asset> assets) {
+    this.assets = assets;
+  }
+
+  //
+  // Static methods
+  //
+
+  /**
+   * Read every file under a folder of the class path.
+   *
+   * @param location
+   *    The folder, such as {@code /public}; its files are served at their paths within it.
+   *
+   * @return the static files
+   *
+   * @throws UncheckedIOException
+   *    when the folder is missing or a file cannot be read
+   */
+  static StaticAssets load(final String location) {
+    final URL url = StaticAssets.class.getResource(location);
+    if (url == null) {
+      throw new UncheckedIOException(new IOException(location + " is not on the class path."));
+    }
+    try {
+      final URI uri = url.toURI();
+      if (!"jar".equals(uri.getScheme())) {
+        return new StaticAssets(read(Paths.get(uri)));
+      }
+      // packaged in a jar, whose file system may already be open
+      try (FileSystem jar = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
+        return new StaticAssets(read(jar.getPath(location)));
+      } catch (FileSystemAlreadyExistsException e) {
+        return new StaticAssets(read(FileSystems.getFileSystem(uri).getPath(location)));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (URISyntaxException e) {
+      throw new UncheckedIOException(new IOException(e));
+    }
+  }
+
+  //
+  // Package-private methods
+  //
+
+  /**
+   * @return the paths the static files are requested at
+   */
+  Set<String> paths() {
+    return assets.keySet();
+  }
+
+  //
+  // Route methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Object handle(final Request request, final Response response) throws IOException {
+    final Asset asset = assets.get(request.pathInfo());
+    if (asset == null) {
+      // mapped at the paths of the files, but not every path that reaches it need be one
+      response.status(NOT_FOUND_STATUS);
+      return "";
+    }
+    final boolean gzip = asset.gzipped != null && HttpCaching.acceptsGzip(request);
+    final String etag = gzip ? asset.gzippedEtag : asset.etag;
+    response.header(HttpCaching.CACHE_CONTROL_HEADER, CACHE_CONTROL);
+    response.header(HttpCaching.ETAG_HEADER, etag);
+    if (asset.gzipped != null) {
+      response.header(HttpCaching.VARY_HEADER, "Accept-Encoding");
+    }
+    if (HttpCaching.isCurrent(request, etag)) {
+      response.status(HttpCaching.NOT_MODIFIED_STATUS);
+      return "";
+    }
+    final byte[] body = gzip ? asset.gzipped : asset.content;
+    response.type(asset.contentType);
+    // written here, as Spark would gzip the body again if it saw the header before writing it
+    final HttpServletResponse raw = response.raw();
+    if (gzip) {
+      raw.setHeader(CONTENT_ENCODING_HEADER, GZIP);
+    }
+    raw.setContentLength(body.length);
+    final OutputStream out = raw.getOutputStream();
+    out.write(body);
+    out.flush();
+    return "";
+  }
+
+  //
+  // Private methods
+  //
+
+  private static Map<String, Asset> read(final Path root) throws IOException {
+    final Map<String, Asset> assets = new HashMap<>();
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        final StringBuilder path = new StringBuilder();
+        for (Path name : root.relativize(file)) {
+          path.append('/').append(name);
+        }
+        assets.put(path.toString(), new Asset(file.getFileName().toString(), Files.readAllBytes(file)));
+      }
+    }
+    return Collections.unmodifiableMap(assets);
+  }
+
+  //
+  // Inner classes
+  //
+
+  /**
+   * One static file, its gzip encoding and their tags.
+   */
+  private static final class Asset {
+    final String contentType;
+    final byte[] content;
+    final String etag;
+    // Null when compression does not make the file smaller.
+    final byte[] gzipped;
+    final String gzippedEtag;
+
+    Asset(final String name, final byte[] content) throws IOException {
+      final int dot = name.lastIndexOf('.');
+      final String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+      this.contentType = CONTENT_TYPES.getOrDefault(extension, DEFAULT_CONTENT_TYPE);
+      this.content = content;
+      final String tag = tag(content);
+      this.etag = '"' + tag + '"';
+      final byte[] compressed = gzip(content);
+      this.gzipped = compressed.length < content.length ? compressed : null;
+      this.gzippedEtag = '"' + tag + "-gzip\"";
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+        {
+          def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+      }) {
+        out.write(content);
+      }
+      return bytes.toByteArray();
+    }
+
+    private static String tag(final byte[] content) {
+      try {
+        final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+        final StringBuilder tag = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+          tag.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+        }
+        return tag.toString();
+      } catch (NoSuchAlgorithmException e) {
+        // every Java platform has SHA-256
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
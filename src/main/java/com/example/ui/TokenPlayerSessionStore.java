@@ -0,0 +1,274 @@
+package com.example.ui;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import spark.Request;
+import spark.Response;
+
+import com.example.appl.GameCenter;
+import com.example.appl.PlayerServices;
+import com.example.appl.PlayerStatistics;
+import com.example.model.GuessGame;
+
+/**
+ * A {@link PlayerSessionStore} that keeps nothing on the server: the player's
+ * game travels with every request in a cookie, so any server that shares the
+ * key can answer any request.
+ *
+ * <p>
+ * The cookie holds the packed game and its id, the player's statistics and
+ * the time it was issued, encrypted and authenticated with AES-GCM so the client can
+ * neither read the number to guess nor make up a game. It is issued again with every response and is refused
+ * once it is older than the session timeout, which gives the same idle timeout
+ * as a server session.
+ * </p>
+ *
+ * <p>
+ * A client can still send an earlier cookie again. The {@link GameCenter}
+ * remembers how many guesses each game played lately has made, so a cookie
+ * whose game has moved on, or finished, comes back without the game, and of
+ * several copies of a cookie sent at once only the first makes its guess: a
+ * wrong guess cannot be taken back. That memory belongs to each server and
+ * forgets a game once tens of thousands of others have been played, so a game
+ * can be replayed on another server, and its guesses counted there again.
+ * </p>
+ *
+ * <p>
+ * The player's statistics cannot be checked that way: an older cookie brings
+ * back the statistics it held, without the games finished since. Players in
+ * this store are therefore never put on the leaderboard.
+ * </p>
+ */
+public class TokenPlayerSessionStore implements PlayerSessionStore {
+  private static final Logger LOG = Logger.getLogger(TokenPlayerSessionStore.class.getName());
+
+  //
+  // Constants
+  //
+
+  /**
+   * The name of the cookie that holds the player.
+   */
+  public static final String COOKIE_NAME = "player";
+
+  private static final String CIPHER = "AES/GCM/NoPadding";
+  private static final int KEY_BYTES = 16;
+  private static final int IV_BYTES = 12;
+  private static final int TAG_BITS = 128;
+
+  private static final byte VERSION = 3;
+  // version, issued-at seconds, packed game, game id and packed statistics
+  private static final int PLAIN_BYTES = 1 + Long.BYTES + Long.BYTES + Long.BYTES + Long.BYTES;
+  // Packed games are never negative; as PlayerServices.getPackedGame() marks no game.
+  private static final long NO_GAME = -1;
+
+  //
+  // Attributes
+  //
+
+  private final GameCenter gameCenter;
+  private final SecretKey key;
+  private final int timeoutSeconds;
+  private final SecureRandom random = new SecureRandom();
+  private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(TokenPlayerSessionStore::newCipher);
+
+  //
+  // Constructors
+  //
+
+  /**
+   * Create the store.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} that plays the games.
+   * @param key
+   *    The AES key, of 16, 24 or 32 bytes, shared by every server of the application.
+   * @param timeoutSeconds
+   *    The idle time, in seconds, after which a cookie is refused.
+   *
+   * @throws NullPointerException
+   *    when the {@code gameCenter} or {@code key} parameter is null
+   * @throws IllegalArgumentException
+   *    when the key is not a valid AES key length or the timeout is not positive
+   */
+  public TokenPlayerSessionStore(final GameCenter gameCenter, final byte[] key, final int timeoutSeconds) {
+    // validation
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    Objects.requireNonNull(key, "key must not be null");
+    if (key.length != 16 && key.length != 24 && key.length != 32) {
+      throw new IllegalArgumentException("key must be 16, 24 or 32 bytes");
+    }
+    if (timeoutSeconds <= 0) {
+      throw new IllegalArgumentException("timeoutSeconds must be positive");
+    }
+    //
+    this.gameCenter = gameCenter;
+    this.key = new SecretKeySpec(key, "AES");
+    this.timeoutSeconds = timeoutSeconds;
+  }
+
+  /**
+   * Create the store with the default session timeout.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} that plays the games.
+   * @param key
+   *    The AES key, of 16, 24 or 32 bytes, shared by every server of the application.
+   */
+  public TokenPlayerSessionStore(final GameCenter gameCenter, final byte[] key) {
+    this(gameCenter, key, HttpPlayerSessionStore.SESSION_TIMEOUT_PERIOD);
+  }
+
+  //
+  // Public methods
+  //
+
+  /**
+   * Make a random key. Cookies issued with it can only be read by this server,
+   * and only until it is restarted.
+   *
+   * @return a new AES key
+   */
+  public static byte[] randomKey() {
+    final byte[] key = new byte[KEY_BYTES];
+    new SecureRandom().nextBytes(key);
+    return key;
+  }
+
+  //
+  // PlayerSessionStore methods
+  //
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PlayerServices find(final Request request) {
+    final String token = request.cookie(COOKIE_NAME);
+    if (token == null) {
+      return null;
+    }
+    final ByteBuffer plain = open(token);
+    if (plain == null || plain.get() != VERSION) {
+      return null;
+    }
+    final long age = nowSeconds() - plain.getLong();
+    if (age < 0 || age > timeoutSeconds) {
+      return null;
+    }
+    final long packedGame = plain.getLong();
+    final long gameId = plain.getLong();
+    final long packedStats = plain.getLong();
+    return gameCenter.restorePlayer(packedGame == NO_GAME ? null : unpackGame(packedGame), gameId,
+        PlayerStatistics.fromPackedState(packedStats));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public PlayerServices start(final Request request, final Response response) {
+    return gameCenter.restorePlayer(null, 0, PlayerStatistics.NONE);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>
+   * Sets the cookie that holds the player's game, its id and statistics.
+   * </p>
+   */
+  @Override
+  public void save(final PlayerServices playerServices, final Request request, final Response response) {
+    final ByteBuffer plain = ByteBuffer.allocate(PLAIN_BYTES)
+        .put(VERSION)
+        .putLong(nowSeconds())
+        .putLong(playerServices.getPackedGame())
+        .putLong(playerServices.getGameId())
+        .putLong(playerServices.getPlayerStats().toPackedState());
+    response.cookie("/", COOKIE_NAME, seal(plain.array()), timeoutSeconds, "https".equals(request.scheme()), true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean keepsPlayers() {
+    return false;
+  }
+
+  //
+  // Private methods
+  //
+
+  /**
+   * Encrypt the plain bytes into a token: the IV followed by the ciphertext and tag.
+   */
+  private String seal(final byte[] plain) {
+    final byte[] iv = new byte[IV_BYTES];
+    random.nextBytes(iv);
+    try {
+      final Cipher cipher = ciphers.get();
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+      final byte[] sealed = new byte[IV_BYTES + cipher.getOutputSize(plain.length)];
+      System.arraycopy(iv, 0, sealed, 0, IV_BYTES);
+      cipher.doFinal(plain, 0, plain.length, sealed, IV_BYTES);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(sealed);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not seal the player cookie.", e);
+    }
+  }
+
+  /**
+   * Decrypt a token; null if it was not made with this key or has been changed.
+   */
+  private ByteBuffer open(final String token) {
+    try {
+      final byte[] sealed = Base64.getUrlDecoder().decode(token);
+      if (sealed.length != IV_BYTES + PLAIN_BYTES + TAG_BITS / Byte.SIZE) {
+        return null;
+      }
+      final Cipher cipher = ciphers.get();
+      cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+      return ByteBuffer.wrap(cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES));
+    } catch (IllegalArgumentException | GeneralSecurityException e) {
+      LOG.log(Level.FINE, "Refused a player cookie: {0}", e);
+      return null;
+    }
+  }
+
+  /**
+   * Unpack a game, or drop it when it was played by rules this server does not know.
+   */
+  private static GuessGame unpackGame(final long packedGame) {
+    try {
+      return GuessGame.fromPackedState(packedGame);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static long nowSeconds() {
+    return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+  }
+
+  private static Cipher newCipher() {
+    try {
+      return Cipher.getInstance(CIPHER);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(CIPHER + " is not available.", e);
+    }
+  }
+}
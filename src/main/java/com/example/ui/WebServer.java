@@ -3,9 +3,10 @@ package com.example.ui;
 import java.util.Objects;
 import java.util.logging.Logger;
 
+import static spark.Spark.afterAfter;
+import static spark.Spark.before;
 import static spark.Spark.get;
 import static spark.Spark.post;
-import static spark.Spark.staticFiles;
 import spark.TemplateEngine;
 
 import com.example.appl.GameCenter;
@@ -64,12 +65,46 @@ public class WebServer {
    */
   public static final String GUESS_URL = "/guess";
 
+  /**
+   * The URL pattern to start a game, or get its status, through the JSON API.
+   */
+  public static final String API_GAME_URL = "/api/v1/game";
+
+  /**
+   * The URL pattern to post a guess through the JSON API.
+   */
+  public static final String API_GUESS_URL = "/api/v1/guess";
+
+  /**
+   * The URL pattern to post a batch of guesses through the JSON API.
+   */
+  public static final String API_GUESSES_URL = "/api/v1/guesses";
+
+  /**
+   * The URL pattern to request the sitewide statistics through the JSON API.
+   */
+  public static final String API_STATS_URL = "/api/v1/stats";
+
+  /**
+   * The URL pattern to request the statistics of the last minute, hour and day through the JSON API.
+   */
+  public static final String API_RECENT_STATS_URL = "/api/v1/stats/recent";
+
+  /**
+   * The URL pattern to scrape the server's metrics in the Prometheus text format.
+   */
+  public static final String METRICS_URL = "/metrics";
+
   //
   // Attributes
   //
 
   private final GameCenter gameCenter;
   private final TemplateEngine templateEngine;
+  private final ServerExecution execution;
+  private final PlayerSessionStore sessions;
+  private final AdmissionControl admission;
+  private final ServerMetrics metrics;
 
   //
   // Constructor
@@ -86,12 +121,63 @@ public class WebServer {
   public WebServer(
       final GameCenter gameCenter,
       final TemplateEngine templateEngine) {
+    this(gameCenter, templateEngine, new ServerExecution(ServerExecution.Mode.POOLED),
+        new HttpPlayerSessionStore(gameCenter));
+  }
+
+  /**
+   * The constructor for the Web Server.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} for the application.
+   * @param templateEngine
+   *    The default {@link TemplateEngine} to render views.
+   * @param execution
+   *    The {@link ServerExecution} settings for running request handlers.
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players between requests.
+   */
+  public WebServer(
+      final GameCenter gameCenter,
+      final TemplateEngine templateEngine,
+      final ServerExecution execution,
+      final PlayerSessionStore sessions) {
+    this(gameCenter, templateEngine, execution, sessions, new AdmissionControl());
+  }
+
+  /**
+   * The constructor for the Web Server.
+   *
+   * @param gameCenter
+   *    The {@link GameCenter} for the application.
+   * @param templateEngine
+   *    The default {@link TemplateEngine} to render views.
+   * @param execution
+   *    The {@link ServerExecution} settings for running request handlers.
+   * @param sessions
+   *    The {@link PlayerSessionStore} that keeps the players between requests.
+   * @param admission
+   *    The {@link AdmissionControl} that turns away requests beyond the limits.
+   */
+  public WebServer(
+      final GameCenter gameCenter,
+      final TemplateEngine templateEngine,
+      final ServerExecution execution,
+      final PlayerSessionStore sessions,
+      final AdmissionControl admission) {
     // validation
     Objects.requireNonNull(gameCenter, "gameCenter must not be null");
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
+    Objects.requireNonNull(execution, "execution must not be null");
+    Objects.requireNonNull(sessions, "sessions must not be null");
+    Objects.requireNonNull(admission, "admission must not be null");
     //
     this.gameCenter = gameCenter;
     this.templateEngine = templateEngine;
+    this.execution = execution;
+    this.sessions = sessions;
+    this.admission = admission;
+    this.metrics = new ServerMetrics(gameCenter, admission);
   }
 
   //
@@ -102,14 +188,18 @@ public class WebServer {
    * Initialize all of the HTTP routes that make up this web application.
    *
    * <p>
-   * Initialization of the web server includes defining the location for static
+   * Initialization of the web server includes loading the static
    * files, and defining all routes for processing client requests. The method
    * returns after the web server finishes its initialization.
    * </p>
    */
   public void initialize() {
-    // Configuration to serve static files
-    staticFiles.location("/public");
+    // Configuration of the threads that run the routes; must precede the first route
+    execution.apply();
+
+    // Static files are served from memory, compressed ahead of time, by a route for each;
+    // see StaticAssets for the headers that let browsers keep them
+    final StaticAssets assets = StaticAssets.load("/public");
 
     //// Setting any route (or filter) in Spark triggers initialization of the
     //// embedded Jetty web server.
@@ -144,16 +234,55 @@ public class WebServer {
     //// Create separate Route classes to handle each route; this keeps your
     //// code clean; using small classes.
 
+    // Requests beyond the limits are turned away before any route runs: each client is
+    // held to its rate on the routes that start sessions and play games, and the server
+    // to its number of requests in progress, which are counted out however they end.
+    for (String path : new String[] {HOME_URL, GAME_URL, GUESS_URL, API_GAME_URL, API_GUESS_URL, API_GUESSES_URL}) {
+      before(path, admission::limitRate);
+    }
+    before(admission::enter);
+    afterAfter(admission::leave);
+
+    // Every route, and the rendering of every view, is timed for the metrics.
+    final TemplateEngine views = metrics.timed(templateEngine);
+
     // These are examples of the Dependency inversion principle where the
     // GameCenter and WebServer dependencies are injected into the object.
     // Shows Home page.
-    get(HOME_URL, new GetHomeRoute(gameCenter, templateEngine));
+    get(HOME_URL, metrics.timed("GET", HOME_URL, new GetHomeRoute(gameCenter, views, sessions)));
 
     // Shows Game page.
-    get(GAME_URL, new GetGameRoute(templateEngine));
+    get(GAME_URL, metrics.timed("GET", GAME_URL, new GetGameRoute(views, sessions)));
 
     // Post a guess.
-    post(GUESS_URL, new PostGuessRoute(gameCenter, templateEngine));
+    post(GUESS_URL, metrics.timed("POST", GUESS_URL, new PostGuessRoute(gameCenter, views, sessions)));
+
+    // The JSON API gives scripted clients the same game without rendering pages.
+    // Start a game.
+    post(API_GAME_URL, metrics.timed("POST", API_GAME_URL, new PostApiGameRoute(sessions)));
+
+    // Get the game status.
+    get(API_GAME_URL, metrics.timed("GET", API_GAME_URL, new GetApiGameRoute(sessions)));
+
+    // Post a guess.
+    post(API_GUESS_URL, metrics.timed("POST", API_GUESS_URL, new PostApiGuessRoute(sessions)));
+
+    // Post a batch of guesses for one or many players.
+    post(API_GUESSES_URL, metrics.timed("POST", API_GUESSES_URL, new PostApiGuessesRoute(gameCenter, sessions)));
+
+    // Get the sitewide statistics.
+    get(API_STATS_URL, metrics.timed("GET", API_STATS_URL, new GetApiStatsRoute(gameCenter)));
+
+    // Get the statistics of the last minute, hour and day.
+    get(API_RECENT_STATS_URL, metrics.timed("GET", API_RECENT_STATS_URL, new GetApiRecentStatsRoute(gameCenter)));
+
+    // Serve the static files; not timed, as they are answered from memory.
+    for (String path : assets.paths()) {
+      get(path, assets);
+    }
+
+    // Scrape the metrics; not timed itself.
+    get(METRICS_URL, new GetMetricsRoute(metrics));
 
     //
     LOG.config("WebServer is initialized.");
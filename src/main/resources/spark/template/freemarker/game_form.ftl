@@ -15,7 +15,7 @@
       </#if>
       
       <form action="./guess" method="POST">
-        Guess a number between 0 and 9. You have ${guessesLeft} guess<#if
+        Guess a number between 0 and ${highestNumber}. You have ${guessesLeft} guess<#if
 guessesLeft gt 1>es</#if> left.
         <br/>
         <input name="myGuess" />
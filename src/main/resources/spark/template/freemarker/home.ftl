@@ -14,6 +14,26 @@
         ${gameStatsMessage}
       </p>
       
+      <#if playerStatsMessage??>
+      <h2>Your Stats</h2>
+      <p>
+        ${playerStatsMessage}
+      </p>
+      <#if playerRankMessage??>
+      <p>
+        ${playerRankMessage}
+      </p>
+      </#if>
+      </#if>
+      <#if leaders?has_content>
+      <h2>Leaderboard</h2>
+      <ol>
+        <#list leaders as leader>
+        <li>${leader}</li>
+        </#list>
+      </ol>
+      </#if>
+      
       <#if newPlayer>
         <p>
           <a href="/game">Want to play a game?!?</a>
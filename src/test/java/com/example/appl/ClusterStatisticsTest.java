@@ -0,0 +1,102 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link ClusterStatistics} component.
+ */
+@Tag("Application-tier")
+public class ClusterStatisticsTest {
+
+  private final ClusterStatistics cluster = new ClusterStatistics("a");
+
+  private static Map<String, SiteStatistics.Snapshot> counts(final String nodeId, final long games,
+                                                             final long wins) {
+    return Collections.singletonMap(nodeId, new SiteStatistics.Snapshot(games, wins));
+  }
+
+  private void assertRemoteTotals(final long games, final long wins) {
+    assertEquals(games, cluster.remoteTotals().getTotalGames());
+    assertEquals(wins, cluster.remoteTotals().getGamesWon());
+  }
+
+  @Test
+  public void nodeIdIsRequired() {
+    assertThrows(NullPointerException.class, () -> new ClusterStatistics(null));
+  }
+
+  @Test
+  public void newNodeKnowsNoOthers() {
+    assertEquals("a", cluster.getNodeId());
+    assertRemoteTotals(0, 0);
+  }
+
+  @Test
+  public void otherNodesAreAddedUp() {
+    assertTrue(cluster.merge(counts("b", 3, 1)));
+    assertTrue(cluster.merge(counts("c", 5, 2)));
+
+    assertRemoteTotals(8, 3);
+  }
+
+  @Test
+  public void mergeKeepsTheLargerCounts() {
+    cluster.merge(counts("b", 5, 2));
+
+    assertFalse(cluster.merge(counts("b", 3, 1)));
+    assertFalse(cluster.merge(counts("b", 5, 2)));
+    assertTrue(cluster.merge(counts("b", 6, 2)));
+
+    assertRemoteTotals(6, 2);
+  }
+
+  @Test
+  public void ownCountsAreIgnored() {
+    assertFalse(cluster.merge(counts("a", 100, 50)));
+
+    assertRemoteTotals(0, 0);
+  }
+
+  @Test
+  public void countsIncludeThisNode() {
+    cluster.merge(counts("b", 3, 1));
+    final SiteStatistics.Snapshot local = new SiteStatistics.Snapshot(2, 2);
+
+    final Map<String, SiteStatistics.Snapshot> counts = cluster.counts(local);
+
+    assertEquals(2, counts.size());
+    assertSame(local, counts.get("a"));
+    assertEquals(3, counts.get("b").getTotalGames());
+  }
+
+  /**
+   * Two nodes that have received the same counts, in any order, agree.
+   */
+  @Test
+  public void mergeOrderDoesNotMatter() {
+    final ClusterStatistics other = new ClusterStatistics("a");
+    final Map<String, SiteStatistics.Snapshot> older = new HashMap<>(counts("b", 3, 1));
+    older.put("c", new SiteStatistics.Snapshot(4, 4));
+    final Map<String, SiteStatistics.Snapshot> newer = counts("b", 7, 2);
+
+    cluster.merge(older);
+    cluster.merge(newer);
+    other.merge(newer);
+    other.merge(older);
+
+    assertRemoteTotals(11, 6);
+    assertEquals(11, other.remoteTotals().getTotalGames());
+    assertEquals(6, other.remoteTotals().getGamesWon());
+  }
+}
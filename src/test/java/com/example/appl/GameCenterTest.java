@@ -0,0 +1,100 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link GameCenter} component.
+ */
+@Tag("Application-tier")
+public class GameCenterTest {
+
+  private static GameCenter gameCenter(final GameCenter.Settings settings) {
+    // the reaper's thread is never started
+    return new GameCenter(settings.sessionReaper(new SessionReaper(60_000, 1_000)));
+  }
+
+  @Test
+  public void settingsRefuseBadValues() {
+    final GameCenter.Settings settings = new GameCenter.Settings();
+
+    assertThrows(IllegalArgumentException.class, () -> settings.maxStalenessMillis(-1));
+    assertThrows(NullPointerException.class, () -> settings.gameStore(null));
+    assertThrows(NullPointerException.class, () -> settings.rules(null));
+  }
+
+  @Test
+  public void statsMessageStartsWithNoGames() {
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings());
+
+    assertEquals(GameCenter.NO_GAMES_MESSAGE, gameCenter.getGameStatsMessage());
+  }
+
+  @Test
+  public void statsMessageIsFormattedOncePerVersion() {
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings());
+    gameCenter.gameFinished(true);
+
+    final String message = gameCenter.getGameStatsMessage();
+
+    assertEquals(String.format(GameCenter.ONE_GAME_MESSAGE, "100%"), message);
+    assertSame(message, gameCenter.getGameStatsMessage());
+  }
+
+  @Test
+  public void statsMessageFollowsNewGames() {
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings());
+    gameCenter.gameFinished(true);
+    final String before = gameCenter.getGameStatsMessage();
+
+    gameCenter.gameFinished(false);
+    final String after = gameCenter.getGameStatsMessage();
+
+    assertNotSame(before, after);
+    assertEquals(String.format(GameCenter.GAMES_PLAYED_FORMAT, 2, "50%"), after);
+  }
+
+  @Test
+  public void statsMessageMayBeStale() {
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings().maxStalenessMillis(60_000));
+    gameCenter.getGameStatsMessage();
+
+    gameCenter.gameFinished(true);
+
+    assertEquals(GameCenter.NO_GAMES_MESSAGE, gameCenter.getGameStatsMessage());
+  }
+
+  @Test
+  public void statsIncludeTheOtherNodes() {
+    final ClusterStatistics cluster = new ClusterStatistics("a");
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings().cluster(cluster));
+    gameCenter.gameFinished(true);
+    gameCenter.getGameStatsMessage();
+
+    cluster.merge(Collections.singletonMap("b", new SiteStatistics.Snapshot(3, 0)));
+
+    assertEquals(4, gameCenter.getGameStatsVersion());
+    assertEquals(1, gameCenter.getLocalGameStats().getTotalGames());
+    assertEquals(String.format(GameCenter.GAMES_PLAYED_FORMAT, 4, "25%"), gameCenter.getGameStatsMessage());
+  }
+
+  @Test
+  public void statsStartFromTheStore() {
+    final StatisticsStore store = new TransientStatisticsStore() {
+      @Override
+      public SiteStatistics.Snapshot recover() {
+        return new SiteStatistics.Snapshot(10, 5);
+      }
+    };
+    final GameCenter gameCenter = gameCenter(new GameCenter.Settings().statisticsStore(store));
+
+    assertEquals(String.format(GameCenter.GAMES_PLAYED_FORMAT, 10, "50%"), gameCenter.getGameStatsMessage());
+  }
+}
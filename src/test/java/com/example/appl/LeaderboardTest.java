@@ -0,0 +1,104 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link Leaderboard} component.
+ */
+@Tag("Application-tier")
+public class LeaderboardTest {
+
+  private static final PlayerStatistics ONE_LOSS = PlayerStatistics.NONE.lost();
+  private static final PlayerStatistics ONE_WIN = PlayerStatistics.NONE.won(1);
+  private static final PlayerStatistics TWO_WINS = ONE_WIN.won(1);
+
+  private final Leaderboard leaderboard = new Leaderboard();
+
+  @Test
+  public void newBoardIsEmpty() {
+    assertEquals(0, leaderboard.size());
+    assertTrue(leaderboard.getTop().isEmpty());
+  }
+
+  @Test
+  public void playersAreRankedByStreakThenRate() {
+    final Leaderboard.Entry loser = leaderboard.update(null, ONE_LOSS);
+    final Leaderboard.Entry streak = leaderboard.update(null, TWO_WINS);
+    final Leaderboard.Entry winner = leaderboard.update(null, ONE_WIN);
+
+    assertEquals(3, leaderboard.rankOf(loser));
+    assertEquals(1, leaderboard.rankOf(streak));
+    assertEquals(2, leaderboard.rankOf(winner));
+    assertEquals(String.format(Leaderboard.STANDING_FORMAT, 2, 2, 100, 2, "games"), leaderboard.getTop().get(0));
+  }
+
+  @Test
+  public void equalPlayersShareARank() {
+    final Leaderboard.Entry first = leaderboard.update(null, ONE_WIN);
+    final Leaderboard.Entry second = leaderboard.update(null, ONE_WIN);
+
+    assertEquals(1, leaderboard.rankOf(first));
+    assertEquals(1, leaderboard.rankOf(second));
+  }
+
+  @Test
+  public void updateMovesThePlayer() {
+    final Leaderboard.Entry other = leaderboard.update(null, ONE_WIN);
+    final Leaderboard.Entry entry = leaderboard.update(null, ONE_LOSS);
+
+    final Leaderboard.Entry moved = leaderboard.update(entry, ONE_LOSS.won(1).won(1));
+
+    assertEquals(2, leaderboard.size());
+    assertEquals(entry.getPlayerNumber(), moved.getPlayerNumber());
+    assertEquals(1, leaderboard.rankOf(moved));
+    assertEquals(2, leaderboard.rankOf(other));
+  }
+
+  @Test
+  public void leaveTakesThePlayerOff() {
+    final Leaderboard.Entry best = leaderboard.update(null, TWO_WINS);
+    final Leaderboard.Entry other = leaderboard.update(null, ONE_LOSS);
+
+    leaderboard.leave(best);
+    leaderboard.leave(best);
+    leaderboard.leave(null);
+
+    assertEquals(1, leaderboard.size());
+    assertEquals(1, leaderboard.rankOf(other));
+    assertEquals(1, leaderboard.getTop().size());
+  }
+
+  @Test
+  public void topHoldsTheBestTen() {
+    Leaderboard.Entry worst = null;
+    for (int i = 0; i < 2 * Leaderboard.TOP_SIZE; i++) {
+      worst = leaderboard.update(null, ONE_LOSS);
+    }
+    final Leaderboard.Entry best = leaderboard.update(null, TWO_WINS);
+
+    final List<String> top = leaderboard.getTop();
+
+    assertEquals(Leaderboard.TOP_SIZE, top.size());
+    assertEquals(String.format(Leaderboard.STANDING_FORMAT, best.getPlayerNumber(), 2, 100, 2, "games"), top.get(0));
+    assertEquals(2, leaderboard.rankOf(worst));
+  }
+
+  @Test
+  public void topIsKeptWhenOnlyPlayersBelowItChange() {
+    for (int i = 0; i < Leaderboard.TOP_SIZE; i++) {
+      leaderboard.update(null, ONE_WIN);
+    }
+    final List<String> top = leaderboard.getTop();
+
+    leaderboard.leave(leaderboard.update(null, ONE_LOSS));
+
+    assertSame(top, leaderboard.getTop());
+  }
+}
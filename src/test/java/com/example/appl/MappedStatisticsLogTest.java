@@ -0,0 +1,111 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link MappedStatisticsLog} component. The
+ * background thread is never started; closing the log writes the last totals.
+ */
+@Tag("Application-tier")
+public class MappedStatisticsLogTest {
+
+  private Path file;
+
+  @BeforeEach
+  public void createFile() throws IOException {
+    file = Files.createTempFile("statistics", ".log");
+    Files.delete(file);
+  }
+
+  @AfterEach
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private MappedStatisticsLog open() throws IOException {
+    return new MappedStatisticsLog(file, MappedStatisticsLog.FsyncPolicy.NONE);
+  }
+
+  @Test
+  public void newLogRecoversNothing() throws IOException {
+    final MappedStatisticsLog log = open();
+    try {
+      assertEquals(0, log.recover().getTotalGames());
+      assertEquals(0, log.recover().getGamesWon());
+    } finally {
+      log.close();
+    }
+  }
+
+  @Test
+  public void totalsSurviveAReopen() throws IOException {
+    final MappedStatisticsLog first = open();
+    first.gameFinished(true);
+    first.gameFinished(false);
+    first.close();
+
+    final MappedStatisticsLog second = open();
+    second.gameFinished(true);
+    second.close();
+    final MappedStatisticsLog third = open();
+    try {
+      assertEquals(3, third.recover().getTotalGames());
+      assertEquals(2, third.recover().getGamesWon());
+    } finally {
+      third.close();
+    }
+  }
+
+  /**
+   * More runs than the log has records wrap around it; the newest record wins.
+   */
+  @Test
+  public void newestRecordIsRecoveredAfterWrapping() throws IOException {
+    for (int run = 0; run < 1_500; run++) {
+      final MappedStatisticsLog log = open();
+      log.gameFinished(run % 3 == 0);
+      log.close();
+    }
+
+    final MappedStatisticsLog log = open();
+    try {
+      assertEquals(1_500, log.recover().getTotalGames());
+      assertEquals(500, log.recover().getGamesWon());
+    } finally {
+      log.close();
+    }
+  }
+
+  @Test
+  public void openLogIsLocked() throws IOException {
+    final MappedStatisticsLog log = open();
+    try {
+      assertThrows(IllegalStateException.class, this::open);
+    } finally {
+      log.close();
+    }
+  }
+
+  @Test
+  public void otherFileIsRefused() throws IOException {
+    Files.write(file, new byte[] {1, 2, 3});
+
+    assertThrows(IOException.class, this::open);
+  }
+
+  @Test
+  public void intervalsMustBePositive() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new MappedStatisticsLog(file, MappedStatisticsLog.FsyncPolicy.NONE, 0, 1));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link PlayedGames} component.
+ */
+@Tag("Application-tier")
+public class PlayedGamesTest {
+
+  private final PlayedGames playedGames = new PlayedGames(16);
+
+  @Test
+  public void capacityMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new PlayedGames(0));
+  }
+
+  @Test
+  public void newIdIsNeverNoId() {
+    for (int i = 0; i < 10_000; i++) {
+      assertNotEquals(PlayedGames.NO_ID, PlayedGames.newId());
+    }
+  }
+
+  @Test
+  public void eachGuessIsClaimedOnce() {
+    final long id = PlayedGames.newId();
+
+    assertTrue(playedGames.claim(id, 1));
+    assertFalse(playedGames.claim(id, 1));
+    assertTrue(playedGames.claim(id, 2));
+    assertFalse(playedGames.claim(id, 1));
+    assertFalse(playedGames.claim(id, 2));
+  }
+
+  @Test
+  public void copyIsBehindOnceTheGameMovedOn() {
+    final long id = PlayedGames.newId();
+    assertFalse(playedGames.isBehind(id, 0));
+
+    playedGames.claim(id, 1);
+
+    assertTrue(playedGames.isBehind(id, 0));
+    assertFalse(playedGames.isBehind(id, 1));
+  }
+
+  @Test
+  public void gameWithoutIdIsNeverChecked() {
+    assertTrue(playedGames.claim(PlayedGames.NO_ID, 1));
+    assertTrue(playedGames.claim(PlayedGames.NO_ID, 1));
+
+    assertFalse(playedGames.isBehind(PlayedGames.NO_ID, 0));
+  }
+
+  @Test
+  public void guessCountsAreKeptApartFromTheId() {
+    // ids that differ only in the bits that hold the guesses are the same game
+    final long id = 0x1234_5600L;
+    playedGames.claim(id, 3);
+
+    assertFalse(playedGames.claim(id | 3, 3));
+    assertTrue(playedGames.isBehind(id | 0xFF, 2));
+  }
+
+  @Test
+  public void laterGamePushesOutTheOneInItsSlot() {
+    // the ids' kept bits pick the same slot of the 16
+    final long older = 1L << 8;
+    final long newer = 17L << 8;
+    playedGames.claim(older, 2);
+
+    assertTrue(playedGames.claim(newer, 1));
+
+    assertTrue(playedGames.isBehind(newer, 0));
+    assertFalse(playedGames.isBehind(older, 1));
+  }
+}
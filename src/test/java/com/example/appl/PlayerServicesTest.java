@@ -0,0 +1,100 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.GameRules;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The unit test suite for the {@link PlayerServices} component.
+ */
+@Tag("Application-tier")
+public class PlayerServicesTest {
+
+  private static final int SECRET = 4;
+  private static final int WRONG = 1;
+  private static final GameRules RULES = GameRules.of(10, 3, false);
+
+  private final SlabGameStore gameStore = new SlabGameStore();
+  // the reaper's thread is never started
+  private final GameCenter gameCenter = new GameCenter(new GameCenter.Settings()
+      .gameStore(gameStore)
+      .sessionReaper(new SessionReaper(60_000, 1_000))
+      .rules(RULES)
+      .numbers(upperBound -> SECRET));
+  private final PlayerServices player = gameCenter.newPlayerServices();
+
+  @Test
+  public void newPlayerHasNoGame() {
+    assertFalse(player.hasGame());
+    assertEquals(-1, player.getPackedGame());
+    assertEquals(0, gameStore.size());
+  }
+
+  @Test
+  public void guessWithoutGameIsRefused() {
+    assertThrows(IllegalStateException.class, () -> player.makeGuess(SECRET));
+  }
+
+  @Test
+  public void startGameTakesOneSlot() {
+    assertTrue(player.startGame());
+    assertTrue(player.startGame());
+
+    assertTrue(player.hasGame());
+    assertTrue(player.isStartingGame());
+    assertEquals(RULES.getGuesses(), player.guessesLeft());
+    assertEquals(1, gameStore.size());
+  }
+
+  @Test
+  public void guessesAreSaved() {
+    player.startGame();
+
+    assertEquals(GuessResult.WRONG, player.makeGuess(WRONG));
+
+    assertEquals(RULES.getGuesses() - 1, player.guessesLeft());
+    assertEquals(RULES.getGuesses() - 1, player.currentGame().guessesLeft());
+  }
+
+  @Test
+  public void winningFinishesTheGame() {
+    player.startGame();
+
+    assertEquals(GuessResult.WON, player.makeGuess(SECRET));
+    player.finishedGame();
+
+    assertFalse(player.hasGame());
+    assertEquals(1, player.getPlayerStats().getGames());
+    assertEquals(1, gameCenter.getGameStats().getGamesWon());
+  }
+
+  @Test
+  public void endSessionReleasesTheSlot() {
+    player.startGame();
+
+    player.endSession();
+
+    assertTrue(player.isSessionEnded());
+    assertEquals(0, gameStore.size());
+  }
+
+  /**
+   * A player whose session has ended must not take a slot it would never give back.
+   */
+  @Test
+  public void endedPlayerStartsNothing() {
+    player.endSession();
+
+    assertFalse(player.startGame());
+    assertThrows(IllegalStateException.class, player::currentGame);
+    assertThrows(IllegalStateException.class, () -> player.makeGuess(SECRET));
+    assertEquals(0, gameStore.size());
+  }
+}
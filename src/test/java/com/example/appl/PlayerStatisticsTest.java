@@ -0,0 +1,79 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link PlayerStatistics} component.
+ */
+@Tag("Application-tier")
+public class PlayerStatisticsTest {
+
+  @Test
+  public void noneHasNoGames() {
+    assertEquals(0, PlayerStatistics.NONE.getGames());
+    assertEquals(0, PlayerStatistics.NONE.getWins());
+    assertEquals(0, PlayerStatistics.NONE.toPackedState());
+    assertSame(PlayerStatistics.NONE, PlayerStatistics.fromPackedState(0));
+  }
+
+  @Test
+  public void winsAreGroupedByGuesses() {
+    final PlayerStatistics stats = PlayerStatistics.NONE.won(1).won(2).won(3).won(7).lost();
+
+    assertEquals(5, stats.getGames());
+    assertEquals(4, stats.getWins());
+    assertEquals(1, stats.getLosses());
+    assertEquals(1, stats.getWins(1));
+    assertEquals(1, stats.getWins(2));
+    assertEquals(2, stats.getWins(3));
+    assertThrows(IllegalArgumentException.class, () -> stats.getWins(PlayerStatistics.GUESS_GROUPS + 1));
+  }
+
+  @Test
+  public void lossEndsTheStreak() {
+    final PlayerStatistics stats = PlayerStatistics.NONE.won(1).won(1).won(1).lost().won(2);
+
+    assertEquals(1, stats.getCurrentStreak());
+    assertEquals(3, stats.getBestStreak());
+  }
+
+  @Test
+  public void packedStateRoundTrips() {
+    final PlayerStatistics stats = PlayerStatistics.NONE.won(2).lost().won(3).won(1);
+
+    final PlayerStatistics copy = PlayerStatistics.fromPackedState(stats.toPackedState());
+
+    assertEquals(stats.getGames(), copy.getGames());
+    assertEquals(stats.getWins(2), copy.getWins(2));
+    assertEquals(stats.getCurrentStreak(), copy.getCurrentStreak());
+    assertEquals(stats.getBestStreak(), copy.getBestStreak());
+  }
+
+  @Test
+  public void streakStopsAtItsMaximum() {
+    PlayerStatistics stats = PlayerStatistics.NONE;
+    for (int i = 0; i < 100; i++) {
+      stats = stats.won(1);
+    }
+
+    assertEquals(100, stats.getGames());
+    assertEquals(63, stats.getCurrentStreak());
+    assertEquals(63, stats.getBestStreak());
+  }
+
+  @Test
+  public void gamesStopAtTheirMaximum() {
+    PlayerStatistics stats = PlayerStatistics.NONE;
+    for (int i = 0; i < 70_000; i++) {
+      stats = stats.lost();
+    }
+
+    assertEquals(65_535, stats.getGames());
+    assertSame(stats, stats.won(1));
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.appl.RollingStatistics.Window;
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The unit test suite for the {@link RollingStatistics} component. The windows
+ * cannot be moved on by hand, so only what a test sees within its first minute
+ * is checked.
+ */
+@Tag("Application-tier")
+public class RollingStatisticsTest {
+
+  private final RollingStatistics statistics = new RollingStatistics();
+
+  @Test
+  public void windowsHaveTheirLength() {
+    assertEquals(60, Window.MINUTE.getSeconds());
+    assertEquals(3_600, Window.HOUR.getSeconds());
+    assertEquals(86_400, Window.DAY.getSeconds());
+  }
+
+  @Test
+  public void newStatisticsAreEmpty() {
+    for (Window window : Window.values()) {
+      final RollingStatistics.Totals totals = statistics.totals(window);
+      assertSame(window, totals.getWindow());
+      assertEquals(0, totals.getGames());
+      assertEquals(0, totals.getGuesses());
+    }
+  }
+
+  @Test
+  public void guessesAreCountedInEveryWindow() {
+    statistics.guessMade(GuessResult.WRONG);
+    statistics.guessMade(GuessResult.WON);
+    statistics.guessMade(GuessResult.TOO_HIGH);
+    statistics.guessMade(GuessResult.LOST);
+    statistics.guessMade(GuessResult.INVALID);
+
+    for (Window window : Window.values()) {
+      final RollingStatistics.Totals totals = statistics.totals(window);
+      assertEquals(4, totals.getGuesses(), window.name());
+      assertEquals(2, totals.getGames(), window.name());
+      assertEquals(1, totals.getWins(), window.name());
+    }
+  }
+
+  /**
+   * A window that has only just started is taken to be a second long, so the
+   * rates of the first moments are not inflated.
+   */
+  @Test
+  public void ratesAreTakenOverAtLeastASecond() {
+    statistics.guessMade(GuessResult.WON);
+
+    final RollingStatistics.Totals totals = statistics.totals(Window.MINUTE);
+
+    assertTrue(totals.getSeconds() >= 1);
+    assertTrue(totals.getGamesPerSecond() <= 1);
+    assertEquals(totals.getGames() / totals.getSeconds(), totals.getGamesPerSecond());
+    assertEquals(totals.getWinsPerSecond(), totals.getGuessesPerSecond());
+  }
+}
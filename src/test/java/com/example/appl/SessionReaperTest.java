@@ -0,0 +1,130 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link SessionReaper} component. The wheel is
+ * advanced by hand; the background thread is never started.
+ */
+@Tag("Application-tier")
+public class SessionReaperTest {
+
+  private static final long TICK_MILLIS = 1;
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+  /**
+   * Create a player watched by the reaper, idle since the given time.
+   */
+  private static PlayerServices idlePlayer(final GameCenter gameCenter, final long idleSinceNanos) {
+    final PlayerServices player = gameCenter.newPlayerServices();
+    player.lastAccessNanos = idleSinceNanos;
+    return player;
+  }
+
+  private static GameCenter gameCenter(final SessionReaper reaper) {
+    return new GameCenter(new GameCenter.Settings().sessionReaper(reaper));
+  }
+
+  private static void assertEndsAfter(final long timeoutTicks) {
+    final long startNanos = System.nanoTime();
+    final SessionReaper reaper = new SessionReaper(timeoutTicks * TICK_MILLIS, TICK_MILLIS);
+    final PlayerServices player = idlePlayer(gameCenter(reaper), startNanos);
+
+    reaper.advanceTo(startNanos + (timeoutTicks - 2) * TICK_NANOS);
+    assertFalse(player.isSessionEnded(), "ended early");
+    assertEquals(1, reaper.getLiveSessions());
+
+    reaper.advanceTo(startNanos + (timeoutTicks + 2) * TICK_NANOS);
+    assertTrue(player.isSessionEnded(), "not ended");
+    assertEquals(0, reaper.getLiveSessions());
+    assertEquals(1, reaper.getExpiredSessions());
+  }
+
+  @Test
+  public void timeoutMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new SessionReaper(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SessionReaper(1, 0));
+  }
+
+  @Test
+  public void endsIdlePlayerOnTheFirstLevel() {
+    assertEndsAfter(10);
+  }
+
+  @Test
+  public void endsIdlePlayerCascadedFromTheSecondLevel() {
+    assertEndsAfter(100);
+  }
+
+  @Test
+  public void endsIdlePlayerCascadedFromTheThirdLevel() {
+    assertEndsAfter(5_000);
+  }
+
+  @Test
+  public void endsIdlePlayerCascadedFromTheFourthLevel() {
+    assertEndsAfter(300_000);
+  }
+
+  @Test
+  public void activePlayerIsRescheduled() {
+    final long timeoutTicks = 100;
+    final long startNanos = System.nanoTime();
+    final SessionReaper reaper = new SessionReaper(timeoutTicks * TICK_MILLIS, TICK_MILLIS);
+    final PlayerServices player = idlePlayer(gameCenter(reaper), startNanos);
+    reaper.advanceTo(startNanos + TICK_NANOS);
+
+    // active just before its deadline: it has another whole timeout from then
+    final long activeNanos = startNanos + (timeoutTicks - 5) * TICK_NANOS;
+    player.lastAccessNanos = activeNanos;
+    reaper.advanceTo(startNanos + (timeoutTicks + 5) * TICK_NANOS);
+    assertFalse(player.isSessionEnded());
+
+    reaper.advanceTo(activeNanos + (timeoutTicks + 2) * TICK_NANOS);
+    assertTrue(player.isSessionEnded());
+    assertEquals(1, reaper.getExpiredSessions());
+  }
+
+  @Test
+  public void playerEndedElsewhereIsDropped() {
+    final long timeoutTicks = 10;
+    final long startNanos = System.nanoTime();
+    final SessionReaper reaper = new SessionReaper(timeoutTicks * TICK_MILLIS, TICK_MILLIS);
+    final PlayerServices player = idlePlayer(gameCenter(reaper), startNanos);
+
+    player.endSession();
+    assertEquals(1, reaper.getLiveSessions());
+    reaper.advanceTo(startNanos + (timeoutTicks + 2) * TICK_NANOS);
+
+    assertEquals(0, reaper.getLiveSessions());
+    assertEquals(0, reaper.getExpiredSessions());
+  }
+
+  @Test
+  public void endsOnlyThePlayersDue() {
+    final long startNanos = System.nanoTime();
+    final SessionReaper reaper = new SessionReaper(1_000 * TICK_MILLIS, TICK_MILLIS);
+    final GameCenter gameCenter = gameCenter(reaper);
+    final PlayerServices[] players = new PlayerServices[200];
+    for (int i = 0; i < players.length; i++) {
+      players[i] = idlePlayer(gameCenter, startNanos + i * 10 * TICK_NANOS);
+    }
+
+    // players are due at 1000, 1010, ... 2990 ticks; by 2005 the first 101 are due
+    reaper.advanceTo(startNanos + 2_005 * TICK_NANOS);
+
+    for (int i = 0; i < players.length; i++) {
+      assertEquals(i <= 100, players[i].isSessionEnded(), "player " + i);
+    }
+    assertEquals(101, reaper.getExpiredSessions());
+    assertEquals(99, reaper.getLiveSessions());
+  }
+}
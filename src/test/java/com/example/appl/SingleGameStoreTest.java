@@ -0,0 +1,48 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.GuessGame;
+
+/**
+ * The unit test suite for the {@link SingleGameStore} component.
+ */
+@Tag("Application-tier")
+public class SingleGameStoreTest {
+
+  @Test
+  public void slotIsHeldFromTheStart() {
+    final GuessGame game = new GuessGame(4);
+    final SingleGameStore store = new SingleGameStore(game);
+
+    assertEquals(1, store.size());
+    assertEquals(game.toPackedState(), store.load(SingleGameStore.SLOT).toPackedState());
+    assertThrows(IllegalStateException.class, store::allocate);
+  }
+
+  @Test
+  public void releasedSlotIsFree() {
+    final SingleGameStore store = new SingleGameStore(new GuessGame(4));
+
+    store.release(SingleGameStore.SLOT);
+
+    assertEquals(0, store.size());
+    assertNull(store.load(SingleGameStore.SLOT));
+  }
+
+  @Test
+  public void releasedSlotCanBeAllocatedAgain() {
+    final SingleGameStore store = new SingleGameStore(null);
+    store.release(SingleGameStore.SLOT);
+
+    assertEquals(SingleGameStore.SLOT, store.allocate());
+
+    assertEquals(1, store.size());
+    assertNull(store.load(SingleGameStore.SLOT));
+  }
+}
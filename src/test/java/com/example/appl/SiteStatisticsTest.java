@@ -0,0 +1,102 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link SiteStatistics} component.
+ */
+@Tag("Application-tier")
+public class SiteStatisticsTest {
+
+  @Test
+  public void stripesMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new SiteStatistics(0));
+  }
+
+  @Test
+  public void newStatisticsAreEmpty() {
+    final SiteStatistics.Snapshot snapshot = new SiteStatistics(4).snapshot();
+
+    assertEquals(0, snapshot.getTotalGames());
+    assertEquals(0, snapshot.getGamesWon());
+  }
+
+  @Test
+  public void countsGamesAndWins() {
+    final SiteStatistics statistics = new SiteStatistics(3);
+
+    statistics.gameFinished(true);
+    statistics.gameFinished(false);
+    statistics.gameFinished(true);
+
+    final SiteStatistics.Snapshot snapshot = statistics.snapshot();
+    assertEquals(3, snapshot.getTotalGames());
+    assertEquals(2, snapshot.getGamesWon());
+  }
+
+  @Test
+  public void versionIsTheNumberOfGames() {
+    final SiteStatistics statistics = new SiteStatistics(new SiteStatistics.Snapshot(10, 4));
+    assertEquals(10, statistics.version());
+
+    statistics.gameFinished(false);
+
+    assertEquals(11, statistics.version());
+  }
+
+  @Test
+  public void startsFromTheBase() {
+    final SiteStatistics statistics = new SiteStatistics(2, new SiteStatistics.Snapshot(10, 4));
+
+    statistics.gameFinished(true);
+
+    final SiteStatistics.Snapshot snapshot = statistics.snapshot();
+    assertEquals(11, snapshot.getTotalGames());
+    assertEquals(5, snapshot.getGamesWon());
+  }
+
+  /**
+   * Games finished on many threads, and so on many stripes, all add up.
+   */
+  @Test
+  public void concurrentGamesAreAllCounted() throws Exception {
+    final int threads = 8;
+    final int gamesPerThread = 10_000;
+    final SiteStatistics statistics = new SiteStatistics(4);
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final Future<?>[] futures = new Future<?>[threads];
+      for (int t = 0; t < threads; t++) {
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < gamesPerThread; i++) {
+            statistics.gameFinished(i % 2 == 0);
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    final SiteStatistics.Snapshot snapshot = statistics.snapshot();
+    assertEquals(threads * gamesPerThread, snapshot.getTotalGames());
+    assertEquals(threads * gamesPerThread / 2, snapshot.getGamesWon());
+    assertEquals(snapshot.getTotalGames(), statistics.version());
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.appl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.GameRules;
+import com.example.model.GuessGame;
+
+/**
+ * The unit test suite for the {@link SlabGameStore} component.
+ */
+@Tag("Application-tier")
+public class SlabGameStoreTest {
+
+  private final SlabGameStore store = new SlabGameStore();
+
+  @Test
+  public void newSlotIsEmpty() {
+    final int slot = store.allocate();
+
+    assertNull(store.load(slot));
+    assertFalse(store.loadInto(slot, new GuessGame(1)));
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  public void savedGameIsLoaded() {
+    final int slot = store.allocate();
+    final GuessGame game = new GuessGame(GameRules.of(100, 5, true), 42);
+    game.makeGuess(7);
+
+    store.save(slot, game);
+
+    assertEquals(game.toPackedState(), store.load(slot).toPackedState());
+  }
+
+  @Test
+  public void savedGameIsCopied() {
+    final int slot = store.allocate();
+    final GuessGame game = new GuessGame(4);
+    store.save(slot, game);
+    final long saved = game.toPackedState();
+
+    game.makeGuess(1);
+
+    assertEquals(saved, store.load(slot).toPackedState());
+  }
+
+  @Test
+  public void loadIntoRestoresTheCallersGame() {
+    final int slot = store.allocate();
+    final GuessGame saved = new GuessGame(4);
+    saved.makeGuess(1);
+    store.save(slot, saved);
+    final GuessGame working = new GuessGame(9);
+
+    assertTrue(store.loadInto(slot, working));
+
+    assertEquals(saved.toPackedState(), working.toPackedState());
+  }
+
+  @Test
+  public void savingNullEmptiesTheSlot() {
+    final int slot = store.allocate();
+    store.save(slot, new GuessGame(4));
+
+    store.save(slot, null);
+
+    assertNull(store.load(slot));
+  }
+
+  @Test
+  public void releasedSlotIsReusedEmpty() {
+    final int first = store.allocate();
+    store.allocate();
+    store.save(first, new GuessGame(4));
+
+    store.release(first);
+    assertEquals(1, store.size());
+    final int reused = store.allocate();
+
+    assertEquals(first, reused);
+    assertNull(store.load(reused));
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  public void slotsSpanPages() {
+    final Set<Integer> slots = new HashSet<>();
+    for (int i = 0; i <= SlabGameStore.PAGE_SIZE; i++) {
+      slots.add(store.allocate());
+    }
+    final int last = SlabGameStore.PAGE_SIZE;
+    final GuessGame first = new GuessGame(1);
+    final GuessGame second = new GuessGame(2);
+
+    store.save(0, first);
+    store.save(last, second);
+
+    assertEquals(SlabGameStore.PAGE_SIZE + 1, slots.size());
+    assertEquals(SlabGameStore.PAGE_SIZE + 1, store.size());
+    assertEquals(first.toPackedState(), store.load(0).toPackedState());
+    assertEquals(second.toPackedState(), store.load(last).toPackedState());
+    assertNotEquals(store.load(0).toPackedState(), store.load(last).toPackedState());
+  }
+
+  @Test
+  public void slotsDoNotOverlap() {
+    final int a = store.allocate();
+    final int b = store.allocate();
+    final GuessGame game = new GuessGame(GameRules.CLASSIC, 8);
+
+    store.save(a, game);
+
+    assertSame(GameRules.CLASSIC, store.load(a).getRules());
+    assertNull(store.load(b));
+  }
+}
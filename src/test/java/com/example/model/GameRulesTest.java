@@ -0,0 +1,74 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The unit test suite for the {@link GameRules} component.
+ */
+@Tag("Model-tier")
+public class GameRulesTest {
+
+  @Test
+  public void classicRulesHaveIdZero() {
+    assertEquals(0, GameRules.CLASSIC.getId());
+    assertEquals(GuessGame.UPPER_BOUND, GameRules.CLASSIC.getUpperBound());
+    assertEquals(GuessGame.NUM_OF_GUESSES, GameRules.CLASSIC.getGuesses());
+    assertFalse(GameRules.CLASSIC.hasHints());
+  }
+
+  @Test
+  public void equalRulesAreShared() {
+    final GameRules rules = GameRules.of(50, 6, true);
+
+    assertSame(rules, GameRules.of(50, 6, true));
+    assertSame(rules, GameRules.byId(rules.getId()));
+    assertNotSame(rules, GameRules.of(50, 6, false));
+  }
+
+  @Test
+  public void rangeIsChecked() {
+    assertThrows(IllegalArgumentException.class, () -> GameRules.of(0, 3, false));
+    assertThrows(IllegalArgumentException.class, () -> GameRules.of(10, 0, false));
+    assertThrows(IllegalArgumentException.class, () -> GameRules.of(10, GameRules.MAX_GUESSES + 1, false));
+    assertThrows(IllegalArgumentException.class, () -> GameRules.byId(-1));
+  }
+
+  @Test
+  public void guessesAreValidFromZeroToTheHighestNumber() {
+    final GameRules rules = GameRules.of(100, 5, false);
+
+    assertEquals(99, rules.getHighestNumber());
+    assertTrue(rules.isValidGuess(0));
+    assertTrue(rules.isValidGuess(99));
+    assertFalse(rules.isValidGuess(-1));
+    assertFalse(rules.isValidGuess(100));
+  }
+
+  @Test
+  public void hintsTellTheDirection() {
+    final GameRules rules = GameRules.of(100, 5, true);
+
+    assertEquals(GuessResult.TOO_LOW, rules.judge(50, 10, 2));
+    assertEquals(GuessResult.TOO_HIGH, rules.judge(50, 90, 2));
+    assertEquals(GuessResult.WON, rules.judge(50, 50, 0));
+    assertEquals(GuessResult.LOST, rules.judge(50, 10, 0));
+  }
+
+  @Test
+  public void withoutHintsAGuessIsOnlyWrong() {
+    final GameRules rules = GameRules.of(100, 5, false);
+
+    assertEquals(GuessResult.WRONG, rules.judge(50, 10, 2));
+    assertEquals(GuessResult.WRONG, rules.judge(50, 90, 2));
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.model.GuessGame.GuessResult;
+
+/**
+ * The unit test suite for the {@link GuessGame} component.
+ */
+@Tag("Model-tier")
+public class GuessGameTest {
+
+  private static final int NUMBER = 7;
+  private static final int WRONG = 3;
+
+  @Test
+  public void newGameIsAtTheBeginning() {
+    final GuessGame game = new GuessGame(NUMBER);
+
+    assertTrue(game.isGameBeginning());
+    assertTrue(game.hasMoreGuesses());
+    assertFalse(game.isFinished());
+    assertEquals(GuessGame.NUM_OF_GUESSES, game.guessesLeft());
+    assertSame(GameRules.CLASSIC, game.getRules());
+  }
+
+  @Test
+  public void invalidGuessUsesNoGuess() {
+    final GuessGame game = new GuessGame(NUMBER);
+
+    assertEquals(GuessResult.INVALID, game.makeGuess(-1));
+    assertEquals(GuessResult.INVALID, game.makeGuess(GuessGame.UPPER_BOUND));
+
+    assertEquals(GuessGame.NUM_OF_GUESSES, game.guessesLeft());
+    assertTrue(game.isGameBeginning());
+  }
+
+  @Test
+  public void rightGuessWins() {
+    final GuessGame game = new GuessGame(NUMBER);
+
+    assertEquals(GuessResult.WRONG, game.makeGuess(WRONG));
+    assertEquals(GuessResult.WON, game.makeGuess(NUMBER));
+
+    assertTrue(game.isFinished());
+    assertEquals(GuessGame.NUM_OF_GUESSES - 2, game.guessesLeft());
+  }
+
+  @Test
+  public void lastWrongGuessLoses() {
+    final GuessGame game = new GuessGame(NUMBER);
+    for (int i = 1; i < GuessGame.NUM_OF_GUESSES; i++) {
+      assertEquals(GuessResult.WRONG, game.makeGuess(WRONG));
+    }
+
+    assertEquals(GuessResult.LOST, game.makeGuess(WRONG));
+    assertTrue(game.isFinished());
+    assertFalse(game.hasMoreGuesses());
+    assertThrows(IllegalStateException.class, () -> game.makeGuess(NUMBER));
+  }
+
+  @Test
+  public void packedStateIsNeverNegative() {
+    final GameRules rules = GameRules.of(Integer.MAX_VALUE, GameRules.MAX_GUESSES, true);
+    final GuessGame game = new GuessGame(rules, Integer.MAX_VALUE - 1);
+
+    assertTrue(game.toPackedState() >= 0);
+  }
+
+  @Test
+  public void packedStateRoundTrips() {
+    final GameRules rules = GameRules.of(1000, 10, true);
+    final GuessGame game = new GuessGame(rules, 500);
+    assertEquals(GuessResult.TOO_LOW, game.makeGuess(100));
+    assertEquals(GuessResult.TOO_HIGH, game.makeGuess(900));
+
+    final GuessGame copy = GuessGame.fromPackedState(game.toPackedState());
+
+    assertSame(rules, copy.getRules());
+    assertEquals(game.toPackedState(), copy.toPackedState());
+    assertEquals(8, copy.guessesLeft());
+    assertFalse(copy.isGameBeginning());
+    assertEquals(GuessResult.WON, copy.makeGuess(500));
+  }
+
+  @Test
+  public void finishedGameRoundTrips() {
+    final GuessGame game = new GuessGame(NUMBER);
+    game.makeGuess(NUMBER);
+
+    final GuessGame copy = GuessGame.fromPackedState(game.toPackedState());
+
+    assertTrue(copy.isFinished());
+  }
+
+  @Test
+  public void classicGamePacksWithRulesIdZero() {
+    final GuessGame game = new GuessGame(NUMBER);
+
+    // the rules id is above the 3 result bits and 8 guesses bits
+    assertEquals(0, (int) game.toPackedState() >>> 11);
+    assertEquals(NUMBER, game.toPackedState() >>> 32);
+  }
+
+  @Test
+  public void restoreReusesTheGame() {
+    final GuessGame played = new GuessGame(NUMBER);
+    played.makeGuess(WRONG);
+    final GuessGame recycled = new GuessGame(2);
+
+    recycled.restore(played.toPackedState());
+
+    assertEquals(played.toPackedState(), recycled.toPackedState());
+    assertEquals(GuessResult.WON, recycled.makeGuess(NUMBER));
+  }
+
+  @Test
+  public void resetStartsANewGame() {
+    final GuessGame game = new GuessGame(NUMBER);
+    game.makeGuess(NUMBER);
+    final GameRules rules = GameRules.of(100, 7, false);
+
+    game.reset(rules, 42);
+
+    assertTrue(game.isGameBeginning());
+    assertSame(rules, game.getRules());
+    assertEquals(7, game.guessesLeft());
+    assertThrows(IllegalArgumentException.class, () -> game.reset(rules, 100));
+  }
+
+  @Test
+  public void unknownRulesAreRefused() {
+    final long unknownRules = (long) (GameRules.MAX_RULES - 1) << 11;
+
+    assertThrows(IllegalArgumentException.class, () -> GuessGame.fromPackedState(unknownRules));
+  }
+
+  /**
+   * Every concurrent guess is applied exactly once: the game allows its guesses
+   * and refuses the rest, however the threads interleave.
+   */
+  @Test
+  public void concurrentGuessesAreEachCountedOnce() throws Exception {
+    final int threads = 4;
+    final int guessesPerThread = 1000;
+    final GameRules rules = GameRules.of(10, GameRules.MAX_GUESSES, false);
+    final GuessGame game = new GuessGame(rules, NUMBER);
+    final AtomicInteger accepted = new AtomicInteger();
+    final AtomicInteger refused = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final Future<?>[] futures = new Future<?>[threads];
+      for (int t = 0; t < threads; t++) {
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < guessesPerThread; i++) {
+            try {
+              game.makeGuess(WRONG);
+              accepted.incrementAndGet();
+            } catch (IllegalStateException e) {
+              refused.incrementAndGet();
+            }
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(GameRules.MAX_GUESSES, accepted.get());
+    assertEquals(threads * guessesPerThread - GameRules.MAX_GUESSES, refused.get());
+    assertEquals(0, game.guessesLeft());
+    assertTrue(game.isFinished());
+  }
+}
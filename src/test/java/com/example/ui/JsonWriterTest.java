@@ -0,0 +1,51 @@
+package com.example.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link JsonWriter} component.
+ */
+@Tag("UI-tier")
+public class JsonWriterTest {
+
+  @Test
+  public void emptyObject() {
+    assertEquals("{}", new JsonWriter().toString());
+  }
+
+  @Test
+  public void fieldsAreSeparated() {
+    final String json = new JsonWriter()
+        .field("result", "WON")
+        .field("guessesLeft", 2)
+        .field("rate", 0.5)
+        .field("finished", true)
+        .field("message", (String) null)
+        .rawField("leaders", "[]")
+        .toString();
+
+    assertEquals("{\"result\":\"WON\",\"guessesLeft\":2,\"rate\":0.5,\"finished\":true,"
+        + "\"message\":null,\"leaders\":[]}", json);
+  }
+
+  @Test
+  public void toStringLeavesTheWriterAsItWas() {
+    final JsonWriter writer = new JsonWriter().field("a", 1);
+
+    assertEquals("{\"a\":1}", writer.toString());
+    assertEquals("{\"a\":1}", writer.toString());
+    assertEquals("{\"a\":1,\"b\":2}", writer.field("b", 2).toString());
+  }
+
+  @Test
+  public void stringsAreEscaped() {
+    final StringBuilder out = new StringBuilder();
+
+    JsonWriter.appendString(out, "a\"b\\c\nd\re\tf\u0001g/\u00e9");
+
+    assertEquals("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g/\u00e9\"", out.toString());
+  }
+}
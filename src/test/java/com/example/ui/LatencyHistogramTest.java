@@ -0,0 +1,74 @@
+package com.example.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link LatencyHistogram} component.
+ */
+@Tag("UI-tier")
+public class LatencyHistogramTest {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  private long only(final long nanos) {
+    final LatencyHistogram single = new LatencyHistogram();
+    single.record(nanos);
+    return single.snapshot().valueAt(0.5);
+  }
+
+  @Test
+  public void emptyHistogramReportsZero() {
+    final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0, snapshot.valueAt(0.99));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (long nanos = 0; nanos < 32; nanos++) {
+      assertEquals(nanos, only(nanos));
+    }
+  }
+
+  @Test
+  public void bucketsAreWithinASixteenth() {
+    for (long nanos = 32; nanos < 1L << 40; nanos = nanos * 3 / 2 + 1) {
+      final long reported = only(nanos);
+      assertTrue(reported >= nanos, nanos + " reported as " + reported);
+      assertTrue(reported - nanos <= nanos / 16, nanos + " reported as " + reported);
+    }
+  }
+
+  @Test
+  public void bucketIsReportedByItsHighestValue() {
+    assertEquals(1023, only(1000));
+    assertEquals(1023, only(992));
+    assertEquals(991, only(991));
+  }
+
+  @Test
+  public void outOfRangeValuesAreClamped() {
+    assertEquals(0, only(-5));
+    assertEquals(only(1L << 41), only(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void quantilesComeFromTheCounts() {
+    for (long nanos = 1; nanos <= 100; nanos++) {
+      histogram.record(nanos);
+    }
+
+    final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(100, snapshot.getCount());
+    assertEquals(5050, snapshot.getTotalNanos());
+    assertEquals(1, snapshot.valueAt(0));
+    assertEquals(51, snapshot.valueAt(0.5));
+    assertEquals(103, snapshot.valueAt(1));
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import spark.ModelAndView;
+import spark.TemplateEngine;
+import spark.template.freemarker.FreeMarkerEngine;
+
+/**
+ * The unit test suite for the {@link PrecompiledTemplateEngine} component. Every
+ * view-model the routes can build must render exactly as FreeMarker renders it.
+ */
+@Tag("UI-tier")
+public class PrecompiledTemplateEngineTest {
+
+  private static final String STATS = "There have been 2 games played. Players have won 50% of those games.";
+
+  private final TemplateEngine freeMarker = new FreeMarkerEngine();
+  private final TemplateEngine precompiled = new PrecompiledTemplateEngine();
+
+  private void assertSameHtml(final Map<String, Object> vm, final String viewName) {
+    final ModelAndView view = new ModelAndView(vm, viewName);
+    assertEquals(freeMarker.render(view), precompiled.render(view));
+  }
+
+  private static Map<String, Object> homeVm() {
+    final Map<String, Object> vm = new HashMap<>();
+    vm.put(GetHomeRoute.TITLE_ATTR, GetHomeRoute.TITLE);
+    vm.put(GetHomeRoute.GAME_STATS_MSG_ATTR, STATS);
+    return vm;
+  }
+
+  private static Map<String, Object> gameVm(final boolean firstGuess, final int guessesLeft, final int highest) {
+    final Map<String, Object> vm = new HashMap<>();
+    vm.put(GetHomeRoute.TITLE_ATTR, GetGameRoute.TITLE);
+    vm.put(GetGameRoute.GAME_BEGINS_ATTR, firstGuess);
+    vm.put(GetGameRoute.GUESSES_LEFT_ATTR, guessesLeft);
+    vm.put(GetGameRoute.HIGHEST_NUMBER_ATTR, highest);
+    return vm;
+  }
+
+  @Test
+  public void homeForNewPlayer() {
+    final Map<String, Object> vm = homeVm();
+    vm.put(GetHomeRoute.NEW_PLAYER_ATTR, true);
+
+    assertSameHtml(vm, GetHomeRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void homeAfterWinWithStatsRankAndLeaders() {
+    final Map<String, Object> vm = homeVm();
+    vm.put(GetHomeRoute.NEW_PLAYER_ATTR, false);
+    vm.put(PostGuessRoute.YOU_WON_ATTR, true);
+    vm.put(GetHomeRoute.PLAYER_STATS_MSG_ATTR, "You have won an average of 100.0% of this session's 1 game.");
+    vm.put(GetHomeRoute.PLAYER_RANK_MSG_ATTR, "You are ranked 1 of 2 players.");
+    vm.put(GetHomeRoute.LEADERS_ATTR, Arrays.asList("1 win in 1 game", "0 wins in 3 games"));
+
+    assertSameHtml(vm, GetHomeRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void homeAfterLossWithoutRankOrLeaders() {
+    final Map<String, Object> vm = homeVm();
+    vm.put(GetHomeRoute.NEW_PLAYER_ATTR, false);
+    vm.put(PostGuessRoute.YOU_WON_ATTR, false);
+    vm.put(GetHomeRoute.PLAYER_STATS_MSG_ATTR, "You have not won a game, yet.");
+    vm.put(GetHomeRoute.LEADERS_ATTR, Collections.emptyList());
+
+    assertSameHtml(vm, GetHomeRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void gameFormForFirstGuess() {
+    assertSameHtml(gameVm(true, 3, 9), GetGameRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void gameFormWithMessageAndOneGuessLeft() {
+    final Map<String, Object> vm = gameVm(false, 1, 9);
+    vm.put(PostGuessRoute.MESSAGE_ATTR, PostGuessRoute.BAD_GUESS);
+    vm.put(PostGuessRoute.MESSAGE_TYPE_ATTR, PostGuessRoute.ERROR_TYPE);
+
+    assertSameHtml(vm, GetGameRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void gameFormWithLargeNumbers() {
+    assertSameHtml(gameVm(false, 20, 999_999), GetGameRoute.VIEW_NAME);
+    assertSameHtml(gameVm(false, 1_000, 1_000_000), GetGameRoute.VIEW_NAME);
+  }
+
+  @Test
+  public void unknownViewIsRefused() {
+    assertThrows(IllegalArgumentException.class,
+        () -> precompiled.render(new ModelAndView(homeVm(), "other.ftl")));
+  }
+
+  @Test
+  public void missingValueIsRefused() {
+    final Map<String, Object> vm = gameVm(true, 3, 9);
+    vm.remove(GetGameRoute.HIGHEST_NUMBER_ATTR);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> precompiled.render(new ModelAndView(vm, GetGameRoute.VIEW_NAME)));
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test suite for the {@link RateLimiter} component. The limiters read
+ * a clock that only moves when a test moves it.
+ */
+@Tag("UI-tier")
+public class RateLimiterTest {
+
+  private static final int BURST = 3;
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  // starts far from zero, as System.nanoTime() may
+  private final AtomicLong clock = new AtomicLong(-SECOND * 1_000);
+
+  private RateLimiter limiter(final int permitsPerSecond, final int burst, final int maxClients) {
+    return new RateLimiter(permitsPerSecond, burst, maxClients, clock::get);
+  }
+
+  @Test
+  public void parametersMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new RateLimiter(1, 1, 0));
+    assertThrows(NullPointerException.class, () -> new RateLimiter(1, 1, 1, null));
+  }
+
+  @Test
+  public void fullBucketAllowsABurst() {
+    final RateLimiter limiter = limiter(1, BURST, 16);
+
+    for (int i = 0; i < BURST; i++) {
+      assertTrue(limiter.tryAcquire("a"), "token " + i);
+    }
+    assertFalse(limiter.tryAcquire("a"));
+  }
+
+  @Test
+  public void clientsHaveTheirOwnBuckets() {
+    final RateLimiter limiter = limiter(1, 1, 16);
+
+    assertTrue(limiter.tryAcquire("a"));
+    assertFalse(limiter.tryAcquire("a"));
+
+    assertTrue(limiter.tryAcquire("b"));
+  }
+
+  @Test
+  public void bucketRefillsAtTheRate() {
+    final RateLimiter limiter = limiter(10, BURST, 16);
+    for (int i = 0; i < BURST; i++) {
+      limiter.tryAcquire("a");
+    }
+
+    clock.addAndGet(SECOND / 10 - 1);
+    assertFalse(limiter.tryAcquire("a"));
+
+    clock.addAndGet(1);
+    assertTrue(limiter.tryAcquire("a"));
+    assertFalse(limiter.tryAcquire("a"));
+  }
+
+  @Test
+  public void idleBucketHoldsNoMoreThanABurst() {
+    final RateLimiter limiter = limiter(10, BURST, 16);
+    limiter.tryAcquire("a");
+
+    clock.addAndGet(SECOND * 60);
+
+    for (int i = 0; i < BURST; i++) {
+      assertTrue(limiter.tryAcquire("a"), "token " + i);
+    }
+    assertFalse(limiter.tryAcquire("a"));
+  }
+
+  /**
+   * A full table throws a bucket out rather than turning the new client away.
+   */
+  @Test
+  public void fullTableLetsNewClientsThrough() {
+    final RateLimiter limiter = limiter(1, 1, 2);
+
+    for (int client = 0; client < 100; client++) {
+      assertTrue(limiter.tryAcquire("client-" + client), "client " + client);
+    }
+  }
+
+  @Test
+  public void concurrentRequestsTakeEachTokenOnce() throws Exception {
+    final int threads = 4;
+    final int requestsPerThread = 1000;
+    final int burst = 100;
+    final RateLimiter limiter = limiter(1, burst, 16);
+    final AtomicInteger allowed = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final Future<?>[] futures = new Future<?>[threads];
+      for (int t = 0; t < threads; t++) {
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < requestsPerThread; i++) {
+            if (limiter.tryAcquire("a")) {
+              allowed.incrementAndGet();
+            }
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(burst, allowed.get());
+  }
+}
@@ -0,0 +1,169 @@
+package com.example.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.example.appl.GameCenter;
+import com.example.appl.PlayerServices;
+import com.example.appl.SessionReaper;
+import com.example.model.GameRules;
+import com.example.model.GuessGame.GuessResult;
+
+import spark.StubRequest;
+import spark.StubResponse;
+
+/**
+ * The unit test suite for the {@link TokenPlayerSessionStore} component.
+ */
+@Tag("UI-tier")
+public class TokenPlayerSessionStoreTest {
+
+  private static final int SECRET = 4;
+  private static final int WRONG = 1;
+
+  // the reaper's thread is never started; token players are not watched by it
+  private final GameCenter gameCenter = new GameCenter(new GameCenter.Settings()
+      .sessionReaper(new SessionReaper(60_000, 1_000))
+      .rules(GameRules.of(10, 3, false))
+      .numbers(upperBound -> SECRET));
+  private final TokenPlayerSessionStore store =
+      new TokenPlayerSessionStore(gameCenter, TokenPlayerSessionStore.randomKey());
+
+  /**
+   * Save the player and return a request that brings its cookie back.
+   */
+  private StubRequest saveAndReturn(final TokenPlayerSessionStore saver, final PlayerServices player) {
+    final StubRequest request = new StubRequest();
+    final StubResponse response = new StubResponse();
+    saver.save(player, request, response);
+    final String token = response.cookie(TokenPlayerSessionStore.COOKIE_NAME);
+    assertNotNull(token);
+    final StubRequest next = new StubRequest();
+    next.cookie(TokenPlayerSessionStore.COOKIE_NAME, token);
+    return next;
+  }
+
+  @Test
+  public void requestWithoutCookieHasNoPlayer() {
+    assertNull(store.find(new StubRequest()));
+    assertFalse(store.keepsPlayers());
+  }
+
+  @Test
+  public void gameInProgressRoundTrips() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    player.startGame();
+    player.makeGuess(WRONG);
+
+    final PlayerServices found = store.find(saveAndReturn(store, player));
+
+    assertNotNull(found);
+    assertEquals(player.getPackedGame(), found.getPackedGame());
+    assertEquals(player.getGameId(), found.getGameId());
+    assertEquals(2, found.guessesLeft());
+  }
+
+  @Test
+  public void statisticsRoundTrip() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    player.startGame();
+    player.makeGuess(SECRET);
+    player.finishedGame();
+
+    final PlayerServices found = store.find(saveAndReturn(store, player));
+
+    assertFalse(found.hasGame());
+    assertEquals(player.getPlayerStats().toPackedState(), found.getPlayerStats().toPackedState());
+    assertEquals(1, found.getPlayerStats().getGames());
+  }
+
+  @Test
+  public void changedTokenIsRefused() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    final StubRequest request = saveAndReturn(store, player);
+    final char[] token = request.cookie(TokenPlayerSessionStore.COOKIE_NAME).toCharArray();
+    token[token.length / 2] = token[token.length / 2] == 'A' ? 'B' : 'A';
+    request.cookie(TokenPlayerSessionStore.COOKIE_NAME, new String(token));
+
+    assertNull(store.find(request));
+  }
+
+  @Test
+  public void tokenOfAnotherKeyIsRefused() {
+    final TokenPlayerSessionStore other =
+        new TokenPlayerSessionStore(gameCenter, TokenPlayerSessionStore.randomKey());
+    final PlayerServices player = other.start(new StubRequest(), new StubResponse());
+
+    assertNull(store.find(saveAndReturn(other, player)));
+  }
+
+  @Test
+  public void garbageTokenIsRefused() {
+    final StubRequest request = new StubRequest();
+    request.cookie(TokenPlayerSessionStore.COOKIE_NAME, "not a token!");
+
+    assertNull(store.find(request));
+  }
+
+  /**
+   * A client that sends the cookie from before its winning guess again gets its
+   * game back only until the game has finished; the win is counted once.
+   */
+  @Test
+  public void finishedGameIsNotPlayedAgain() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    player.startGame();
+    final StubRequest beforeWin = saveAndReturn(store, player);
+
+    assertEquals(GuessResult.WON, store.find(beforeWin).makeGuess(SECRET));
+    final PlayerServices replayed = store.find(beforeWin);
+
+    assertNotNull(replayed);
+    assertFalse(replayed.hasGame());
+    assertEquals(1, gameCenter.getGameStats().getTotalGames());
+  }
+
+  /**
+   * A client that sends the cookie from before a wrong guess again gets no game:
+   * the guess cannot be taken back.
+   */
+  @Test
+  public void wrongGuessCannotBeTakenBack() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    player.startGame();
+    final StubRequest beforeGuess = saveAndReturn(store, player);
+
+    assertEquals(GuessResult.WRONG, store.find(beforeGuess).makeGuess(WRONG));
+    final PlayerServices replayed = store.find(beforeGuess);
+
+    assertFalse(replayed.hasGame());
+    assertEquals(1, gameCenter.getGuessCount(GuessResult.WRONG));
+  }
+
+  /**
+   * Of two copies of a cookie sent at once, only the first makes its guess; the
+   * second learns nothing of it.
+   */
+  @Test
+  public void copiesSentAtOnceMakeOneGuess() {
+    final PlayerServices player = store.start(new StubRequest(), new StubResponse());
+    player.startGame();
+    final StubRequest beforeGuess = saveAndReturn(store, player);
+    final PlayerServices first = store.find(beforeGuess);
+    final PlayerServices second = store.find(beforeGuess);
+
+    assertEquals(GuessResult.WON, first.makeGuess(SECRET));
+    assertThrows(IllegalStateException.class, () -> second.makeGuess(WRONG));
+
+    assertFalse(second.hasGame());
+    assertEquals(1, gameCenter.getGameStats().getTotalGames());
+    assertEquals(1, first.getPlayerStats().getGames());
+    assertEquals(0, second.getPlayerStats().getGames());
+  }
+}
@@ -0,0 +1,119 @@
+package spark;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionBindingListener;
+
+/**
+ * An in-memory {@link HttpSession} that notifies binding listeners the way the
+ * servlet container does.
+ */
+@SuppressWarnings("deprecation")
+public class StubHttpSession implements HttpSession {
+
+  private final Map<String, Object> attributes = new HashMap<>();
+  private final long creationTime = System.currentTimeMillis();
+  private int maxInactiveInterval;
+
+  @Override
+  public long getCreationTime() {
+    return creationTime;
+  }
+
+  @Override
+  public String getId() {
+    return Integer.toHexString(System.identityHashCode(this));
+  }
+
+  @Override
+  public long getLastAccessedTime() {
+    return creationTime;
+  }
+
+  @Override
+  public ServletContext getServletContext() {
+    return null;
+  }
+
+  @Override
+  public void setMaxInactiveInterval(final int interval) {
+    this.maxInactiveInterval = interval;
+  }
+
+  @Override
+  public int getMaxInactiveInterval() {
+    return maxInactiveInterval;
+  }
+
+  @Override
+  public javax.servlet.http.HttpSessionContext getSessionContext() {
+    return null;
+  }
+
+  @Override
+  public Object getAttribute(final String name) {
+    return attributes.get(name);
+  }
+
+  @Override
+  public Object getValue(final String name) {
+    return getAttribute(name);
+  }
+
+  @Override
+  public Enumeration<String> getAttributeNames() {
+    return Collections.enumeration(attributes.keySet());
+  }
+
+  @Override
+  public String[] getValueNames() {
+    return attributes.keySet().toArray(new String[0]);
+  }
+
+  @Override
+  public void setAttribute(final String name, final Object value) {
+    final Object old = attributes.put(name, value);
+    if (old instanceof HttpSessionBindingListener) {
+      ((HttpSessionBindingListener) old).valueUnbound(new HttpSessionBindingEvent(this, name, old));
+    }
+    if (value instanceof HttpSessionBindingListener) {
+      ((HttpSessionBindingListener) value).valueBound(new HttpSessionBindingEvent(this, name, value));
+    }
+  }
+
+  @Override
+  public void putValue(final String name, final Object value) {
+    setAttribute(name, value);
+  }
+
+  @Override
+  public void removeAttribute(final String name) {
+    final Object old = attributes.remove(name);
+    if (old instanceof HttpSessionBindingListener) {
+      ((HttpSessionBindingListener) old).valueUnbound(new HttpSessionBindingEvent(this, name, old));
+    }
+  }
+
+  @Override
+  public void removeValue(final String name) {
+    removeAttribute(name);
+  }
+
+  @Override
+  public void invalidate() {
+    for (String name : attributes.keySet().toArray(new String[0])) {
+      removeAttribute(name);
+    }
+  }
+
+  @Override
+  public boolean isNew() {
+    return false;
+  }
+}
@@ -0,0 +1,95 @@
+package spark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpSession;
+
+/**
+ * A {@link Request} that is not backed by a servlet container. It lives in the
+ * {@code spark} package because {@link Session} can only be created from here.
+ */
+public class StubRequest extends Request {
+
+  private final Map<String, String> queryParams = new HashMap<>();
+  private final Map<String, String> cookies = new HashMap<>();
+  private Session session;
+
+  /**
+   * Create a request from a client with no HTTP session yet; the first call to
+   * {@link #session()} creates one.
+   */
+  public StubRequest() {
+  }
+
+  /**
+   * Create a request bound to the given HTTP session.
+   *
+   * @param httpSession
+   *    The session every call to {@link #session()} returns.
+   */
+  public StubRequest(final HttpSession httpSession) {
+    this.session = new Session(httpSession, this);
+  }
+
+  /**
+   * Set a query parameter.
+   *
+   * @param name
+   *    The parameter name.
+   * @param value
+   *    The parameter value.
+   */
+  public void queryParam(final String name, final String value) {
+    queryParams.put(name, value);
+  }
+
+  /**
+   * Set a cookie, or remove it when the value is null.
+   *
+   * @param name
+   *    The cookie name.
+   * @param value
+   *    The cookie value.
+   */
+  public void cookie(final String name, final String value) {
+    if (value == null) {
+      cookies.remove(name);
+    } else {
+      cookies.put(name, value);
+    }
+  }
+
+  @Override
+  public String headers(final String header) {
+    return null;
+  }
+
+  @Override
+  public String cookie(final String name) {
+    return cookies.get(name);
+  }
+
+  @Override
+  public String scheme() {
+    return "http";
+  }
+
+  @Override
+  public String queryParams(final String name) {
+    return queryParams.get(name);
+  }
+
+  @Override
+  public Session session() {
+    return session(true);
+  }
+
+  @Override
+  public Session session(final boolean create) {
+    if (session == null && create) {
+      session = new Session(new StubHttpSession(), this);
+    }
+    return session;
+  }
+}
@@ -0,0 +1,57 @@
+package spark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Response} that is not backed by a servlet container; it remembers the
+ * last redirect and the cookies set, and ignores everything else.
+ */
+public class StubResponse extends Response {
+
+  private final Map<String, String> cookies = new HashMap<>();
+  private String redirect;
+
+  @Override
+  public void redirect(final String location) {
+    this.redirect = location;
+  }
+
+  @Override
+  public void cookie(final String path, final String name, final String value,
+                     final int maxAge, final boolean secured, final boolean httpOnly) {
+    cookies.put(name, value);
+  }
+
+  @Override
+  public void header(final String header, final String value) {
+    // ignored
+  }
+
+  @Override
+  public void status(final int statusCode) {
+    // ignored
+  }
+
+  @Override
+  public void type(final String contentType) {
+    // ignored
+  }
+
+  /**
+   * @return the location of the last redirect, or null
+   */
+  public String redirect() {
+    return redirect;
+  }
+
+  /**
+   * @param name
+   *    The cookie name.
+   *
+   * @return the value of the cookie last set with the name, or null
+   */
+  public String cookie(final String name) {
+    return cookies.get(name);
+  }
+}
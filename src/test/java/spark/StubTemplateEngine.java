@@ -0,0 +1,24 @@
+package spark;
+
+/**
+ * A {@link TemplateEngine} that does no rendering so route benchmarks measure the
+ * route logic alone. It returns the view name and publishes the model so that the
+ * view-model cannot be optimized away.
+ */
+public class StubTemplateEngine extends TemplateEngine {
+
+  private volatile Object lastModel;
+
+  @Override
+  public String render(final ModelAndView modelAndView) {
+    lastModel = modelAndView.getModel();
+    return modelAndView.getViewName();
+  }
+
+  /**
+   * @return the model of the last rendered view
+   */
+  public Object lastModel() {
+    return lastModel;
+  }
+}